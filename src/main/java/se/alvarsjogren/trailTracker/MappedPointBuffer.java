@@ -0,0 +1,66 @@
+package se.alvarsjogren.trailTracker;
+
+import java.io.File;
+import java.nio.LongBuffer;
+
+/**
+ * Read-only point storage backed by a memory-mapped point file.
+ * The points stay off-heap and are paged in by the operating system as they are read.
+ * A path copies its points to a {@link PointBuffer} before it changes them.
+ */
+public class MappedPointBuffer implements PointStorage {
+    /** Mapped view of the packed points */
+    private final LongBuffer points;
+
+    /** The point file whose points are all mapped, or null for a view of part of them */
+    private final File file;
+
+    /**
+     * Wraps a mapped region of packed points.
+     *
+     * @param points The mapped points; only absolute reads are used, so the buffer may be shared
+     */
+    public MappedPointBuffer(LongBuffer points) {
+        this(points, null);
+    }
+
+    /**
+     * Wraps all mapped points of a point file.
+     *
+     * @param points The mapped points; only absolute reads are used, so the buffer may be shared
+     * @param file The point file the points were mapped from, or null if they are only part of it
+     */
+    public MappedPointBuffer(LongBuffer points, File file) {
+        this.points = points;
+        this.file = file;
+    }
+
+    /**
+     * Gets the point file these points are the whole content of.
+     * Stores use it to tell whether the file still holds exactly these points.
+     *
+     * @return The mapped point file, or null if the points are a view of part of a file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public int size() {
+        return points.limit();
+    }
+
+    @Override
+    public long get(int index) {
+        return points.get(index);
+    }
+
+    /**
+     * Gets a view of a range of the mapped points, without copying them.
+     * The view no longer matches the point file, so it has no file.
+     */
+    @Override
+    public MappedPointBuffer slice(int from, int to) {
+        return new MappedPointBuffer(points.slice(from, to - from));
+    }
+}
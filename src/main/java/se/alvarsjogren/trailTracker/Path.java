@@ -1,12 +1,18 @@
 package se.alvarsjogren.trailTracker;
 
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Particle;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
+import se.alvarsjogren.trailTracker.api.PathInfo;
+import se.alvarsjogren.trailTracker.api.PathStatistics;
 import se.alvarsjogren.trailTracker.utilities.ParticleUtilities;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 /**
  * Represents a recorded path in the world.
@@ -54,9 +60,80 @@ public class Path {
     private Particle displayParticle;
 
     /**
-     * Ordered list of locations that make up the path
+     * Name of the world the path was recorded in, stored once per path
      */
-    private final ArrayList<Location> trackedPath = new ArrayList<>();
+    private String worldName;
+
+    /**
+     * UID of the world the path was recorded in, set once that world is loaded and not persisted
+     */
+    private transient UUID worldId;
+
+    /**
+     * Whether the points have been released because the path's world was unloaded
+     */
+    private transient boolean pagedOut;
+
+    /**
+     * Ordered packed points that make up the path, in the path's world.
+     * Either a heap buffer or a read-only mapped point file.
+     */
+    private PointStorage trackedPath = new PointBuffer();
+
+    /**
+     * Recording time of every point as deltas from the previous point.
+     * Null for paths recorded before times were kept; otherwise has one entry per point.
+     */
+    private PointTimes pointTimes;
+
+    /**
+     * When the last point was recorded, used to compute the next delta. Not persisted.
+     */
+    private transient long lastPointTime;
+
+    /**
+     * Cached derived statistics, extended as points are added and recomputed lazily
+     * after the points change in any other way. Not persisted.
+     */
+    private transient volatile PathStatistics statistics;
+
+    /**
+     * Cached cumulative distances along the path, rebuilt after the path changes. Not persisted.
+     */
+    private transient volatile PathArcLengths arcLengths;
+
+    /**
+     * Immutable snapshot served by the public API, replaced only after the path changes.
+     * Not persisted.
+     */
+    private transient volatile PathInfo snapshot;
+
+    /**
+     * Counter bumped on every change, used by storage to skip paths that have not
+     * changed since they were last saved. Not persisted. Increments are not atomic,
+     * but a lost increment still leaves a value different from the saved one.
+     */
+    private transient volatile int revision;
+
+    /**
+     * Counter bumped on every change other than appending points. Not persisted.
+     */
+    private transient volatile int metadataRevision;
+
+    /**
+     * Counter bumped when the points are replaced rather than appended to. Not persisted.
+     */
+    private transient volatile int pointsRevision;
+
+    /**
+     * Counter bumped when the end of the points is cut off. Not persisted.
+     */
+    private transient volatile int trimRevision;
+
+    /**
+     * Number of points kept by the last cut of the end. Not persisted.
+     */
+    private transient int trimmedLength;
 
     /**
      * Creates a new path with the specified name and detection radius.
@@ -69,6 +146,7 @@ public class Path {
         this.name = name;
         this.radius = pathRadius;
         this.displayParticle = particle;
+        this.statistics = PathStatistics.EMPTY;
     }
 
     public String getName() {
@@ -81,12 +159,204 @@ public class Path {
 
     public void setDescription(String pathDescription) {
         this.description = pathDescription;
+        metadataChanged();
     }
 
-    public ArrayList<Location> getTrackedPath() {
+    /**
+     * Gets the packed points that make up the path.
+     * The returned storage is live; decode coordinates with its getters or with {@link PointCodec}.
+     *
+     * @return The path's points
+     */
+    public PointStorage getTrackedPath() {
         return trackedPath;
     }
 
+    /**
+     * Gets the recording times of the points.
+     * The returned times are live; read them with {@link PointTimes#reader()}.
+     *
+     * @return The point times, or null if the path was recorded without them
+     */
+    public PointTimes getPointTimes() {
+        return pointTimes;
+    }
+
+    /**
+     * Gets the point storage in a form that can be appended to.
+     * Mapped points are copied to the heap the first time the path changes.
+     *
+     * @return The path's heap point buffer
+     */
+    private PointBuffer mutablePoints() {
+        if (trackedPath instanceof PointBuffer buffer) {
+            return buffer;
+        }
+        PointBuffer buffer = new PointBuffer(trackedPath);
+        trackedPath = buffer;
+        return buffer;
+    }
+
+    /**
+     * Gets the number of points in the path.
+     *
+     * @return The number of points
+     */
+    public int getPointCount() {
+        return trackedPath.size();
+    }
+
+    /**
+     * Gets the cached statistics of the path (length, bounding box, elevation).
+     * Computed once from the points if needed, then kept up to date as points are recorded.
+     *
+     * @return The path's statistics
+     */
+    public PathStatistics getStatistics() {
+        PathStatistics current = statistics;
+        if (current == null) {
+            synchronized (this) {
+                current = statistics;
+                if (current == null) {
+                    current = computeStatistics();
+                    statistics = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Discards the cached statistics so they are recomputed on next access.
+     * Must be called whenever the points change other than by appending.
+     */
+    public void invalidateStatistics() {
+        statistics = null;
+    }
+
+    private PathStatistics computeStatistics() {
+        PathStatistics result = PathStatistics.EMPTY;
+        double previousX = 0, previousY = 0, previousZ = 0;
+        for (int i = 0; i < trackedPath.size(); i++) {
+            double x = trackedPath.getX(i);
+            double y = trackedPath.getY(i);
+            double z = trackedPath.getZ(i);
+            result = result.withPoint(x, y, z, previousX, previousY, previousZ);
+            previousX = x;
+            previousY = y;
+            previousZ = z;
+        }
+        return result;
+    }
+
+    /**
+     * Builds Bukkit locations for all points of the path.
+     * The locations have no world if the path's world is not loaded.
+     *
+     * @return A new list of locations
+     */
+    public List<Location> getLocations() {
+        World world = worldId == null ? null : Bukkit.getWorld(worldId);
+        List<Location> locations = new ArrayList<>(trackedPath.size());
+        for (int i = 0; i < trackedPath.size(); i++) {
+            locations.add(new Location(world, trackedPath.getX(i), trackedPath.getY(i), trackedPath.getZ(i)));
+        }
+        return locations;
+    }
+
+    /**
+     * Gets the change counter of this path.
+     * The value changes whenever the path is modified; it is not persisted.
+     *
+     * @return The current revision
+     */
+    public int getRevision() {
+        return revision;
+    }
+
+    /**
+     * Gets the change counter of the path's metadata (everything except its points).
+     * Storage uses it to decide between appending points and rewriting metadata.
+     *
+     * @return The current metadata revision
+     */
+    public int getMetadataRevision() {
+        return metadataRevision;
+    }
+
+    /**
+     * Gets the change counter of the path's points, bumped when they are replaced
+     * rather than appended to. Storage uses it to decide when appending is not enough.
+     *
+     * @return The current points revision
+     */
+    public int getPointsRevision() {
+        return pointsRevision;
+    }
+
+    /**
+     * Gets the change counter of cuts to the end of the points. Points before the cut
+     * keep their indexes, so storage only has to drop the stored points after it.
+     *
+     * @return The current trim revision
+     */
+    public int getTrimRevision() {
+        return trimRevision;
+    }
+
+    /**
+     * Gets the number of points that were kept when the end was last cut off.
+     * Read it together with {@link #getTrimRevision()} while holding the path's lock.
+     *
+     * @return The length after the last cut
+     */
+    public int getTrimmedLength() {
+        return trimmedLength;
+    }
+
+    /**
+     * Gets an immutable snapshot of the path for the public API.
+     * The snapshot is created the first time it is requested after a change and
+     * shared by all callers until the path changes again.
+     *
+     * @return The snapshot of the current revision
+     */
+    public PathInfo getSnapshot() {
+        PathInfo current = snapshot;
+        // Read before building, so a change made during the build leaves the snapshot stale
+        int currentRevision = revision;
+        if (current == null || current.getRevision() != currentRevision) {
+            // Heap buffers may still change, so the snapshot gets its own copy; mapped points never do
+            PointStorage frozenPoints = trackedPath instanceof PointBuffer ? new PointBuffer(trackedPath) : trackedPath;
+            World world = worldId == null ? null : Bukkit.getWorld(worldId);
+            current = PathSnapshots.create(name, description, radius, creationDate, createdBy,
+                    frozenPoints, world, getStatistics(), currentRevision);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    /**
+     * Gets the cumulative distance along the path at every point.
+     * Computed on first use and reused until the path changes.
+     *
+     * @return The arc lengths of the current revision
+     */
+    public PathArcLengths getArcLengths() {
+        PathArcLengths current = arcLengths;
+        int currentRevision = revision;
+        if (current == null || current.getRevision() != currentRevision) {
+            current = trackedPath.isEmpty() ? PathArcLengths.EMPTY : PathArcLengths.of(trackedPath, currentRevision);
+            arcLengths = current;
+        }
+        return current;
+    }
+
+    private void metadataChanged() {
+        metadataRevision++;
+        revision++;
+    }
+
     public int getVersion() {
         return this.version;
     }
@@ -101,6 +371,7 @@ public class Path {
 
     public void setRadius(int radius) {
         this.radius = radius;
+        metadataChanged();
     }
 
     public String getCreatedBy() {
@@ -109,6 +380,7 @@ public class Path {
 
     public void setCreatedBy(String createdBy) {
         this.createdBy = createdBy;
+        metadataChanged();
     }
 
     public Date getCreationDate() {
@@ -117,6 +389,142 @@ public class Path {
 
     public void setCreationDate(Date creationDate) {
         this.creationDate = creationDate;
+        metadataChanged();
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    /**
+     * Gets the UID of the world this path belongs to.
+     *
+     * @return The world UID, or null if the path's world is not loaded
+     */
+    public UUID getWorldId() {
+        return worldId;
+    }
+
+    /**
+     * Records the world this path belongs to.
+     * Paths are bound to a single world; points from other worlds are ignored.
+     *
+     * @param world The world the path is recorded in
+     */
+    public void setWorld(World world) {
+        this.worldName = world.getName();
+        this.worldId = world.getUID();
+        revision++;
+    }
+
+    /**
+     * Sets the name of the world this path belongs to without binding it.
+     * Used when reading older files that stored the world on every point.
+     *
+     * @param worldName The world name
+     */
+    public void setWorldName(String worldName) {
+        this.worldName = worldName;
+    }
+
+    /**
+     * Checks if the path's world has been loaded and bound to this path.
+     *
+     * @return true if the path is bound to a loaded world
+     */
+    public boolean isBound() {
+        return worldId != null;
+    }
+
+    /**
+     * Checks if the points have been released because the path's world is unloaded.
+     *
+     * @return true if the points are currently paged out
+     */
+    public boolean isPagedOut() {
+        return pagedOut;
+    }
+
+    /**
+     * Releases the points of this path so an unloaded world can be garbage collected.
+     * The caller is responsible for saving the path first.
+     */
+    public void pageOut() {
+        trackedPath = new PointBuffer();
+        worldId = null;
+        pagedOut = true;
+        revision++;
+        invalidateStatistics();
+    }
+
+    /**
+     * Restores points that were previously paged out.
+     * The path takes ownership of the given storage.
+     *
+     * @param points The points read back from storage
+     */
+    public void pageIn(PointStorage points) {
+        trackedPath = points;
+        pagedOut = false;
+        revision++;
+        invalidateStatistics();
+    }
+
+    /**
+     * Replaces all points of the path, for example after another path was merged into it.
+     * The path takes ownership of the given storage. The times are only kept if they
+     * have one entry per point. Callers must hold the path's lock.
+     *
+     * @param points The new points
+     * @param times The recording times of the new points, or null if unknown
+     */
+    public void replacePoints(PointStorage points, PointTimes times) {
+        trackedPath = points;
+        pointTimes = times != null && times.size() == points.size() ? times : null;
+        lastPointTime = 0;
+        pointsRevision++;
+        metadataChanged();
+        invalidateStatistics();
+    }
+
+    /**
+     * Keeps only a range of the points, for example to cut a bad start or end off a recording.
+     * Cutting the end of a heap buffer only shortens it and mapped points are kept as a
+     * view of the range, so no points are copied then. Cutting only the end keeps the
+     * points revision, since the points before the cut keep their indexes.
+     * Callers must hold the path's lock.
+     *
+     * @param from The index of the first point to keep
+     * @param to The index after the last point to keep
+     * @throws IndexOutOfBoundsException If the range is outside the points
+     */
+    public void keepPoints(int from, int to) {
+        if (from == 0 && trackedPath instanceof PointBuffer buffer) {
+            buffer.truncate(to);
+        } else {
+            trackedPath = trackedPath.slice(from, to);
+        }
+        pointTimes = pointTimes != null && pointTimes.size() >= to ? pointTimes.slice(from, to) : null;
+        lastPointTime = 0;
+
+        if (from == 0) {
+            trimmedLength = to;
+            trimRevision++;
+        } else {
+            pointsRevision++;
+        }
+        metadataChanged();
+        invalidateStatistics();
+    }
+
+    /**
+     * Reverses the direction of the path, so it starts at its last point.
+     * Callers must hold the path's lock.
+     */
+    public void reversePoints() {
+        PointBuffer source = trackedPath instanceof PointBuffer buffer ? buffer : new PointBuffer(trackedPath);
+        PointTimes times = pointTimes != null && pointTimes.size() == source.size() ? pointTimes.reversed() : null;
+        replacePoints(source.reversed(), times);
     }
 
     public int getMaxPoints() {
@@ -125,6 +533,7 @@ public class Path {
 
     public void setMaxPoints(int maxPoints) {
         this.maxPoints = maxPoints;
+        metadataChanged();
     }
 
     public Particle getDisplayParticle() {
@@ -143,29 +552,70 @@ public class Path {
         } else {
             this.displayParticle = displayParticle;
         }
+        metadataChanged();
     }
 
     /**
      * Adds a new location to the path, with checks for max points limit.
-     * Will only skip identical locations (completely still player).
+     * Will only skip identical locations (completely still player), locations
+     * outside the path's world and locations outside the range of {@link PointCodec}.
      *
      * @param location The location to add
+     * @return false if the location was skipped because it is outside the range of {@link PointCodec}
      */
-    public void putLocationToPath(Location location) {
-        if (maxPoints > 0 && trackedPath.size() >= maxPoints) {
-            return;
+    public boolean putLocationToPath(Location location) {
+        if (pagedOut || (maxPoints > 0 && trackedPath.size() >= maxPoints)) {
+            return true;
         }
-        if (trackedPath.isEmpty()) {
-            this.trackedPath.add(location);
-            return;
+        if (worldName == null) {
+            setWorld(location.getWorld());
+        } else if (!location.getWorld().getUID().equals(worldId)) {
+            return true;
         }
 
-        Location lastLocation = trackedPath.getLast();
-        if (lastLocation.equals(location)) {
-            return;
+        if (!PointCodec.isEncodable(location.getX(), location.getY(), location.getZ())) {
+            return false;
         }
 
-        this.trackedPath.add(location);
+        long point = PointCodec.encode(location.getX(), location.getY(), location.getZ());
+        boolean first = trackedPath.isEmpty();
+        long lastPoint = first ? 0 : trackedPath.get(trackedPath.size() - 1);
+        if (!first && point == lastPoint) {
+            return true;
+        }
+
+        mutablePoints().add(point);
+        recordPointTime(first);
+        revision++;
+
+        // Extend the cached statistics instead of recomputing them
+        PathStatistics current = statistics;
+        if (current != null) {
+            statistics = current.withPoint(
+                    PointCodec.x(point), PointCodec.y(point), PointCodec.z(point),
+                    PointCodec.x(lastPoint), PointCodec.y(lastPoint), PointCodec.z(lastPoint));
+        }
+        return true;
+    }
+
+    /**
+     * Records the time of a point that was just appended.
+     * Times are only kept when they cover every point, so a path that was
+     * recorded without them does not start keeping them halfway.
+     *
+     * @param first Whether the point is the first point of the path
+     */
+    private void recordPointTime(boolean first) {
+        long now = System.currentTimeMillis();
+        if (first) {
+            pointTimes = new PointTimes();
+            pointTimes.add(0);
+        } else if (pointTimes != null && pointTimes.size() == trackedPath.size() - 1) {
+            pointTimes.add(lastPointTime == 0 ? 0 : now - lastPointTime);
+        } else {
+            pointTimes = null;
+        }
+        lastPointTime = now;
     }
 
     /**
@@ -176,10 +626,11 @@ public class Path {
      * @param displayParticle The particle type to use
      */
     public void displayPath(Player player, Particle displayParticle) {
-        for (Location location : trackedPath) {
+        for (int i = 0; i < trackedPath.size(); i++) {
+            long point = trackedPath.get(i);
             player.spawnParticle(
                     displayParticle,
-                    location,
+                    PointCodec.x(point), PointCodec.y(point), PointCodec.z(point),
                     1
             );
         }
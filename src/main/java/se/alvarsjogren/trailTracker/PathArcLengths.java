@@ -0,0 +1,90 @@
+package se.alvarsjogren.trailTracker;
+
+import java.util.Arrays;
+
+/**
+ * Cumulative distance along a path at each of its points.
+ * Built once per revision of a path, it turns "how far along is point i" into an
+ * array read and "which point is d blocks along" into a binary search, so guidance
+ * never has to walk the path.
+ */
+public final class PathArcLengths {
+    /** The arc lengths of a path without points */
+    static final PathArcLengths EMPTY = new PathArcLengths(-1, new double[0]);
+
+    /** Revision of the path the lengths were computed for */
+    private final int revision;
+
+    /** Distance along the path from the first point to each point; the first entry is 0 */
+    private final double[] cumulative;
+
+    private PathArcLengths(int revision, double[] cumulative) {
+        this.revision = revision;
+        this.cumulative = cumulative;
+    }
+
+    /**
+     * Computes the arc lengths of a set of points.
+     *
+     * @param points The points in path order
+     * @param revision The revision of the path the points belong to
+     * @return The arc lengths
+     */
+    static PathArcLengths of(PointStorage points, int revision) {
+        double[] cumulative = new double[points.size()];
+        for (int i = 1; i < cumulative.length; i++) {
+            double dx = points.getX(i) - points.getX(i - 1);
+            double dy = points.getY(i) - points.getY(i - 1);
+            double dz = points.getZ(i) - points.getZ(i - 1);
+            cumulative[i] = cumulative[i - 1] + Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+        return new PathArcLengths(revision, cumulative);
+    }
+
+    int getRevision() {
+        return revision;
+    }
+
+    /**
+     * Gets the number of points covered.
+     *
+     * @return The number of points
+     */
+    public int size() {
+        return cumulative.length;
+    }
+
+    /**
+     * Gets the distance along the path from its first point to a point.
+     *
+     * @param index The index of the point
+     * @return The distance in blocks
+     */
+    public double at(int index) {
+        return cumulative[index];
+    }
+
+    /**
+     * Gets the total length of the path.
+     *
+     * @return The length in blocks, 0 for paths with fewer than two points
+     */
+    public double total() {
+        return cumulative.length == 0 ? 0 : cumulative[cumulative.length - 1];
+    }
+
+    /**
+     * Finds the last point that is at most a given distance along the path.
+     *
+     * @param distance The distance along the path, in blocks
+     * @return The index of the point, or -1 if the path has no points
+     */
+    public int indexAtDistance(double distance) {
+        int found = Arrays.binarySearch(cumulative, distance);
+        if (found >= 0) {
+            // Equal entries (repeated points) resolve to any of them; that is fine for guidance
+            return found;
+        }
+        return Math.max(-found - 2, cumulative.length == 0 ? -1 : 0);
+    }
+}
@@ -0,0 +1,409 @@
+package se.alvarsjogren.trailTracker;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.util.BoundingBox;
+import se.alvarsjogren.trailTracker.api.PathHit;
+import se.alvarsjogren.trailTracker.api.PathStatistics;
+import se.alvarsjogren.trailTracker.utilities.TaskScheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Finds paths that retrace other paths, and merges them.
+ * A path is a duplicate of another when most of its points lie within the configured
+ * tolerance of that other path. Candidates are found with the point grid, so only
+ * paths whose bounds overlap are compared, and at most {@link #MAX_SAMPLES} points of
+ * each candidate are checked. If an interval is configured, a background task repeats the
+ * analysis and logs new duplicates; /tt merge shows the results and merges paths.
+ */
+public class PathDeduplicator {
+    /** Most points of a path that are checked against another path */
+    private static final int MAX_SAMPLES = 256;
+
+    /** Most duplicates listed in the log after one background analysis */
+    private static final int MAX_LOGGED_DUPLICATES = 10;
+
+    /**
+     * A path that mostly retraces another path.
+     *
+     * @param pathName The name of the duplicate path
+     * @param canonicalName The name of the path it retraces, which is kept when merging
+     * @param overlap The share of the duplicate's points that lie on the canonical path, 0 to 1
+     */
+    public record Duplicate(String pathName, String canonicalName, double overlap) {
+    }
+
+    /**
+     * Points a merge adds to the canonical path.
+     *
+     * @param points The canonical path's points with the duplicate's extensions attached,
+     *               or null if the duplicate adds nothing
+     * @param times The recording times of the merged points, or null if the canonical path is untimed
+     * @param addedCount The number of points taken from the duplicate
+     * @param droppedCount The number of the duplicate's points that are not kept
+     */
+    record MergedPoints(PointBuffer points, PointTimes times, int addedCount, int droppedCount) {
+    }
+
+    /** Reference to the main plugin instance */
+    private final TrailTracker plugin;
+
+    /** Reference to the PathRecorder that owns the paths */
+    private final PathRecorder pathRecorder;
+
+    /** Duplicates found by the last analysis */
+    private volatile List<Duplicate> duplicates = Collections.emptyList();
+
+    /** Largest distance from another path at which a point counts as retracing it, in blocks */
+    private volatile double tolerance;
+
+    /** Smallest share of points on another path for a path to be a duplicate */
+    private volatile double minimumOverlap;
+
+    /** Reference to the scheduled analysis task */
+    private TaskScheduler.Task analyzeTask;
+
+    /**
+     * Creates a new PathDeduplicator.
+     *
+     * @param plugin The TrailTracker plugin instance
+     * @param pathRecorder The PathRecorder to read paths from
+     */
+    public PathDeduplicator(TrailTracker plugin, PathRecorder pathRecorder) {
+        this.plugin = plugin;
+        this.pathRecorder = pathRecorder;
+    }
+
+    /**
+     * Loads the duplicate settings and (re)starts the background analysis.
+     */
+    void start() {
+        stop();
+        tolerance = Math.max(0.5, plugin.getConfig().getDouble("duplicate-tolerance", 2.0));
+        minimumOverlap = Math.min(1.0, Math.max(0.5, plugin.getConfig().getDouble("duplicate-overlap", 0.9)));
+
+        long intervalMinutes = plugin.getConfig().getLong("duplicate-check-interval", 0);
+        if (intervalMinutes <= 0) {
+            return;
+        }
+
+        long intervalTicks = intervalMinutes * 60L * 20L;
+        analyzeTask = plugin.getTaskScheduler().runAsyncTimer(() -> {
+            List<Duplicate> previous = duplicates;
+            logNewDuplicates(previous, analyze());
+        }, intervalTicks, intervalTicks);
+    }
+
+    /**
+     * Logs the duplicates that were not found by the previous analysis,
+     * so a pair that is left alone is not reported again on every run.
+     *
+     * @param previous The duplicates found by the previous analysis
+     * @param found The duplicates found now
+     */
+    private void logNewDuplicates(List<Duplicate> previous, List<Duplicate> found) {
+        Set<List<String>> known = new HashSet<>();
+        for (Duplicate duplicate : previous) {
+            known.add(List.of(duplicate.pathName(), duplicate.canonicalName()));
+        }
+        List<Duplicate> added = new ArrayList<>();
+        for (Duplicate duplicate : found) {
+            if (!known.contains(List.of(duplicate.pathName(), duplicate.canonicalName()))) {
+                added.add(duplicate);
+            }
+        }
+        if (added.isEmpty()) {
+            return;
+        }
+
+        plugin.getLogger().info("Found " + added.size() + " new path(s) that retrace another path. Use /tt merge to review them.");
+        for (Duplicate duplicate : added.subList(0, Math.min(added.size(), MAX_LOGGED_DUPLICATES))) {
+            plugin.getLogger().info("  " + duplicate.pathName() + " - " + Math.round(duplicate.overlap() * 100)
+                    + "% on " + duplicate.canonicalName());
+        }
+        if (added.size() > MAX_LOGGED_DUPLICATES) {
+            plugin.getLogger().info("  ... and " + (added.size() - MAX_LOGGED_DUPLICATES) + " more");
+        }
+    }
+
+    /**
+     * Stops the background analysis.
+     */
+    void stop() {
+        if (analyzeTask != null && !analyzeTask.isCancelled()) {
+            analyzeTask.cancel();
+        }
+    }
+
+    /**
+     * Gets the duplicates found by the last analysis.
+     *
+     * @return An unmodifiable list, empty if no analysis has run yet
+     */
+    public List<Duplicate> getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * Compares every completed path with the paths around it and remembers the duplicates.
+     * Blocking; call it off the main thread.
+     *
+     * @return The duplicates found, at most one per path
+     */
+    public List<Duplicate> analyze() {
+        List<Duplicate> found = new ArrayList<>();
+        for (Path path : pathRecorder.getAllPaths()) {
+            Duplicate duplicate = findCanonical(path);
+            if (duplicate != null) {
+                found.add(duplicate);
+            }
+        }
+        duplicates = Collections.unmodifiableList(found);
+        return duplicates;
+    }
+
+    /**
+     * Finds the path that a path retraces best.
+     * When two paths retrace each other, the one with fewer points is the duplicate,
+     * then the newer one, so a pair never lists both paths as duplicates.
+     *
+     * @param path The path to check
+     * @return The duplicate entry for the path, or null if it does not retrace another path
+     */
+    public Duplicate findCanonical(Path path) {
+        if (!isComparable(path)) {
+            return null;
+        }
+        World world = Bukkit.getWorld(path.getWorldId());
+        BoundingBox bounds = path.getStatistics().getBoundingBox();
+        if (world == null || bounds == null) {
+            return null;
+        }
+
+        Duplicate best = null;
+        for (PathHit candidate : pathRecorder.findPathsIntersecting(world, bounds.expand(tolerance))) {
+            Path other = pathRecorder.getPath(candidate.pathName());
+            if (other == null || other == path || !isComparable(other)) {
+                continue;
+            }
+
+            double overlap = overlap(path, other);
+            if (overlap < minimumOverlap || (best != null && overlap <= best.overlap())) {
+                continue;
+            }
+            if (!isPreferred(other, path) && overlap(other, path) >= minimumOverlap) {
+                // The two retrace each other and this path is the one to keep
+                continue;
+            }
+            best = new Duplicate(path.getName(), other.getName(), overlap);
+        }
+        return best;
+    }
+
+    /**
+     * Measures how much of a path lies on another path.
+     *
+     * @param path The path to measure
+     * @param other The path it may retrace
+     * @return The share of sampled points within the tolerance of the other path, 0 to 1
+     */
+    public double overlap(Path path, Path other) {
+        PointStorage points = path.getTrackedPath();
+        int pointCount = points.size();
+        if (pointCount == 0) {
+            return 0;
+        }
+
+        int step = Math.max(1, pointCount / MAX_SAMPLES);
+        int sampleCount = 0;
+        int coveredCount = 0;
+        for (int i = 0; i < pointCount; i += step) {
+            sampleCount++;
+            if (isCovered(other, points.get(i))) {
+                coveredCount++;
+            }
+        }
+        return (double) coveredCount / sampleCount;
+    }
+
+    /**
+     * Gets the smallest share of points on another path for a path to be a duplicate.
+     *
+     * @return The minimum overlap, 0 to 1
+     */
+    public double getMinimumOverlap() {
+        return minimumOverlap;
+    }
+
+    /**
+     * Builds the points of a canonical path with the parts of a duplicate that extend
+     * beyond its ends attached. The stretches of the duplicate before its first and after
+     * its last point on the canonical path are added where they leave it, if that is at
+     * one of the canonical path's ends; everything else of the duplicate already lies on
+     * the canonical path or branches off its middle, and is not kept.
+     * Both paths must be locked by the caller.
+     *
+     * @param duplicate The path being merged away
+     * @param canonical The path that is kept
+     * @return The merged points
+     */
+    MergedPoints mergePoints(Path duplicate, Path canonical) {
+        PointStorage points = duplicate.getTrackedPath();
+        int pointCount = points.size();
+        int firstCovered = -1;
+        int lastCovered = -1;
+        for (int i = 0; i < pointCount; i++) {
+            if (isCovered(canonical, points.get(i))) {
+                if (firstCovered < 0) {
+                    firstCovered = i;
+                }
+                lastCovered = i;
+            }
+        }
+        if (firstCovered < 0) {
+            return new MergedPoints(null, null, 0, pointCount);
+        }
+
+        // Where each loose end of the duplicate leaves the canonical path
+        int headEnd = nearEnd(canonical, points.get(firstCovered));
+        int tailEnd = nearEnd(canonical, points.get(lastCovered));
+        boolean attachHead = firstCovered > 0 && headEnd != 0;
+        boolean attachTail = lastCovered < pointCount - 1 && tailEnd != 0 && !(attachHead && tailEnd == headEnd);
+
+        PointBuffer before = new PointBuffer();
+        PointBuffer after = new PointBuffer();
+        if (attachHead) {
+            // The head leads into the start of the canonical path, or away from its end
+            if (headEnd < 0) {
+                addRange(before, points, 0, firstCovered, false);
+            } else {
+                addRange(after, points, 0, firstCovered, true);
+            }
+        }
+        if (attachTail) {
+            // The tail leads away from the end of the canonical path, or into its start
+            if (tailEnd > 0) {
+                addRange(after, points, lastCovered + 1, pointCount, false);
+            } else {
+                addRange(before, points, lastCovered + 1, pointCount, true);
+            }
+        }
+
+        int addedCount = before.size() + after.size();
+        if (addedCount == 0) {
+            return new MergedPoints(null, null, 0, pointCount);
+        }
+
+        PointStorage canonicalPoints = canonical.getTrackedPath();
+        PointBuffer merged = new PointBuffer();
+        addRange(merged, before, 0, before.size(), false);
+        // The canonical points are copied as they are, so they keep their times;
+        // only a first point that the head already ends on is shared
+        int canonicalFirst = merged.size();
+        if (!merged.isEmpty() && !canonicalPoints.isEmpty() && merged.get(merged.size() - 1) == canonicalPoints.get(0)) {
+            canonicalFirst--;
+        }
+        for (int i = merged.size() - canonicalFirst; i < canonicalPoints.size(); i++) {
+            merged.add(canonicalPoints.get(i));
+        }
+        addRange(merged, after, 0, after.size(), false);
+
+        PointTimes times = mergeTimes(merged, canonical.getPointTimes(), canonicalFirst, canonicalPoints.size());
+        return new MergedPoints(merged, times, addedCount, pointCount - addedCount);
+    }
+
+    /**
+     * Builds the times of merged points from the canonical path's times.
+     * The duplicate's times were recorded on another trip, so the attached points
+     * get the time it takes to walk to them instead.
+     *
+     * @param merged The merged points
+     * @param canonicalTimes The canonical path's times, or null if it has none
+     * @param canonicalFirst The index of the canonical path's first point in the merged points
+     * @param canonicalCount The number of canonical points
+     * @return The times of the merged points, or null if the canonical path is untimed
+     */
+    private static PointTimes mergeTimes(PointBuffer merged, PointTimes canonicalTimes, int canonicalFirst, int canonicalCount) {
+        if (canonicalTimes == null || canonicalTimes.size() != canonicalCount) {
+            return null;
+        }
+
+        PointTimes.Reader reader = canonicalTimes.reader();
+        // The first delta belongs to the first point and is always zero
+        reader.next();
+        PointTimes times = new PointTimes();
+        times.add(0);
+        for (int i = 1; i < merged.size(); i++) {
+            if (i > canonicalFirst && i < canonicalFirst + canonicalCount) {
+                times.add(reader.next());
+            } else {
+                double dx = merged.getX(i) - merged.getX(i - 1);
+                double dy = merged.getY(i) - merged.getY(i - 1);
+                double dz = merged.getZ(i) - merged.getZ(i - 1);
+                times.add(Math.round(Math.sqrt(dx * dx + dy * dy + dz * dz) / PathStatistics.WALKING_SPEED * 1000));
+            }
+        }
+        return times;
+    }
+
+    /**
+     * Copies a range of points, skipping points equal to the last copied one.
+     */
+    private static void addRange(PointBuffer target, PointStorage source, int from, int to, boolean reversed) {
+        for (int i = 0; i < to - from; i++) {
+            long point = source.get(reversed ? to - 1 - i : from + i);
+            if (target.isEmpty() || target.get(target.size() - 1) != point) {
+                target.add(point);
+            }
+        }
+    }
+
+    /**
+     * Checks which end of a path a point is close to, measured along the path.
+     *
+     * @param path The path
+     * @param point A packed point on the path
+     * @return -1 near the start, 1 near the end, 0 near neither
+     */
+    private int nearEnd(Path path, long point) {
+        PathHit hit = pathRecorder.findPointOnPath(path, PointCodec.x(point), PointCodec.y(point), PointCodec.z(point), tolerance);
+        PathArcLengths arcLengths = path.getArcLengths();
+        if (hit == null || hit.pointIndex() >= arcLengths.size()) {
+            return 0;
+        }
+
+        double travelled = arcLengths.at(hit.pointIndex());
+        double reach = tolerance * 2;
+        if (arcLengths.total() - travelled <= reach) {
+            return 1;
+        }
+        return travelled <= reach ? -1 : 0;
+    }
+
+    private boolean isCovered(Path path, long point) {
+        return pathRecorder.findPointOnPath(path, PointCodec.x(point), PointCodec.y(point), PointCodec.z(point), tolerance) != null;
+    }
+
+    private boolean isComparable(Path path) {
+        return path.isBound() && !path.isPagedOut() && path.getPointCount() > 0
+                && !pathRecorder.isPathBeingRecorded(path.getName());
+    }
+
+    /**
+     * Decides which of two paths that retrace each other is kept.
+     *
+     * @return true if the first path is kept over the second
+     */
+    private static boolean isPreferred(Path path, Path other) {
+        if (path.getPointCount() != other.getPointCount()) {
+            return path.getPointCount() > other.getPointCount();
+        }
+        int byDate = path.getCreationDate().compareTo(other.getCreationDate());
+        return byDate != 0 ? byDate < 0 : path.getName().compareTo(other.getName()) < 0;
+    }
+}
@@ -0,0 +1,242 @@
+package se.alvarsjogren.trailTracker;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import se.alvarsjogren.trailTracker.api.PathHit;
+import se.alvarsjogren.trailTracker.utilities.TaskScheduler;
+import se.alvarsjogren.trailTracker.utilities.UITextComponents;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Guides players along a path with /tt follow.
+ * Each follower has a cursor at the path point they last reached. Every update only
+ * searches a few points around the cursor for the player's new position, reads progress
+ * and remaining distance from the path's {@link PathArcLengths}, and shows particles for
+ * the stretch of path just ahead, so the cost per player does not grow with path length.
+ */
+public class PathFollower {
+    /** Points behind the cursor searched for the player's position, to allow small backtracking */
+    private static final int SEARCH_BEHIND = 8;
+
+    /** Points ahead of the cursor searched for the player's position */
+    private static final int SEARCH_AHEAD = 32;
+
+    /** Distance beyond which the player is looked up in the point grid instead of near the cursor */
+    private static final double RESYNC_DISTANCE = 8.0;
+
+    /** Largest distance from the path at which a player can pick up guidance */
+    private static final double PICKUP_DISTANCE = 48.0;
+
+    /** Upper bound on the particles shown ahead of a player per update */
+    private static final int MAX_PARTICLES = 64;
+
+    /**
+     * The path a player is following and how far along it they are.
+     * Only read and written on the player's own thread.
+     */
+    private static final class FollowState {
+        /** The path being followed */
+        private final Path path;
+
+        /** Index of the path point the player last reached */
+        private int cursor;
+
+        private FollowState(Path path, int cursor) {
+            this.path = path;
+            this.cursor = cursor;
+        }
+    }
+
+    /** Reference to the main plugin instance */
+    private final TrailTracker plugin;
+
+    /** Reference to the PathRecorder that owns the paths */
+    private final PathRecorder pathRecorder;
+
+    /** Follow state of every following player */
+    private final Map<UUID, FollowState> followers = new ConcurrentHashMap<>();
+
+    /** Distance ahead of the player, in blocks along the path, that is shown */
+    private double distanceAhead;
+
+    /** Reference to the scheduled update task */
+    private TaskScheduler.Task followTask;
+
+    /**
+     * Creates a new PathFollower.
+     *
+     * @param plugin The TrailTracker plugin instance
+     * @param pathRecorder The PathRecorder to read paths from
+     */
+    public PathFollower(TrailTracker plugin, PathRecorder pathRecorder) {
+        this.plugin = plugin;
+        this.pathRecorder = pathRecorder;
+    }
+
+    /**
+     * Loads the follow settings and (re)starts the update task.
+     *
+     * @param periodTicks How often followers are updated, in ticks
+     */
+    void start(int periodTicks) {
+        stop();
+        distanceAhead = Math.max(1, plugin.getConfig().getDouble("follow-distance-ahead", 20));
+
+        TaskScheduler scheduler = plugin.getTaskScheduler();
+        followTask = scheduler.runGlobalTimer(() -> {
+            for (UUID playerUUID : followers.keySet()) {
+                Player player = plugin.getServer().getPlayer(playerUUID);
+                if (player != null) {
+                    scheduler.runForEntity(player, () -> update(player));
+                }
+            }
+        }, 20L, Math.max(1, periodTicks));
+    }
+
+    /**
+     * Stops the update task.
+     */
+    void stop() {
+        if (followTask != null && !followTask.isCancelled()) {
+            followTask.cancel();
+        }
+    }
+
+    /**
+     * Starts guiding a player along a completed path.
+     * Guidance starts at the point of the path closest to the player, or at the
+     * beginning if the player is not near the path.
+     *
+     * @param player The player
+     * @param pathName The name of the path to follow
+     * @return Result of the operation
+     */
+    public PathRecorder.Result startFollowing(Player player, String pathName) {
+        Path path = pathRecorder.getPath(pathName);
+        if (path == null) {
+            return new PathRecorder.Result(false, "There is no path with that name. Use /tt list to see all paths.");
+        }
+        if (pathRecorder.isPathBeingRecorded(pathName)) {
+            return new PathRecorder.Result(false, "The path is still being recorded.");
+        }
+        if (!player.getWorld().getUID().equals(path.getWorldId()) || path.getPointCount() == 0) {
+            return new PathRecorder.Result(false, "That path is not in your world.");
+        }
+
+        Location location = player.getLocation();
+        PathHit hit = pathRecorder.findPointOnPath(path, location.getX(), location.getY(), location.getZ(), PICKUP_DISTANCE);
+        followers.put(player.getUniqueId(), new FollowState(path, hit != null ? hit.pointIndex() : 0));
+        return new PathRecorder.Result(true, "Success");
+    }
+
+    /**
+     * Stops guiding a player.
+     *
+     * @param playerUUID The UUID of the player
+     * @return true if the player was following a path
+     */
+    public boolean stopFollowing(UUID playerUUID) {
+        return followers.remove(playerUUID) != null;
+    }
+
+    /**
+     * Gets the name of the path a player is following.
+     *
+     * @param playerUUID The UUID of the player
+     * @return The path name, or null if the player is not following a path
+     */
+    public String getFollowedPath(UUID playerUUID) {
+        FollowState state = followers.get(playerUUID);
+        return state == null ? null : state.path.getName();
+    }
+
+    /**
+     * Moves a follower's cursor to their current position and shows guidance.
+     * Runs on the player's own thread.
+     *
+     * @param player The following player
+     */
+    private void update(Player player) {
+        FollowState state = followers.get(player.getUniqueId());
+        if (state == null) {
+            return;
+        }
+
+        Path path = state.path;
+        if (pathRecorder.getPath(path.getName()) != path) {
+            // Removed or replaced by a reload
+            followers.remove(player.getUniqueId());
+            player.sendMessage(UITextComponents.errorMessage("The path you were following is no longer available."));
+            return;
+        }
+        if (!player.getWorld().getUID().equals(path.getWorldId())) {
+            return;
+        }
+
+        PointStorage points = path.getTrackedPath();
+        PathArcLengths arcLengths = path.getArcLengths();
+        int pointCount = Math.min(points.size(), arcLengths.size());
+        if (pointCount == 0) {
+            return;
+        }
+
+        Location location = player.getLocation();
+        double x = location.getX(), y = location.getY(), z = location.getZ();
+        int cursor = Math.min(state.cursor, pointCount - 1);
+
+        // Find the closest point near the cursor
+        int best = cursor;
+        double bestDistanceSquared = Double.MAX_VALUE;
+        int to = Math.min(pointCount, cursor + SEARCH_AHEAD + 1);
+        for (int i = Math.max(0, cursor - SEARCH_BEHIND); i < to; i++) {
+            double distanceSquared = PointCodec.distanceSquared(points.get(i), x, y, z);
+            if (distanceSquared < bestDistanceSquared) {
+                bestDistanceSquared = distanceSquared;
+                best = i;
+            }
+        }
+
+        // The player left the stretch around the cursor, so pick them up wherever they are now
+        if (bestDistanceSquared > RESYNC_DISTANCE * RESYNC_DISTANCE) {
+            PathHit hit = pathRecorder.findPointOnPath(path, x, y, z, PICKUP_DISTANCE);
+            if (hit != null && hit.pointIndex() < pointCount) {
+                best = hit.pointIndex();
+                bestDistanceSquared = hit.distance() * hit.distance();
+            }
+        }
+        state.cursor = best;
+
+        double total = arcLengths.total();
+        double travelled = arcLengths.at(best);
+        if (best == pointCount - 1 && bestDistanceSquared <= (double) path.getRadius() * path.getRadius()) {
+            followers.remove(player.getUniqueId());
+            player.sendMessage(UITextComponents.successMessage("You reached the end of", path.getName()));
+            return;
+        }
+
+        // Show the stretch of path ahead of the player
+        int last = Math.min(arcLengths.indexAtDistance(travelled + distanceAhead), best + MAX_PARTICLES);
+        for (int i = best + 1; i <= last && i < pointCount; i++) {
+            long point = points.get(i);
+            player.spawnParticle(path.getDisplayParticle(), PointCodec.x(point), PointCodec.y(point), PointCodec.z(point), 1);
+        }
+
+        int percent = total <= 0 ? 100 : (int) Math.floor(travelled / total * 100);
+        player.sendActionBar(Component
+                .text("Following ")
+                .color(TextColor.color(0xF5C45E))
+                .append(Component
+                        .text(path.getName())
+                        .color(TextColor.color(0xE78B48))
+                        .decoration(TextDecoration.BOLD, true))
+                .append(Component
+                        .text(" " + percent + "% - " + Math.round(total - travelled) + " blocks left")
+                        .color(TextColor.color(0xF5C45E))));
+    }
+}
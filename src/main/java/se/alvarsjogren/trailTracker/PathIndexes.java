@@ -0,0 +1,94 @@
+package se.alvarsjogren.trailTracker;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * All paths together with the lookup structures derived from them.
+ * {@link PathRecorder} keeps one instance behind a volatile reference. Small changes
+ * are applied to it in place, and a reload builds a complete replacement off the main
+ * thread and swaps it in with a single write.
+ */
+final class PathIndexes {
+    /** Master collection of all paths by name */
+    final Map<String, Path> paths = new ConcurrentHashMap<>();
+
+    /** Paths partitioned by world UID so lookups only touch the player's current world */
+    final Map<UUID, Map<String, Path>> pathsByWorld = new ConcurrentHashMap<>();
+
+    /** Case-insensitive prefix index of path names for completion and multi-word lookups */
+    final PathNameIndex nameIndex = new PathNameIndex();
+
+    /** Sorted views of all paths for paginated listing */
+    final PathListIndex listIndex = new PathListIndex();
+
+    /** Grid of the points of every bound path, for location queries */
+    final PathSpatialIndex spatialIndex = new PathSpatialIndex();
+
+    /**
+     * Adds a path to every index, replacing any path with the same name.
+     *
+     * @param path The path to add
+     */
+    void add(Path path) {
+        Path previous = paths.put(path.getName(), path);
+        if (previous != null) {
+            listIndex.remove(previous.getName());
+            unindexWorld(previous);
+        }
+        nameIndex.add(path.getName());
+        listIndex.add(path);
+        indexWorld(path);
+    }
+
+    /**
+     * Removes a path from every index.
+     *
+     * @param pathName The name of the path to remove
+     * @return The removed path, or null if there was none
+     */
+    Path remove(String pathName) {
+        Path removed = paths.remove(pathName);
+        if (removed != null) {
+            nameIndex.remove(pathName);
+            listIndex.remove(pathName);
+            unindexWorld(removed);
+        }
+        return removed;
+    }
+
+    /**
+     * Adds a path to the partition of its world and indexes its points.
+     * Paths without a resolved world are indexed once their world is loaded.
+     *
+     * @param path The path to index
+     */
+    void indexWorld(Path path) {
+        UUID worldId = path.getWorldId();
+        if (worldId != null) {
+            pathsByWorld.computeIfAbsent(worldId, k -> new ConcurrentHashMap<>()).put(path.getName(), path);
+            spatialIndex.add(path);
+        }
+    }
+
+    /**
+     * Removes a path from the partition of its world and from the point grid.
+     *
+     * @param path The path to remove from the index
+     */
+    void unindexWorld(Path path) {
+        spatialIndex.remove(path);
+        UUID worldId = path.getWorldId();
+        if (worldId == null) {
+            return;
+        }
+        Map<String, Path> worldPaths = pathsByWorld.get(worldId);
+        if (worldPaths != null) {
+            worldPaths.remove(path.getName());
+            if (worldPaths.isEmpty()) {
+                pathsByWorld.remove(worldId);
+            }
+        }
+    }
+}
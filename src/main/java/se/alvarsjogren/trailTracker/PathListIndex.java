@@ -0,0 +1,168 @@
+package se.alvarsjogren.trailTracker;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * Sorted views of all path names used by the list command.
+ * Each sort order is kept in its own skip list and updated incrementally when
+ * paths are added, removed or finish recording, so listing never re-sorts all paths.
+ */
+public class PathListIndex {
+    /**
+     * Available sort orders for listing paths.
+     */
+    public enum SortOrder {
+        /** Alphabetical by name, ignoring case */
+        NAME,
+        /** Newest paths first */
+        DATE,
+        /** Paths with the most points first */
+        POINTS;
+
+        /**
+         * Parses a sort order from user input, ignoring case.
+         *
+         * @param input The typed sort order
+         * @return The matching sort order, or null if the input is not a sort order
+         */
+        public static SortOrder fromString(String input) {
+            for (SortOrder order : values()) {
+                if (order.name().equalsIgnoreCase(input)) {
+                    return order;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Sort key of a path within one order.
+     * Ties on the value are broken by name so every path has a unique position.
+     *
+     * @param value The primary sort value, negated for descending orders
+     * @param lowerName The lower-cased path name
+     * @param name The original path name
+     */
+    private record SortKey(long value, String lowerName, String name) {
+    }
+
+    /** Ordering shared by all sort keys */
+    private static final Comparator<SortKey> KEY_ORDER = Comparator
+            .comparingLong(SortKey::value)
+            .thenComparing(SortKey::lowerName)
+            .thenComparing(SortKey::name);
+
+    /** Path names sorted alphabetically */
+    private final NavigableSet<SortKey> byName = new ConcurrentSkipListSet<>(KEY_ORDER);
+
+    /** Path names sorted by creation date, newest first */
+    private final NavigableSet<SortKey> byDate = new ConcurrentSkipListSet<>(KEY_ORDER);
+
+    /** Path names sorted by point count, largest first */
+    private final NavigableSet<SortKey> byPoints = new ConcurrentSkipListSet<>(KEY_ORDER);
+
+    /** Current date key of each path, needed to remove it again */
+    private final Map<String, SortKey> dateKeys = new ConcurrentHashMap<>();
+
+    /** Current point count key of each path, needed to re-sort it when its point count changes */
+    private final Map<String, SortKey> pointKeys = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a path to all sort orders.
+     *
+     * @param path The path to add
+     */
+    public synchronized void add(Path path) {
+        String name = path.getName();
+        String lowerName = name.toLowerCase();
+
+        byName.add(new SortKey(0, lowerName, name));
+
+        SortKey dateKey = new SortKey(-path.getCreationDate().getTime(), lowerName, name);
+        dateKeys.put(name, dateKey);
+        byDate.add(dateKey);
+
+        SortKey pointKey = new SortKey(-path.getPointCount(), lowerName, name);
+        pointKeys.put(name, pointKey);
+        byPoints.add(pointKey);
+    }
+
+    /**
+     * Removes a path from all sort orders.
+     *
+     * @param pathName The name of the path to remove
+     */
+    public synchronized void remove(String pathName) {
+        byName.remove(new SortKey(0, pathName.toLowerCase(), pathName));
+
+        SortKey dateKey = dateKeys.remove(pathName);
+        if (dateKey != null) {
+            byDate.remove(dateKey);
+        }
+
+        SortKey pointKey = pointKeys.remove(pathName);
+        if (pointKey != null) {
+            byPoints.remove(pointKey);
+        }
+    }
+
+    /**
+     * Moves a path to its new position in the point count order.
+     * Called when a recording stops, since that is when a path's point count settles.
+     *
+     * @param path The path whose point count changed
+     */
+    public synchronized void updatePointCount(Path path) {
+        SortKey oldKey = pointKeys.get(path.getName());
+        if (oldKey == null || oldKey.value() == -path.getPointCount()) {
+            return;
+        }
+
+        byPoints.remove(oldKey);
+        SortKey newKey = new SortKey(-path.getPointCount(), oldKey.lowerName(), oldKey.name());
+        pointKeys.put(path.getName(), newKey);
+        byPoints.add(newKey);
+    }
+
+    /**
+     * Removes all paths from the index.
+     */
+    public synchronized void clear() {
+        byName.clear();
+        byDate.clear();
+        byPoints.clear();
+        dateKeys.clear();
+        pointKeys.clear();
+    }
+
+    /**
+     * Gets the number of indexed paths.
+     *
+     * @return The number of paths
+     */
+    public int size() {
+        return dateKeys.size();
+    }
+
+    /**
+     * Streams path names in the given order.
+     * The stream is lazy and reads the live index, so callers that skip and limit
+     * only visit the entries they need.
+     *
+     * @param order The sort order
+     * @return A lazy stream of path names
+     */
+    public Stream<String> names(SortOrder order) {
+        NavigableSet<SortKey> keys = switch (order) {
+            case NAME -> byName;
+            case DATE -> byDate;
+            case POINTS -> byPoints;
+        };
+        return keys.stream().map(SortKey::name);
+    }
+}
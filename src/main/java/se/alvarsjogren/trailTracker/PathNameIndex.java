@@ -0,0 +1,208 @@
+package se.alvarsjogren.trailTracker;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Case-insensitive prefix trie of path names.
+ * Used for tab completion and for resolving multi-word path names in commands
+ * in time proportional to the length of the typed text rather than the number of paths.
+ */
+public class PathNameIndex {
+    /**
+     * A single node in the trie, keyed by lower-cased character.
+     */
+    private static class Node {
+        /** Child nodes by lower-cased character */
+        private final Map<Character, Node> children = new HashMap<>();
+
+        /** Original-case names that end at this node, usually zero or one */
+        private List<String> names;
+    }
+
+    /**
+     * Result of resolving a path name from command arguments.
+     *
+     * @param name The original-case name of the matched path
+     * @param endIndex The index of the first argument after the path name
+     */
+    public record Match(String name, int endIndex) {
+    }
+
+    /** Root of the trie, representing the empty prefix */
+    private final Node root = new Node();
+
+    /** Total number of names in the index */
+    private int size;
+
+    /**
+     * Adds a path name to the index.
+     *
+     * @param name The path name to add
+     */
+    public synchronized void add(String name) {
+        Node node = root;
+        for (int i = 0; i < name.length(); i++) {
+            node = node.children.computeIfAbsent(Character.toLowerCase(name.charAt(i)), k -> new Node());
+        }
+
+        if (node.names == null) {
+            node.names = new ArrayList<>(1);
+        }
+        if (!node.names.contains(name)) {
+            node.names.add(name);
+            size++;
+        }
+    }
+
+    /**
+     * Removes a path name from the index.
+     * Nodes left without names or children are pruned.
+     *
+     * @param name The path name to remove
+     */
+    public synchronized void remove(String name) {
+        Deque<Node> trail = new ArrayDeque<>(name.length() + 1);
+        Node node = root;
+        trail.push(node);
+        for (int i = 0; i < name.length(); i++) {
+            node = node.children.get(Character.toLowerCase(name.charAt(i)));
+            if (node == null) {
+                return;
+            }
+            trail.push(node);
+        }
+
+        if (node.names == null || !node.names.remove(name)) {
+            return;
+        }
+        size--;
+        if (node.names.isEmpty()) {
+            node.names = null;
+        }
+
+        // Prune empty nodes from the leaf upwards
+        for (int i = name.length() - 1; i >= 0; i--) {
+            Node child = trail.pop();
+            if (child.names != null || !child.children.isEmpty()) {
+                break;
+            }
+            trail.peek().children.remove(Character.toLowerCase(name.charAt(i)));
+        }
+    }
+
+    /**
+     * Removes all names from the index.
+     */
+    public synchronized void clear() {
+        root.children.clear();
+        root.names = null;
+        size = 0;
+    }
+
+    /**
+     * Gets the number of names in the index.
+     *
+     * @return The number of names
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Gets all path names that start with the given prefix, ignoring case.
+     *
+     * @param prefix The typed prefix
+     * @return The matching path names in their original case
+     */
+    public synchronized List<String> complete(String prefix) {
+        List<String> result = new ArrayList<>();
+        Node node = find(prefix);
+        if (node != null) {
+            collect(node, result);
+        }
+        return result;
+    }
+
+    /**
+     * Checks if any path name starts with the given prefix, ignoring case.
+     *
+     * @param prefix The typed prefix
+     * @return true if at least one path name has the prefix
+     */
+    public synchronized boolean hasPrefix(String prefix) {
+        return find(prefix) != null;
+    }
+
+    /**
+     * Resolves the longest path name formed by consecutive arguments.
+     * Arguments are joined with single spaces, matching how commands join multi-word names.
+     * An exact-case match is preferred when several names differ only in case.
+     *
+     * @param args The command arguments
+     * @param from Index of the first argument that may belong to the path name
+     * @param to Index after the last argument that may belong to the path name
+     * @return The longest match, or null if no path name is formed by the arguments
+     */
+    public synchronized Match findLongest(String[] args, int from, int to) {
+        Match longest = null;
+        Node node = root;
+        StringBuilder typed = new StringBuilder();
+
+        for (int argIndex = from; argIndex < to; argIndex++) {
+            // Words are separated by a single space in path names
+            if (argIndex > from) {
+                node = node.children.get(' ');
+                if (node == null) {
+                    break;
+                }
+                typed.append(' ');
+            }
+
+            String arg = args[argIndex];
+            for (int i = 0; i < arg.length() && node != null; i++) {
+                node = node.children.get(Character.toLowerCase(arg.charAt(i)));
+            }
+            if (node == null) {
+                break;
+            }
+            typed.append(arg);
+
+            if (node.names != null) {
+                longest = new Match(pickName(node.names, typed), argIndex + 1);
+            }
+        }
+
+        return longest;
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(Character.toLowerCase(prefix.charAt(i)));
+        }
+        return node;
+    }
+
+    private static void collect(Node node, List<String> result) {
+        if (node.names != null) {
+            result.addAll(node.names);
+        }
+        for (Node child : node.children.values()) {
+            collect(child, result);
+        }
+    }
+
+    private static String pickName(List<String> names, CharSequence typed) {
+        for (String name : names) {
+            if (name.contentEquals(typed)) {
+                return name;
+            }
+        }
+        return names.getFirst();
+    }
+}
@@ -0,0 +1,613 @@
+package se.alvarsjogren.trailTracker;
+
+import org.bukkit.World;
+import org.bukkit.util.BoundingBox;
+import se.alvarsjogren.trailTracker.api.PathHit;
+import se.alvarsjogren.trailTracker.api.PathRoute;
+
+import java.util.*;
+
+/**
+ * Graph of the path network, used to answer route queries with A*.
+ * Nodes are the ends of every completed path and the junctions where two paths come
+ * within detection radius of each other; edges run along a path between its consecutive
+ * nodes and across every junction. Junctions are found with the point grid and kept per
+ * path, so adding or removing a path only searches around that path. The adjacency is
+ * then rebuilt from the kept junctions into compact arrays and swapped in as an immutable
+ * {@link Graph}, which route queries read from any thread without locking.
+ */
+public class PathNetwork {
+    /** Contacts with the same path at most this many points apart belong to one stretch of contact */
+    private static final int JUNCTION_GAP = 16;
+
+    /** Largest distance from the network at which a route can start or end, in blocks */
+    public static final double ACCESS_DISTANCE = 48.0;
+
+    /**
+     * A place where two paths meet, seen from the first path.
+     *
+     * @param pointIndex The index of the meeting point on the first path
+     * @param other The other path
+     * @param otherPointIndex The index of the meeting point on the other path
+     * @param distance The distance between the two points in blocks
+     */
+    private record Junction(int pointIndex, Path other, int otherPointIndex, double distance) {
+    }
+
+    /**
+     * The nodes of one path, which have consecutive ids in point order.
+     *
+     * @param firstNode The id of the node at the start of the path
+     * @param pointIndexes The point index of every node of the path, in ascending order
+     */
+    private record PathNodes(int firstNode, int[] pointIndexes) {
+        int nodeAt(int pointIndex) {
+            int position = Arrays.binarySearch(pointIndexes, pointIndex);
+            return position < 0 ? -1 : firstNode + position;
+        }
+    }
+
+    /**
+     * Immutable adjacency of the network in compressed sparse row form.
+     * The edges of node {@code u} are {@code edgeOffsets[u]} to {@code edgeOffsets[u + 1] - 1}.
+     */
+    private static final class Graph {
+        static final Graph EMPTY = new Graph(new Path[0], new int[0], new long[0],
+                new int[]{0}, new int[0], new float[0], Map.of());
+
+        final Path[] nodePaths;
+        final int[] nodePointIndexes;
+        final long[] nodePoints;
+        final int[] edgeOffsets;
+        final int[] edgeTargets;
+        final float[] edgeWeights;
+        final Map<Path, PathNodes> pathNodes;
+
+        Graph(Path[] nodePaths, int[] nodePointIndexes, long[] nodePoints,
+              int[] edgeOffsets, int[] edgeTargets, float[] edgeWeights, Map<Path, PathNodes> pathNodes) {
+            this.nodePaths = nodePaths;
+            this.nodePointIndexes = nodePointIndexes;
+            this.nodePoints = nodePoints;
+            this.edgeOffsets = edgeOffsets;
+            this.edgeTargets = edgeTargets;
+            this.edgeWeights = edgeWeights;
+            this.pathNodes = pathNodes;
+        }
+
+        int nodeCount() {
+            return nodePaths.length;
+        }
+    }
+
+    /**
+     * Where a route leaves or joins the network: a point on a path and the nodes of
+     * that path on either side of it.
+     */
+    private record Access(Path path, int pointIndex, long point, int previousNode, int nextNode,
+                          double previousDistance, double nextDistance) {
+    }
+
+    /** Reference to the main plugin instance */
+    private final TrailTracker plugin;
+
+    /** Reference to the PathRecorder that owns the paths */
+    private final PathRecorder pathRecorder;
+
+    /** Junctions of every path in the network by path, each stored under both of its paths. Guarded by this. */
+    private final Map<Path, List<Junction>> junctions = new HashMap<>();
+
+    /** The current graph, replaced as a whole after every change */
+    private volatile Graph graph = Graph.EMPTY;
+
+    /**
+     * Creates a new PathNetwork.
+     *
+     * @param plugin The TrailTracker plugin instance
+     * @param pathRecorder The PathRecorder to read paths from
+     */
+    public PathNetwork(TrailTracker plugin, PathRecorder pathRecorder) {
+        this.plugin = plugin;
+        this.pathRecorder = pathRecorder;
+    }
+
+    /**
+     * Adds or updates a path in the background, for example when its recording completes.
+     *
+     * @param path The path that was completed or changed
+     */
+    void pathChanged(Path path) {
+        plugin.getTaskScheduler().runAsync(() -> update(path));
+    }
+
+    /**
+     * Removes a path in the background.
+     *
+     * @param path The path that was removed
+     */
+    void pathRemoved(Path path) {
+        plugin.getTaskScheduler().runAsync(() -> remove(path));
+    }
+
+    /**
+     * Rebuilds the whole network in the background, for example after the paths were reloaded.
+     */
+    void rebuild() {
+        plugin.getTaskScheduler().runAsync(this::rebuildAll);
+    }
+
+    private synchronized void update(Path path) {
+        removeJunctions(path);
+        if (isNetworkPath(path)) {
+            addJunctions(path, junctions::containsKey);
+        }
+        graph = buildGraph();
+    }
+
+    private synchronized void remove(Path path) {
+        removeJunctions(path);
+        graph = buildGraph();
+    }
+
+    private synchronized void rebuildAll() {
+        long startTime = System.nanoTime();
+        junctions.clear();
+        for (Path path : new ArrayList<>(pathRecorder.getAllPaths())) {
+            // Each path is matched against the paths added before it, so every junction is found once
+            if (isNetworkPath(path)) {
+                addJunctions(path, junctions::containsKey);
+            }
+        }
+        graph = buildGraph();
+
+        int junctionCount = 0;
+        for (List<Junction> pathJunctions : junctions.values()) {
+            junctionCount += pathJunctions.size();
+        }
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        plugin.getLogger().info("Built path network with " + junctions.size() + " paths and "
+                + junctionCount / 2 + " junctions in " + elapsedMillis + " ms.");
+    }
+
+    private boolean isNetworkPath(Path path) {
+        return pathRecorder.getPath(path.getName()) == path && path.isBound() && !path.isPagedOut()
+                && path.getPointCount() > 0 && !pathRecorder.isPathBeingRecorded(path.getName());
+    }
+
+    /**
+     * Finds the junctions of a path with the matching paths and adds the path to the network.
+     * A stretch where two paths run side by side becomes a junction at each of its ends,
+     * so a route can switch paths where the stretch starts as well as where it ends.
+     *
+     * @param path The path to add
+     * @param others The paths to look for junctions with
+     */
+    private void addJunctions(Path path, java.util.function.Predicate<Path> others) {
+        UUID worldId = path.getWorldId();
+        PathSpatialIndex spatialIndex = pathRecorder.getSpatialIndex();
+        int maxRadius = Math.max(path.getRadius(), worldId == null ? -1 : spatialIndex.getMaxRadius(worldId));
+
+        // Group the contacts by the other path, in point order along this path
+        Map<Path, List<PathSpatialIndex.Contact>> contactsByPath = new HashMap<>();
+        for (PathSpatialIndex.Contact contact : spatialIndex.findContacts(path, maxRadius, others)) {
+            contactsByPath.computeIfAbsent(contact.other(), k -> new ArrayList<>()).add(contact);
+        }
+
+        List<Junction> pathJunctions = new ArrayList<>();
+        for (List<PathSpatialIndex.Contact> contacts : contactsByPath.values()) {
+            contacts.sort(Comparator.comparingInt(PathSpatialIndex.Contact::pointIndex));
+            int runStart = 0;
+            for (int i = 1; i <= contacts.size(); i++) {
+                if (i == contacts.size() || contacts.get(i).pointIndex() - contacts.get(i - 1).pointIndex() > JUNCTION_GAP) {
+                    addJunction(path, contacts.get(runStart), pathJunctions);
+                    if (i - 1 > runStart) {
+                        addJunction(path, contacts.get(i - 1), pathJunctions);
+                    }
+                    runStart = i;
+                }
+            }
+        }
+        junctions.put(path, pathJunctions);
+    }
+
+    private void addJunction(Path path, PathSpatialIndex.Contact contact, List<Junction> pathJunctions) {
+        pathJunctions.add(new Junction(contact.pointIndex(), contact.other(), contact.otherPointIndex(), contact.distance()));
+        junctions.get(contact.other()).add(new Junction(contact.otherPointIndex(), path, contact.pointIndex(), contact.distance()));
+    }
+
+    private void removeJunctions(Path path) {
+        List<Junction> removed = junctions.remove(path);
+        if (removed == null) {
+            return;
+        }
+        for (Junction junction : removed) {
+            List<Junction> otherJunctions = junctions.get(junction.other());
+            if (otherJunctions != null) {
+                otherJunctions.removeIf(mirrored -> mirrored.other() == path);
+            }
+        }
+    }
+
+    /**
+     * Builds the adjacency arrays from the junctions.
+     * Linear in the number of nodes and edges; no points are searched.
+     *
+     * @return The new graph
+     */
+    private Graph buildGraph() {
+        Map<Path, PathNodes> pathNodes = new HashMap<>();
+        int nodeCount = 0;
+        for (Map.Entry<Path, List<Junction>> entry : junctions.entrySet()) {
+            Path path = entry.getKey();
+            List<Junction> pathJunctions = entry.getValue();
+            int pointCount = Math.min(path.getPointCount(), path.getArcLengths().size());
+            int[] indexes = new int[pathJunctions.size() + 2];
+            indexes[0] = 0;
+            indexes[1] = Math.max(0, pointCount - 1);
+            for (int i = 0; i < pathJunctions.size(); i++) {
+                indexes[i + 2] = Math.min(pathJunctions.get(i).pointIndex(), indexes[1]);
+            }
+            int[] unique = Arrays.stream(indexes).sorted().distinct().toArray();
+            pathNodes.put(path, new PathNodes(nodeCount, unique));
+            nodeCount += unique.length;
+        }
+
+        Path[] nodePaths = new Path[nodeCount];
+        int[] nodePointIndexes = new int[nodeCount];
+        long[] nodePoints = new long[nodeCount];
+        int[] degrees = new int[nodeCount];
+        for (Map.Entry<Path, PathNodes> entry : pathNodes.entrySet()) {
+            Path path = entry.getKey();
+            PathNodes nodes = entry.getValue();
+            PointStorage points = path.getTrackedPath();
+            for (int i = 0; i < nodes.pointIndexes().length; i++) {
+                int node = nodes.firstNode() + i;
+                nodePaths[node] = path;
+                nodePointIndexes[node] = nodes.pointIndexes()[i];
+                nodePoints[node] = points.get(nodes.pointIndexes()[i]);
+                // Edges to the previous and next node along the path
+                degrees[node] = (i > 0 ? 1 : 0) + (i < nodes.pointIndexes().length - 1 ? 1 : 0);
+            }
+            for (Junction junction : junctions.get(path)) {
+                degrees[junctionNode(nodes, junction.pointIndex(), path)]++;
+            }
+        }
+
+        int[] edgeOffsets = new int[nodeCount + 1];
+        for (int node = 0; node < nodeCount; node++) {
+            edgeOffsets[node + 1] = edgeOffsets[node] + degrees[node];
+        }
+        int[] edgeTargets = new int[edgeOffsets[nodeCount]];
+        float[] edgeWeights = new float[edgeTargets.length];
+        int[] cursors = Arrays.copyOf(edgeOffsets, nodeCount);
+
+        for (Map.Entry<Path, PathNodes> entry : pathNodes.entrySet()) {
+            Path path = entry.getKey();
+            PathNodes nodes = entry.getValue();
+            PathArcLengths arcLengths = path.getArcLengths();
+            for (int i = 0; i < nodes.pointIndexes().length - 1; i++) {
+                int node = nodes.firstNode() + i;
+                float weight = (float) (arcLengths.at(nodes.pointIndexes()[i + 1]) - arcLengths.at(nodes.pointIndexes()[i]));
+                edgeTargets[cursors[node]] = node + 1;
+                edgeWeights[cursors[node]++] = weight;
+                edgeTargets[cursors[node + 1]] = node;
+                edgeWeights[cursors[node + 1]++] = weight;
+            }
+            // Every junction is stored under both paths, so each side adds its own direction
+            for (Junction junction : junctions.get(path)) {
+                int node = junctionNode(nodes, junction.pointIndex(), path);
+                PathNodes otherNodes = pathNodes.get(junction.other());
+                edgeTargets[cursors[node]] = junctionNode(otherNodes, junction.otherPointIndex(), junction.other());
+                edgeWeights[cursors[node]++] = (float) junction.distance();
+            }
+        }
+
+        return new Graph(nodePaths, nodePointIndexes, nodePoints, edgeOffsets, edgeTargets, edgeWeights,
+                Collections.unmodifiableMap(pathNodes));
+    }
+
+    /**
+     * Gets the node of a junction, clamped like the node indexes in {@link #buildGraph()}.
+     */
+    private static int junctionNode(PathNodes nodes, int pointIndex, Path path) {
+        int[] indexes = nodes.pointIndexes();
+        return nodes.nodeAt(Math.min(pointIndex, indexes[indexes.length - 1]));
+    }
+
+    /**
+     * Gets the number of paths and junctions in the current network.
+     *
+     * @return The number of nodes in the graph
+     */
+    public int getNodeCount() {
+        return graph.nodeCount();
+    }
+
+    /**
+     * Finds the shortest route along the network between two locations.
+     * Both locations must be within {@link #ACCESS_DISTANCE} of a path in the network.
+     *
+     * @param world The world of both locations
+     * @param fromX The X coordinate of the start
+     * @param fromY The Y coordinate of the start
+     * @param fromZ The Z coordinate of the start
+     * @param toX The X coordinate of the destination
+     * @param toY The Y coordinate of the destination
+     * @param toZ The Z coordinate of the destination
+     * @return The route, or null if either location is off the network or they are not connected
+     */
+    public PathRoute findRoute(World world, double fromX, double fromY, double fromZ, double toX, double toY, double toZ) {
+        Graph current = graph;
+        Access start = access(current, world, fromX, fromY, fromZ);
+        Access goal = access(current, world, toX, toY, toZ);
+        if (start == null || goal == null) {
+            return null;
+        }
+
+        double[] goalCosts = goalCosts(current);
+        goalCosts[goal.previousNode()] = goal.previousDistance();
+        goalCosts[goal.nextNode()] = goal.nextDistance();
+        BoundingBox target = new BoundingBox(PointCodec.x(goal.point()), PointCodec.y(goal.point()), PointCodec.z(goal.point()),
+                PointCodec.x(goal.point()), PointCodec.y(goal.point()), PointCodec.z(goal.point()));
+        return search(current, start, goal, goalCosts, target);
+    }
+
+    /**
+     * Finds the shortest route along the network from a location to any point of a path.
+     *
+     * @param world The world of the location
+     * @param fromX The X coordinate of the start
+     * @param fromY The Y coordinate of the start
+     * @param fromZ The Z coordinate of the start
+     * @param target The path to reach
+     * @return The route, or null if the location is off the network or not connected to the path
+     */
+    public PathRoute findRoute(World world, double fromX, double fromY, double fromZ, Path target) {
+        Graph current = graph;
+        Access start = access(current, world, fromX, fromY, fromZ);
+        PathNodes targetNodes = current.pathNodes.get(target);
+        if (start == null || targetNodes == null) {
+            return null;
+        }
+        if (start.path() == target) {
+            return new PathRoute(List.of(new PathRoute.Leg(target.getName(), start.pointIndex(), start.pointIndex(), 0)), 0);
+        }
+
+        double[] goalCosts = goalCosts(current);
+        for (int i = 0; i < targetNodes.pointIndexes().length; i++) {
+            goalCosts[targetNodes.firstNode() + i] = 0;
+        }
+        return search(current, start, null, goalCosts, target.getStatistics().getBoundingBox());
+    }
+
+    private static double[] goalCosts(Graph current) {
+        double[] goalCosts = new double[current.nodeCount()];
+        Arrays.fill(goalCosts, -1);
+        return goalCosts;
+    }
+
+    /**
+     * Finds where a location joins the network: the closest point of a network path
+     * and the nodes of that path on either side of it.
+     */
+    private Access access(Graph current, World world, double x, double y, double z) {
+        PathHit hit = pathRecorder.getSpatialIndex().findNearest(world.getUID(), x, y, z, ACCESS_DISTANCE,
+                current.pathNodes::containsKey);
+        Path path = hit == null ? null : pathRecorder.getPath(hit.pathName());
+        PathNodes nodes = path == null ? null : current.pathNodes.get(path);
+        if (nodes == null) {
+            return null;
+        }
+
+        int[] indexes = nodes.pointIndexes();
+        int pointIndex = Math.min(hit.pointIndex(), indexes[indexes.length - 1]);
+        int position = Arrays.binarySearch(indexes, pointIndex);
+        int previous = position >= 0 ? position : -position - 2;
+        int next = position >= 0 ? position : -position - 1;
+
+        PathArcLengths arcLengths = path.getArcLengths();
+        double travelled = arcLengths.at(pointIndex);
+        return new Access(path, pointIndex, path.getTrackedPath().get(pointIndex),
+                nodes.firstNode() + previous, nodes.firstNode() + next,
+                travelled - arcLengths.at(indexes[previous]), arcLengths.at(indexes[next]) - travelled);
+    }
+
+    /**
+     * Runs A* from the start access to a virtual goal node.
+     * Nodes with a non-negative goal cost connect to the goal at that cost. The heuristic
+     * is the straight-line distance to the target area, which never overestimates since
+     * every edge is at least as long as the straight line between its ends.
+     *
+     * @param current The graph to search
+     * @param start Where the route joins the network
+     * @param goal Where the route leaves the network, or null if it ends at the node it reaches
+     * @param goalCosts The cost from every node to the goal, or -1 if it does not connect to it
+     * @param target The area the route leads to, used for the heuristic
+     * @return The route, or null if the goal cannot be reached
+     */
+    private PathRoute search(Graph current, Access start, Access goal, double[] goalCosts, BoundingBox target) {
+        int nodeCount = current.nodeCount();
+        int startNode = nodeCount;
+        int goalNode = nodeCount + 1;
+
+        double[] costs = new double[nodeCount + 2];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        int[] parents = new int[nodeCount + 2];
+        Arrays.fill(parents, -1);
+        boolean[] closed = new boolean[nodeCount + 2];
+
+        NodeHeap open = new NodeHeap();
+        costs[startNode] = 0;
+        open.push(startNode, 0);
+
+        while (!open.isEmpty()) {
+            int node = open.pop();
+            if (closed[node]) {
+                continue;
+            }
+            closed[node] = true;
+            if (node == goalNode) {
+                break;
+            }
+
+            if (node == startNode) {
+                relax(current, open, costs, parents, target, node, start.previousNode(), start.previousDistance());
+                relax(current, open, costs, parents, target, node, start.nextNode(), start.nextDistance());
+                if (goal != null && goal.path() == start.path()) {
+                    // Staying on the same path is always possible
+                    PathArcLengths arcLengths = start.path().getArcLengths();
+                    relax(current, open, costs, parents, target, node, goalNode,
+                            Math.abs(arcLengths.at(goal.pointIndex()) - arcLengths.at(start.pointIndex())));
+                }
+                continue;
+            }
+
+            for (int edge = current.edgeOffsets[node]; edge < current.edgeOffsets[node + 1]; edge++) {
+                relax(current, open, costs, parents, target, node, current.edgeTargets[edge], current.edgeWeights[edge]);
+            }
+            if (goalCosts[node] >= 0) {
+                relax(current, open, costs, parents, target, node, goalNode, goalCosts[node]);
+            }
+        }
+
+        if (parents[goalNode] < 0) {
+            return null;
+        }
+        return buildRoute(current, start, goal, parents, costs, startNode, goalNode);
+    }
+
+    private static void relax(Graph current, NodeHeap open, double[] costs, int[] parents, BoundingBox target,
+                              int from, int to, double weight) {
+        double cost = costs[from] + weight;
+        if (cost >= costs[to]) {
+            return;
+        }
+        costs[to] = cost;
+        parents[to] = from;
+        open.push(to, cost + (to < current.nodeCount() ? distanceTo(current.nodePoints[to], target) : 0));
+    }
+
+    private static double distanceTo(long point, BoundingBox box) {
+        double x = PointCodec.x(point), y = PointCodec.y(point), z = PointCodec.z(point);
+        double dx = Math.max(0, Math.max(box.getMinX() - x, x - box.getMaxX()));
+        double dy = Math.max(0, Math.max(box.getMinY() - y, y - box.getMaxY()));
+        double dz = Math.max(0, Math.max(box.getMinZ() - z, z - box.getMaxZ()));
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    /**
+     * Turns the searched nodes into legs, one per stretch of a single path.
+     */
+    private static PathRoute buildRoute(Graph current, Access start, Access goal, int[] parents, double[] costs,
+                                        int startNode, int goalNode) {
+        // Walk back from the goal, skipping the virtual goal when the route ends at a node
+        List<Integer> nodes = new ArrayList<>();
+        for (int node = goal == null ? parents[goalNode] : goalNode; node >= 0; node = parents[node]) {
+            nodes.add(node);
+        }
+        Collections.reverse(nodes);
+
+        List<PathRoute.Leg> legs = new ArrayList<>();
+        Path legPath = null;
+        int legFrom = 0, legTo = 0;
+        double legLength = 0;
+        double previousCost = 0;
+        for (int node : nodes) {
+            Path path;
+            int pointIndex;
+            if (node == startNode) {
+                path = start.path();
+                pointIndex = start.pointIndex();
+            } else if (node == goalNode) {
+                path = goal.path();
+                pointIndex = goal.pointIndex();
+            } else {
+                path = current.nodePaths[node];
+                pointIndex = current.nodePointIndexes[node];
+            }
+
+            if (path == legPath) {
+                legTo = pointIndex;
+                legLength += costs[node] - previousCost;
+            } else {
+                // A junction hop; its short distance only counts towards the total
+                addLeg(legs, legPath, legFrom, legTo, legLength);
+                legPath = path;
+                legFrom = pointIndex;
+                legTo = pointIndex;
+                legLength = 0;
+            }
+            previousCost = costs[node];
+        }
+        addLeg(legs, legPath, legFrom, legTo, legLength);
+
+        if (legs.isEmpty()) {
+            legs.add(new PathRoute.Leg(start.path().getName(), start.pointIndex(), start.pointIndex(), 0));
+        }
+        return new PathRoute(List.copyOf(legs), costs[goalNode]);
+    }
+
+    private static void addLeg(List<PathRoute.Leg> legs, Path path, int from, int to, double length) {
+        // Skip the empty legs left where a route arrives at a junction and leaves it right away
+        if (path != null && from != to) {
+            legs.add(new PathRoute.Leg(path.getName(), from, to, length));
+        }
+    }
+
+    /**
+     * Binary min-heap of node ids by priority, used as the A* open set.
+     * Nodes are pushed again when their cost improves; stale entries are skipped when popped.
+     */
+    private static final class NodeHeap {
+        private int[] nodes = new int[64];
+        private double[] priorities = new double[64];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(int node, double priority) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                priorities = Arrays.copyOf(priorities, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (priorities[parent] <= priority) {
+                    break;
+                }
+                nodes[i] = nodes[parent];
+                priorities[i] = priorities[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            priorities[i] = priority;
+        }
+
+        int pop() {
+            int top = nodes[0];
+            int lastNode = nodes[--size];
+            double lastPriority = priorities[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && priorities[child + 1] < priorities[child]) {
+                    child++;
+                }
+                if (priorities[child] >= lastPriority) {
+                    break;
+                }
+                nodes[i] = nodes[child];
+                priorities[i] = priorities[child];
+                i = child;
+            }
+            nodes[i] = lastNode;
+            priorities[i] = lastPriority;
+            return top;
+        }
+    }
+}
@@ -2,20 +2,32 @@ package se.alvarsjogren.trailTracker;
 
 import org.bukkit.Location;
 import org.bukkit.Particle;
+import org.bukkit.World;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.util.BoundingBox;
+import se.alvarsjogren.trailTracker.api.PathHit;
+import se.alvarsjogren.trailTracker.api.events.PathCreatedEvent;
+import se.alvarsjogren.trailTracker.api.events.PathModifiedEvent;
+import se.alvarsjogren.trailTracker.api.events.PathPointsAppendedEvent;
+import se.alvarsjogren.trailTracker.api.events.PathRecordingStoppedEvent;
+import se.alvarsjogren.trailTracker.api.events.PathRemovedEvent;
 import se.alvarsjogren.trailTracker.utilities.ParticleUtilities;
+import se.alvarsjogren.trailTracker.utilities.TaskScheduler;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 /**
  * Records and manages player movement paths in the Minecraft world.
  * Thread-safe implementation for handling concurrent access in a multithreaded server environment.
  */
 public class PathRecorder {
-    /** Master collection of all paths by name */
-    private final Map<String, Path> paths = new ConcurrentHashMap<>();
+    /**
+     * All paths and their derived indexes. Updated in place for single changes and
+     * replaced as a whole when paths are reloaded, so readers never see a half-built index.
+     */
+    private volatile PathIndexes indexes = new PathIndexes();
 
     /** Maps player UUIDs to the path names they are currently tracking */
     private final Map<UUID, String> trackedPaths = new ConcurrentHashMap<>();
@@ -23,9 +35,21 @@ public class PathRecorder {
     /** Maps player UUIDs to the set of path names they are displaying */
     private final Map<UUID, Set<String>> displayedPaths = new ConcurrentHashMap<>();
 
+    /** Reverse index of displayedPaths: maps path names to the UUIDs of players displaying them */
+    private final Map<String, Set<UUID>> pathViewers = new ConcurrentHashMap<>();
+
     /** Tracks the last time each player's position was recorded to prevent excessive updates */
     private final Map<UUID, Long> lastTrackedTime = new ConcurrentHashMap<>();
 
+    /** Players who have been told that their position is outside the range of recordable points */
+    private final Set<UUID> outOfRangeReported = ConcurrentHashMap.newKeySet();
+
+    /** Number of points of each recording path already reported in a PathPointsAppendedEvent */
+    private final Map<String, Integer> reportedPointCounts = new ConcurrentHashMap<>();
+
+    /** Number of new points collected before a PathPointsAppendedEvent is fired */
+    private static final int APPENDED_EVENT_BATCH = 20;
+
     /** Reference to the main plugin instance */
     private final TrailTracker plugin;
 
@@ -39,7 +63,7 @@ public class PathRecorder {
     private int maxPathPoints;
 
     /** Reference to the scheduled task that displays particles */
-    private BukkitTask displayTask;
+    private TaskScheduler.Task displayTask;
 
     /** How often to display particles (in ticks) */
     private int particleFrequency;
@@ -47,6 +71,27 @@ public class PathRecorder {
     /** Default radius around path points where players are detected */
     private int defaultPathRadius;
 
+    /** Whether displayed paths are rendered path-major instead of player-major */
+    private boolean pathMajorDisplay;
+
+    /** Renderer used for the path-major display mode */
+    private final PathRenderer pathRenderer = new PathRenderer(this);
+
+    /** Guidance for players following a path */
+    private final PathFollower pathFollower;
+
+    /** Ghost replays of recorded paths */
+    private final PathReplayer pathReplayer;
+
+    /** Player traffic counts and heatmaps */
+    private final PathTraffic pathTraffic;
+
+    /** Detection and merging of paths that retrace other paths */
+    private final PathDeduplicator pathDeduplicator;
+
+    /** Junction graph of the completed paths, used for route queries */
+    private final PathNetwork pathNetwork;
+
     /**
      * Creates a new PathRecorder with the specified plugin instance.
      * Loads configuration values and starts the display task.
@@ -55,6 +100,11 @@ public class PathRecorder {
      */
     public PathRecorder(TrailTracker plugin) {
         this.plugin = plugin;
+        this.pathFollower = new PathFollower(plugin, this);
+        this.pathReplayer = new PathReplayer(plugin, this);
+        this.pathTraffic = new PathTraffic(plugin, this);
+        this.pathDeduplicator = new PathDeduplicator(plugin, this);
+        this.pathNetwork = new PathNetwork(plugin, this);
         loadConfigValues();
     }
 
@@ -78,7 +128,16 @@ public class PathRecorder {
         particleFrequency = plugin.getConfig().getInt("particle-frequency", 5);
         defaultPathRadius = plugin.getConfig().getInt("default-path-radius", 3);
 
+        String displayMode = plugin.getConfig().getString("display-mode", "player");
+        pathMajorDisplay = "path".equalsIgnoreCase(displayMode);
+        if (pathMajorDisplay && TaskScheduler.isFolia()) {
+            // Path-major rendering reads viewers from many regions at once, which Folia forbids
+            plugin.getLogger().warning("display-mode 'path' is not supported on Folia. Using 'player'.");
+            pathMajorDisplay = false;
+        }
+
         startDisplayTask();
+        pathDeduplicator.start();
     }
 
     /**
@@ -131,6 +190,9 @@ public class PathRecorder {
     /**
      * Starts the task that displays paths to players at the configured frequency.
      * Cancels any existing task first to prevent duplicates.
+     * The task itself only runs on the global tick. In player-major mode the per-player
+     * work is handed to each player's own region so that it runs in parallel on Folia;
+     * in path-major mode every displayed path is rendered once for all its viewers.
      */
     private void startDisplayTask() {
         // Cancel any existing display task to prevent duplicates
@@ -138,23 +200,61 @@ public class PathRecorder {
             displayTask.cancel();
         }
 
+        TaskScheduler scheduler = plugin.getTaskScheduler();
+
         // Start new task to display paths for all online players
-        displayTask = plugin.getServer().getScheduler().runTaskTimer(
-                plugin,
-                () -> {
-                    for (Player player : plugin.getServer().getOnlinePlayers()) {
-                        // Display paths that the player has chosen to display
-                        displayVisiblePaths(player);
-
-                        // If the player is recording a path, also display that path
-                        displayActivelyRecordedPath(player);
-                    }
-                },
+        displayTask = scheduler.runGlobalTimer(
+                pathMajorDisplay ? this::displayPathMajor : () -> displayPlayerMajor(scheduler),
                 20L, // Initial delay (1 second)
                 Math.max(1, particleFrequency) // Make sure frequency is at least 1 tick
         );
 
-        plugin.getLogger().info("Started path display task with frequency: " + particleFrequency + " ticks");
+        plugin.getLogger().info("Started path display task with frequency: " + particleFrequency + " ticks"
+                + (pathMajorDisplay ? " (path-major)" : ""));
+
+        pathFollower.start(particleFrequency);
+        pathReplayer.start();
+        pathTraffic.start(particleFrequency);
+    }
+
+    /**
+     * One tick of the player-major display loop.
+     * Each player's displayed paths are drawn on that player's own region.
+     *
+     * @param scheduler The scheduler used to dispatch per-player work
+     */
+    private void displayPlayerMajor(TaskScheduler scheduler) {
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            // Skip players with nothing to show so no task is dispatched for them
+            UUID playerUUID = player.getUniqueId();
+            if (!displayedPaths.containsKey(playerUUID) && !trackedPaths.containsKey(playerUUID)) {
+                continue;
+            }
+
+            scheduler.runForEntity(player, () -> {
+                // Display paths that the player has chosen to display
+                displayVisiblePaths(player);
+
+                // If the player is recording a path, also display that path
+                displayActivelyRecordedPath(player);
+            });
+        }
+    }
+
+    /**
+     * One tick of the path-major display loop.
+     * Each displayed path is walked once for all of its viewers, then
+     * recording players are shown the path they are recording.
+     */
+    private void displayPathMajor() {
+        pathRenderer.renderAll(plugin.getServer());
+
+        for (UUID playerUUID : trackedPaths.keySet()) {
+            Player player = plugin.getServer().getPlayer(playerUUID);
+            if (player != null) {
+                displayActivelyRecordedPath(player);
+            }
+        }
     }
 
     /**
@@ -180,12 +280,99 @@ public class PathRecorder {
         }
     }
 
+    /**
+     * Cancels the display, follow, replay and heatmap tasks and the duplicate analysis.
+     * Called when the plugin is disabled.
+     */
+    public void stopDisplayTask() {
+        if (displayTask != null && !displayTask.isCancelled()) {
+            displayTask.cancel();
+        }
+        pathFollower.stop();
+        pathReplayer.stop();
+        pathTraffic.stop();
+        pathDeduplicator.stop();
+    }
+
+    /**
+     * Gets the guidance used by /tt follow.
+     *
+     * @return The path follower
+     */
+    public PathFollower getPathFollower() {
+        return pathFollower;
+    }
+
+    /**
+     * Gets the ghost replays used by /tt replay.
+     *
+     * @return The path replayer
+     */
+    public PathReplayer getPathReplayer() {
+        return pathReplayer;
+    }
+
+    /**
+     * Gets the traffic counts used by /tt heatmap.
+     *
+     * @return The path traffic
+     */
+    public PathTraffic getPathTraffic() {
+        return pathTraffic;
+    }
+
+    /**
+     * Gets the duplicate analysis used by /tt merge.
+     *
+     * @return The path deduplicator
+     */
+    public PathDeduplicator getPathDeduplicator() {
+        return pathDeduplicator;
+    }
+
+    /**
+     * Gets the junction graph used by /tt route.
+     *
+     * @return The path network
+     */
+    public PathNetwork getPathNetwork() {
+        return pathNetwork;
+    }
+
+    /**
+     * Gets the point grid of the current indexes, for the analyses that search it directly.
+     *
+     * @return The spatial index
+     */
+    PathSpatialIndex getSpatialIndex() {
+        return indexes.spatialIndex;
+    }
+
     /**
      * Gets a copy of the paths map to prevent concurrent modification issues.
      * @return A copy of the paths map
      */
     public Map<String, Path> getPaths() {
-        return new HashMap<>(paths);
+        return new HashMap<>(indexes.paths);
+    }
+
+    /**
+     * Gets all paths as a live, unmodifiable view, without copying the paths map.
+     *
+     * @return All paths
+     */
+    public Collection<Path> getAllPaths() {
+        return Collections.unmodifiableCollection(indexes.paths.values());
+    }
+
+    /**
+     * Gets a single path by its exact name without copying the paths map.
+     *
+     * @param pathName The name of the path
+     * @return The path, or null if there is no path with that name
+     */
+    public Path getPath(String pathName) {
+        return indexes.paths.get(pathName);
     }
 
     /**
@@ -195,10 +382,339 @@ public class PathRecorder {
      * @param loadedPaths The paths to set
      */
     public synchronized void setPaths(Map<String, Path> loadedPaths) {
-        paths.clear();
-        if (loadedPaths != null) {
-            paths.putAll(loadedPaths);
+        indexes = buildIndexes(loadedPaths == null ? Collections.emptyList() : loadedPaths.values());
+        pathNetwork.rebuild();
+    }
+
+    /**
+     * Builds a complete set of indexes for the given paths.
+     * Binds paths whose world is already loaded (the rest wait for WorldLoadEvent)
+     * and computes their statistics, so the result is ready to be swapped in.
+     * Does not touch the current indexes and can run on any thread.
+     *
+     * @param loadedPaths The paths to index
+     * @return The new indexes
+     */
+    private PathIndexes buildIndexes(Collection<Path> loadedPaths) {
+        PathIndexes built = new PathIndexes();
+        for (Path path : loadedPaths) {
+            World world = path.getWorldName() == null ? null : plugin.getServer().getWorld(path.getWorldName());
+            if (world != null) {
+                path.setWorld(world);
+            }
+            path.getStatistics();
+            built.add(path);
+        }
+        return built;
+    }
+
+    /**
+     * Replaces all paths with freshly loaded ones.
+     * The new indexes are built on the calling thread, which should not be the main thread,
+     * and swapped in atomically at the end. Paths that were created, changed or removed
+     * in memory after {@code revisionsAtStart} was captured keep their in-memory state,
+     * so nothing done while the reload ran is lost. Paths that did not change are replaced
+     * by their stored copy, or dropped if they are no longer stored.
+     *
+     * @param loadedPaths The paths read from storage
+     * @param revisionsAtStart The revision of every path when the reload started
+     * @return The number of paths after the reload
+     */
+    public int reloadPaths(Map<String, Path> loadedPaths, Map<String, Integer> revisionsAtStart) {
+        PathIndexes rebuilt = buildIndexes(loadedPaths.values());
+
+        synchronized (this) {
+            PathIndexes current = indexes;
+            for (Path live : current.paths.values()) {
+                // Unchanged paths take the stored state, including being gone from storage
+                Integer startRevision = revisionsAtStart.get(live.getName());
+                if (startRevision == null || startRevision != live.getRevision()) {
+                    rebuilt.add(live);
+                }
+            }
+            for (String name : revisionsAtStart.keySet()) {
+                if (!current.paths.containsKey(name)) {
+                    rebuilt.remove(name);
+                }
+            }
+            indexes = rebuilt;
+            pathNetwork.rebuild();
+            return rebuilt.paths.size();
+        }
+    }
+
+    /**
+     * Captures the revision of every path, the starting point of a reload.
+     *
+     * @return Revisions by path name
+     */
+    public Map<String, Integer> getPathRevisions() {
+        Map<String, Integer> revisions = new HashMap<>();
+        for (Path path : indexes.paths.values()) {
+            revisions.put(path.getName(), path.getRevision());
+        }
+        return revisions;
+    }
+
+    /**
+     * Gets all path names starting with the given text, ignoring case.
+     * Served from the name index, so the cost depends on the typed text, not the number of paths.
+     *
+     * @param prefix The typed prefix
+     * @return Matching path names in their original case
+     */
+    public List<String> completePathNames(String prefix) {
+        return indexes.nameIndex.complete(prefix);
+    }
+
+    /**
+     * Checks if any path name starts with the given text, ignoring case.
+     *
+     * @param prefix The typed prefix
+     * @return true if at least one path name has the prefix
+     */
+    public boolean hasPathNamePrefix(String prefix) {
+        return indexes.nameIndex.hasPrefix(prefix);
+    }
+
+    /**
+     * Resolves the longest existing path name formed by consecutive command arguments.
+     *
+     * @param args The command arguments
+     * @param from Index of the first argument of the path name
+     * @param to Index after the last argument that may belong to the path name
+     * @return The match with the path name and the index after it, or null if there is none
+     */
+    public PathNameIndex.Match findLongestPathName(String[] args, int from, int to) {
+        return indexes.nameIndex.findLongest(args, from, to);
+    }
+
+    /**
+     * Streams all paths in the given sort order.
+     * The stream is lazy and backed by a sorted index, so skipping and limiting it
+     * for a page only visits the paths on and before that page.
+     *
+     * @param order The sort order
+     * @return A lazy stream of paths
+     */
+    public Stream<Path> getSortedPaths(PathListIndex.SortOrder order) {
+        PathIndexes current = indexes;
+        return current.listIndex.names(order)
+                .map(current.paths::get)
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * Gets the number of paths without copying the paths map.
+     *
+     * @return The number of paths
+     */
+    public int getPathCount() {
+        return indexes.paths.size();
+    }
+
+    /**
+     * Gets the paths recorded in a world.
+     * Returns a live, unmodifiable view of the world's partition, so no copy is made.
+     *
+     * @param world The world to look up
+     * @return The paths in that world, or an empty collection if there are none
+     */
+    public Collection<Path> getPathsInWorld(World world) {
+        Map<String, Path> worldPaths = indexes.pathsByWorld.get(world.getUID());
+        if (worldPaths == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableCollection(worldPaths.values());
+    }
+
+    /**
+     * Finds the closest point of any completed path within a distance of a location.
+     * Uses the point grid, so only the points near the location are visited.
+     *
+     * @param world The world to search
+     * @param x The X coordinate
+     * @param y The Y coordinate
+     * @param z The Z coordinate
+     * @param maxDistance The largest distance to consider, in blocks
+     * @return The closest point, or null if no path is close enough
+     */
+    public PathHit findNearestPath(World world, double x, double y, double z, double maxDistance) {
+        return indexes.spatialIndex.findNearest(world.getUID(), x, y, z, maxDistance, this::isCompleted);
+    }
+
+    /**
+     * Finds the completed paths with at least one point inside an area.
+     *
+     * @param world The world to search
+     * @param bounds The area to search
+     * @return For each matching path, its point closest to the centre of the area
+     */
+    public List<PathHit> findPathsIntersecting(World world, BoundingBox bounds) {
+        return indexes.spatialIndex.findIntersecting(world.getUID(), bounds, this::isCompleted);
+    }
+
+    /**
+     * Finds the closest point of one path within a distance of a location.
+     *
+     * @param path The path to search
+     * @param x The X coordinate
+     * @param y The Y coordinate
+     * @param z The Z coordinate
+     * @param maxDistance The largest distance to consider, in blocks
+     * @return The closest point of the path, or null if none is close enough
+     */
+    public PathHit findPointOnPath(Path path, double x, double y, double z, double maxDistance) {
+        UUID worldId = path.getWorldId();
+        if (worldId == null) {
+            return null;
+        }
+        return indexes.spatialIndex.findNearest(worldId, x, y, z, maxDistance, candidate -> candidate == path);
+    }
+
+    /**
+     * Finds the completed path a location is on, meaning within that path's detection radius.
+     * When several paths qualify, the one with the closest point wins.
+     *
+     * @param world The world of the location
+     * @param x The X coordinate
+     * @param y The Y coordinate
+     * @param z The Z coordinate
+     * @return The closest qualifying point, or null if the location is on no path
+     */
+    public PathHit findPathAt(World world, double x, double y, double z) {
+        PathSpatialIndex spatialIndex = indexes.spatialIndex;
+        int maxRadius = spatialIndex.getMaxRadius(world.getUID());
+        if (maxRadius < 0) {
+            return null;
+        }
+        return spatialIndex.findWithinRadius(world.getUID(), x, y, z, maxRadius, this::isCompleted);
+    }
+
+    /**
+     * Changes the detection radius of a path and updates the spatial index with it.
+     *
+     * @param path The path to change
+     * @param radius The new radius in blocks
+     */
+    public void setPathRadius(Path path, int radius) {
+        path.setRadius(radius);
+        indexes.spatialIndex.updateRadius(path);
+    }
+
+    /**
+     * Notifies listeners that a property of a path was changed by a command.
+     *
+     * @param pathName The name of the modified path
+     * @param property The property that was changed
+     */
+    public void firePathModified(String pathName, PathModifiedEvent.Property property) {
+        if (PathModifiedEvent.hasListeners()) {
+            plugin.getServer().getPluginManager().callEvent(new PathModifiedEvent(pathName, property));
+        }
+    }
+
+    private boolean isCompleted(Path path) {
+        return !trackedPaths.containsValue(path.getName());
+    }
+
+    /**
+     * Releases the points of every path in a world that is being unloaded.
+     * The paths stay known by name so they are listed and kept on disk,
+     * but they are no longer considered for detection or display.
+     * Paths should be saved before calling this.
+     *
+     * @param world The world being unloaded
+     * @return The paths that were paged out
+     */
+    public synchronized List<Path> pageOutWorld(World world) {
+        PathIndexes current = indexes;
+        current.spatialIndex.removeWorld(world.getUID());
+        Map<String, Path> worldPaths = current.pathsByWorld.remove(world.getUID());
+        if (worldPaths == null) {
+            return Collections.emptyList();
+        }
+
+        List<Path> pagedOut = new ArrayList<>(worldPaths.values());
+        for (Path path : pagedOut) {
+            synchronized (path) {
+                path.pageOut();
+            }
+        }
+        pathNetwork.rebuild();
+        return pagedOut;
+    }
+
+    /**
+     * Binds every path that is waiting for the given world and adds it to the world's partition.
+     * The points are already in memory as raw coordinates, so nothing is read from disk.
+     *
+     * @param world The world that was loaded
+     * @return The number of paths that were bound
+     */
+    public synchronized int bindWorld(World world) {
+        int boundCount = 0;
+        PathIndexes current = indexes;
+        for (Path path : current.paths.values()) {
+            if (!path.isBound() && !path.isPagedOut() && world.getName().equals(path.getWorldName())) {
+                path.setWorld(world);
+                current.indexWorld(path);
+                boundCount++;
+            }
+        }
+        if (boundCount > 0) {
+            pathNetwork.rebuild();
+        }
+        return boundCount;
+    }
+
+    /**
+     * Counts paths that are not yet bound to a loaded world.
+     *
+     * @return The number of paths waiting for their world
+     */
+    public int getUnboundPathCount() {
+        int count = 0;
+        for (Path path : indexes.paths.values()) {
+            if (!path.isBound()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the paged out paths that belong to a world, by world name.
+     * Used to find the paths to restore when a world is loaded again.
+     *
+     * @param worldName The name of the world
+     * @return The paged out paths recorded in that world
+     */
+    public List<Path> getPagedOutPaths(String worldName) {
+        List<Path> result = new ArrayList<>();
+        for (Path path : indexes.paths.values()) {
+            if (path.isPagedOut() && worldName.equals(path.getWorldName())) {
+                result.add(path);
+            }
         }
+        return result;
+    }
+
+    /**
+     * Restores a paged out path with points read back from storage
+     * and adds it to its world's partition again.
+     *
+     * @param path The paged out path
+     * @param world The world that was loaded
+     * @param points The path's points
+     */
+    public synchronized void pageInPath(Path path, World world, PointStorage points) {
+        synchronized (path) {
+            path.setWorld(world);
+            path.pageIn(points);
+        }
+        indexes.indexWorld(path);
+        pathNetwork.pathChanged(path);
     }
 
     /**
@@ -223,6 +739,16 @@ public class PathRecorder {
         return copy;
     }
 
+    /**
+     * Checks if a path is currently being recorded by any player.
+     *
+     * @param pathName The name of the path
+     * @return True if the path is being recorded, false otherwise
+     */
+    public boolean isPathBeingRecorded(String pathName) {
+        return trackedPaths.containsValue(pathName);
+    }
+
     /**
      * Checks if a player is currently tracking a path.
      *
@@ -240,14 +766,45 @@ public class PathRecorder {
      * @param playerUUID The UUID of the player
      * @param playerName The name of the player (for attribution)
      * @param pathName The name of the path to track
+     * @param world The world the path is recorded in
      * @return Result of the operation
      */
-    public synchronized Result startTrackingPath(UUID playerUUID, String playerName, String pathName) {
+    public synchronized Result startTrackingPath(UUID playerUUID, String playerName, String pathName, World world) {
         if (trackedPaths.containsKey(playerUUID)) {
             return new Result(false, "You are already tracking a path.");
         }
 
-        if (paths.containsKey(pathName)) {
+        Result invalidName = checkNewPathName(pathName);
+        if (invalidName != null) {
+            return invalidName;
+        }
+
+        Path path = new Path(pathName, defaultPathRadius, defaultDisplayParticle);
+        path.setCreatedBy(playerName);
+        path.setCreationDate(new Date());
+        path.setMaxPoints(maxPathPoints);
+        path.setWorld(world);
+
+        trackedPaths.put(playerUUID, pathName);
+        indexes.add(path);
+        lastTrackedTime.put(playerUUID, System.currentTimeMillis());
+        reportedPointCounts.put(pathName, 0);
+
+        if (PathCreatedEvent.hasListeners()) {
+            plugin.getServer().getPluginManager().callEvent(new PathCreatedEvent(pathName, playerUUID));
+        }
+
+        return new Result(true, "Success");
+    }
+
+    /**
+     * Checks that a name can be used for a new path.
+     *
+     * @param pathName The name of the new path
+     * @return The failed result, or null if the name can be used
+     */
+    private Result checkNewPathName(String pathName) {
+        if (indexes.paths.containsKey(pathName)) {
             return new Result(false, "A path with that name already exists.");
         }
 
@@ -259,16 +816,39 @@ public class PathRecorder {
         if (!pathName.matches("[a-zA-Z0-9_\\-\\s]+")) {
             return new Result(false, "Path name contains invalid characters. Use only letters, numbers, spaces, underscores, and hyphens.");
         }
+        return null;
+    }
 
-        Path path = new Path(pathName, defaultPathRadius, defaultDisplayParticle);
-        path.setCreatedBy(playerName);
-        path.setCreationDate(new Date());
-        path.setMaxPoints(maxPathPoints);
+    /**
+     * Continues recording a completed path, appending the player's movement to its end.
+     * The path leaves detection and the network while it is recorded, like a new path.
+     *
+     * @param playerUUID The UUID of the player
+     * @param pathName The name of the path to continue
+     * @param world The world the player is in
+     * @return Result of the operation
+     */
+    public synchronized Result resumeTrackingPath(UUID playerUUID, String pathName, World world) {
+        if (trackedPaths.containsKey(playerUUID)) {
+            return new Result(false, "You are already tracking a path.");
+        }
+
+        Path path = indexes.paths.get(pathName);
+        Result notEditable = checkEditable(path, pathName);
+        if (notEditable != null) {
+            return notEditable;
+        }
+        if (!world.getUID().equals(path.getWorldId())) {
+            return new Result(false, "You must be in the path's world to continue recording it.");
+        }
+        if (path.getMaxPoints() > 0 && path.getPointCount() >= path.getMaxPoints()) {
+            return new Result(false, "The path already has its maximum number of points.");
+        }
 
         trackedPaths.put(playerUUID, pathName);
-        paths.put(pathName, path);
         lastTrackedTime.put(playerUUID, System.currentTimeMillis());
-
+        reportedPointCounts.put(pathName, path.getPointCount());
+        pathNetwork.pathChanged(path);
         return new Result(true, "Success");
     }
 
@@ -284,8 +864,28 @@ public class PathRecorder {
             return new Result(false, "You are not tracking any paths.");
         }
 
-        trackedPaths.remove(playerUUID);
+        String pathName = trackedPaths.remove(playerUUID);
         lastTrackedTime.remove(playerUUID);
+        outOfRangeReported.remove(playerUUID);
+
+        // The recording is complete, so the point count is final
+        PathIndexes current = indexes;
+        Path path = current.paths.get(pathName);
+        if (path != null) {
+            current.listIndex.updatePointCount(path);
+            current.spatialIndex.add(path);
+            pathNetwork.pathChanged(path);
+            // Create the API snapshot of the completed path once, ahead of the first poll
+            path.getSnapshot();
+
+            // Report the last partial batch of points before the recording completes
+            reportAppendedPoints(path, 1);
+            if (PathRecordingStoppedEvent.hasListeners()) {
+                plugin.getServer().getPluginManager().callEvent(
+                        new PathRecordingStoppedEvent(pathName, playerUUID, path.getPointCount()));
+            }
+        }
+        reportedPointCounts.remove(pathName);
 
         return new Result(true, "Success");
     }
@@ -296,18 +896,20 @@ public class PathRecorder {
      * Uses a small throttle to prevent excessive updates for performance.
      *
      * @param player The player to track
+     * @return false the first time in a recording that the player's position is
+     *         outside the range of points that can be stored, true otherwise
      */
-    public void trackPaths(Player player) {
+    public boolean trackPaths(Player player) {
         UUID playerUUID = player.getUniqueId();
         String pathName = trackedPaths.get(playerUUID);
 
         if (pathName == null) {
-            return;
+            return true;
         }
 
-        Path path = paths.get(pathName);
+        Path path = indexes.paths.get(pathName);
         if (path == null) {
-            return;
+            return true;
         }
 
         // Add a small throttle to prevent excessive updates
@@ -316,7 +918,7 @@ public class PathRecorder {
         Long lastTime = lastTrackedTime.get(playerUUID);
 
         if (lastTime != null && now - lastTime < 50) { // Reduced from 100ms to 50ms for 1.1.0.beta.2.1
-            return;
+            return true;
         }
 
         lastTrackedTime.put(playerUUID, now);
@@ -324,8 +926,32 @@ public class PathRecorder {
         checkLocation = checkLocation.toCenterLocation();
 
         // Thread-safe check and add
+        boolean stored;
         synchronized (path) {
-            path.putLocationToPath(checkLocation);
+            stored = path.putLocationToPath(checkLocation);
+        }
+        reportAppendedPoints(path, APPENDED_EVENT_BATCH);
+        return stored || !outOfRangeReported.add(playerUUID);
+    }
+
+    /**
+     * Fires a PathPointsAppendedEvent for the points added since the last one,
+     * once at least the given number of them have been collected.
+     *
+     * @param path The path being recorded
+     * @param minimumBatch The smallest number of new points worth an event
+     */
+    private void reportAppendedPoints(Path path, int minimumBatch) {
+        Integer reported = reportedPointCounts.get(path.getName());
+        int pointCount = path.getPointCount();
+        if (reported == null || pointCount - reported < minimumBatch) {
+            return;
+        }
+
+        reportedPointCounts.put(path.getName(), pointCount);
+        if (PathPointsAppendedEvent.hasListeners()) {
+            plugin.getServer().getPluginManager().callEvent(
+                    new PathPointsAppendedEvent(path.getName(), reported, pointCount - reported));
         }
     }
 
@@ -337,7 +963,7 @@ public class PathRecorder {
      * @return Result of the operation
      */
     public synchronized Result removePath(String pathName) {
-        if (!paths.containsKey(pathName)) {
+        if (!indexes.paths.containsKey(pathName)) {
             return new Result(false, "There is no path with that name. Use /tt list to see all paths.");
         }
 
@@ -345,19 +971,229 @@ public class PathRecorder {
             return new Result(false, "The path is being tracked. Stop tracking before deleting path.");
         }
 
-        for (UUID displayingPlayerUUID : displayedPaths.keySet()) {
-            Set<String> playerPaths = displayedPaths.get(displayingPlayerUUID);
-            if (playerPaths != null) {
-                synchronized (playerPaths) {
-                    playerPaths.remove(pathName);
+        // Only visit the players that are actually displaying this path
+        Set<UUID> viewers = pathViewers.remove(pathName);
+        if (viewers != null) {
+            for (UUID viewerUUID : viewers) {
+                removeDisplayedPath(viewerUUID, pathName);
+            }
+        }
+
+        Path removed = indexes.paths.get(pathName);
+        indexes.remove(pathName);
+        pathTraffic.removePath(pathName);
+        pathNetwork.pathRemoved(removed);
+
+        if (PathRemovedEvent.hasListeners()) {
+            plugin.getServer().getPluginManager().callEvent(new PathRemovedEvent(pathName));
+        }
+        return new Result(true, "Success");
+    }
+
+    /**
+     * Merges a path that retraces another path into that path.
+     * The parts of the duplicate that extend beyond the ends of the kept path are
+     * attached to it, then the duplicate is removed.
+     *
+     * @param pathName The name of the path to merge away
+     * @param canonicalName The name of the path to keep
+     * @return Result of the operation, with the number of added and dropped points on success
+     */
+    public synchronized Result mergePaths(String pathName, String canonicalName) {
+        Path path = indexes.paths.get(pathName);
+        Path canonical = indexes.paths.get(canonicalName);
+        if (path == null || canonical == null) {
+            return new Result(false, "There is no path with that name. Use /tt list to see all paths.");
+        }
+        if (path == canonical) {
+            return new Result(false, "A path cannot be merged into itself.");
+        }
+        if (trackedPaths.containsValue(pathName) || trackedPaths.containsValue(canonicalName)) {
+            return new Result(false, "The path is being tracked. Stop tracking before merging paths.");
+        }
+        if (!path.isBound() || !path.getWorldId().equals(canonical.getWorldId())
+                || path.isPagedOut() || canonical.isPagedOut()) {
+            return new Result(false, "Both paths must be in the same loaded world.");
+        }
+
+        double overlap = pathDeduplicator.overlap(path, canonical);
+        if (overlap < pathDeduplicator.getMinimumOverlap()) {
+            return new Result(false, "Only " + Math.round(overlap * 100) + "% of " + pathName + " lies on " + canonicalName + ".");
+        }
+
+        PathDeduplicator.MergedPoints merged;
+        synchronized (path) {
+            synchronized (canonical) {
+                merged = pathDeduplicator.mergePoints(path, canonical);
+                if (merged.points() != null) {
+                    canonical.replacePoints(merged.points(), merged.times());
                 }
             }
         }
 
-        paths.remove(pathName);
+        if (merged.points() != null) {
+            PathIndexes current = indexes;
+            current.listIndex.updatePointCount(canonical);
+            current.spatialIndex.add(canonical);
+            pathTraffic.resetPath(canonical);
+            pathNetwork.pathChanged(canonical);
+            firePathModified(canonicalName, PathModifiedEvent.Property.POINTS);
+        }
+        removePath(pathName);
+
+        return new Result(true, merged.addedCount() + " point(s) added, " + merged.droppedCount() + " point(s) already on the path or dropped");
+    }
+
+    /**
+     * Keeps only a range of a path's points, cutting points off its start and end.
+     * Cutting only the end keeps the indexes of the remaining points, so the point grid
+     * and storage only drop the removed points; cutting the start re-indexes the path.
+     *
+     * @param pathName The name of the path
+     * @param from The index of the first point to keep
+     * @param to The index after the last point to keep
+     * @return Result of the operation, with the number of removed points on success
+     */
+    public synchronized Result trimPath(String pathName, int from, int to) {
+        Path path = indexes.paths.get(pathName);
+        Result notEditable = checkEditable(path, pathName);
+        if (notEditable != null) {
+            return notEditable;
+        }
+
+        int pointCount;
+        synchronized (path) {
+            pointCount = path.getPointCount();
+            if (from < 0 || to > pointCount || to - from < 2) {
+                return new Result(false, "A path must keep at least 2 of its " + pointCount + " points.");
+            }
+            if (from == 0 && to == pointCount) {
+                return new Result(false, "There are no points to remove.");
+            }
+            path.keepPoints(from, to);
+        }
+
+        PathIndexes current = indexes;
+        current.listIndex.updatePointCount(path);
+        if (from == 0) {
+            current.spatialIndex.truncate(path, to);
+        } else {
+            current.spatialIndex.add(path);
+        }
+        pathTraffic.remapPath(pathName, path, from, to, false);
+        pathNetwork.pathChanged(path);
+        firePathModified(pathName, PathModifiedEvent.Property.POINTS);
+
+        return new Result(true, (pointCount - (to - from)) + " point(s) removed, " + (to - from) + " left");
+    }
+
+    /**
+     * Splits a path in two at a point. The path keeps its points up to and including
+     * the point, and a new path with the same settings gets the points from it onwards,
+     * so both halves still meet at the point.
+     *
+     * @param playerUUID The UUID of the player splitting the path, reported as the creator of the new path
+     * @param pathName The name of the path to split
+     * @param pointIndex The index of the point to split at
+     * @param newPathName The name of the new path
+     * @return Result of the operation
+     */
+    public synchronized Result splitPath(UUID playerUUID, String pathName, int pointIndex, String newPathName) {
+        Path path = indexes.paths.get(pathName);
+        Result notEditable = checkEditable(path, pathName);
+        if (notEditable != null) {
+            return notEditable;
+        }
+        Result invalidName = checkNewPathName(newPathName);
+        if (invalidName != null) {
+            return invalidName;
+        }
+        World world = plugin.getServer().getWorld(path.getWorldId());
+        if (world == null) {
+            return new Result(false, "The path's world is not loaded.");
+        }
+
+        Path split = new Path(newPathName, path.getRadius(), path.getDisplayParticle());
+        split.setDescription(path.getDescription());
+        split.setCreatedBy(path.getCreatedBy());
+        split.setCreationDate(path.getCreationDate());
+        split.setMaxPoints(path.getMaxPoints());
+        split.setWorld(world);
+
+        int pointCount;
+        synchronized (path) {
+            pointCount = path.getPointCount();
+            if (pointIndex < 1 || pointIndex > pointCount - 2) {
+                return new Result(false, "The point to split at must be between 1 and " + (pointCount - 2) + ".");
+            }
+            PointTimes times = path.getPointTimes();
+            split.replacePoints(path.getTrackedPath().slice(pointIndex, pointCount),
+                    times != null && times.size() == pointCount ? times.slice(pointIndex, pointCount) : null);
+            path.keepPoints(0, pointIndex + 1);
+        }
+
+        PathIndexes current = indexes;
+        current.add(split);
+        current.listIndex.updatePointCount(path);
+        current.spatialIndex.truncate(path, pointIndex + 1);
+        pathTraffic.remapPath(pathName, split, pointIndex, pointCount, false);
+        pathTraffic.remapPath(pathName, path, 0, pointIndex + 1, false);
+        pathNetwork.pathChanged(path);
+        pathNetwork.pathChanged(split);
+        firePathModified(pathName, PathModifiedEvent.Property.POINTS);
+        if (PathCreatedEvent.hasListeners()) {
+            plugin.getServer().getPluginManager().callEvent(new PathCreatedEvent(newPathName, playerUUID));
+        }
+
+        return new Result(true, "Success");
+    }
+
+    /**
+     * Reverses the direction of a path, so it starts where it used to end.
+     *
+     * @param pathName The name of the path
+     * @return Result of the operation
+     */
+    public synchronized Result reversePath(String pathName) {
+        Path path = indexes.paths.get(pathName);
+        Result notEditable = checkEditable(path, pathName);
+        if (notEditable != null) {
+            return notEditable;
+        }
+
+        int pointCount;
+        synchronized (path) {
+            pointCount = path.getPointCount();
+            path.reversePoints();
+        }
+
+        indexes.spatialIndex.add(path);
+        pathTraffic.remapPath(pathName, path, 0, pointCount, true);
+        pathNetwork.pathChanged(path);
+        firePathModified(pathName, PathModifiedEvent.Property.POINTS);
         return new Result(true, "Success");
     }
 
+    /**
+     * Checks that the points of a path can be edited.
+     *
+     * @param path The path, or null if there is no path with the name
+     * @param pathName The name of the path
+     * @return The failed result, or null if the path can be edited
+     */
+    private Result checkEditable(Path path, String pathName) {
+        if (path == null) {
+            return new Result(false, "There is no path with that name. Use /tt list to see all paths.");
+        }
+        if (trackedPaths.containsValue(pathName)) {
+            return new Result(false, "The path is being tracked. Stop tracking before editing its points.");
+        }
+        if (!path.isBound() || path.isPagedOut()) {
+            return new Result(false, "The path's world is not loaded.");
+        }
+        return null;
+    }
+
     /**
      * Starts displaying a path for a player.
      * Adds the path to the player's set of displayed paths.
@@ -367,7 +1203,7 @@ public class PathRecorder {
      * @return Result of the operation
      */
     public synchronized Result startDisplayingPath(UUID playerUUID, String pathName) {
-        if (!paths.containsKey(pathName)) {
+        if (!indexes.paths.containsKey(pathName)) {
             return new Result(false, "There is no path with that name.");
         }
 
@@ -379,6 +1215,7 @@ public class PathRecorder {
         }
 
         playerPaths.add(pathName);
+        pathViewers.computeIfAbsent(pathName, k -> ConcurrentHashMap.newKeySet()).add(playerUUID);
         return new Result(true, "Success");
     }
 
@@ -400,13 +1237,109 @@ public class PathRecorder {
             return new Result(false, "You are not displaying any path with that name.");
         }
 
-        playerPaths.remove(pathName);
+        removeDisplayedPath(playerUUID, pathName);
+        removeViewer(pathName, playerUUID);
+
+        return new Result(true, "Success");
+    }
 
+    /**
+     * Stops displaying all paths for a player.
+     * Called when the player leaves the server so no display state is left behind.
+     *
+     * @param playerUUID The UUID of the player
+     */
+    public synchronized void stopDisplayingAllPaths(UUID playerUUID) {
+        Set<String> playerPaths = displayedPaths.remove(playerUUID);
+        if (playerPaths == null) {
+            return;
+        }
+
+        synchronized (playerPaths) {
+            for (String pathName : playerPaths) {
+                removeViewer(pathName, playerUUID);
+            }
+        }
+    }
+
+    /**
+     * Checks if a player is displaying a path.
+     *
+     * @param playerUUID The UUID of the player
+     * @param pathName The name of the path
+     * @return true if the player is displaying the path
+     */
+    public boolean isDisplayingPath(UUID playerUUID, String pathName) {
+        Set<UUID> viewers = pathViewers.get(pathName);
+        return viewers != null && viewers.contains(playerUUID);
+    }
+
+    /**
+     * Gets the number of players displaying a path.
+     * Served from the reverse viewer index without copying anything.
+     *
+     * @param pathName The name of the path
+     * @return The number of players displaying the path
+     */
+    public int getViewerCount(String pathName) {
+        Set<UUID> viewers = pathViewers.get(pathName);
+        return viewers == null ? 0 : viewers.size();
+    }
+
+    /**
+     * Gets the names of all paths that at least one player is displaying.
+     *
+     * @return A read-only live view of the displayed path names
+     */
+    public Set<String> getDisplayedPathNames() {
+        return Collections.unmodifiableSet(pathViewers.keySet());
+    }
+
+    /**
+     * Gets the players displaying a path.
+     *
+     * @param pathName The name of the path
+     * @return A read-only live view of the viewers' UUIDs, empty if nobody displays the path
+     */
+    public Set<UUID> getPathViewers(String pathName) {
+        Set<UUID> viewers = pathViewers.get(pathName);
+        return viewers == null ? Collections.emptySet() : Collections.unmodifiableSet(viewers);
+    }
+
+    /**
+     * Removes a path from a player's displayed paths, dropping the player's entry when it becomes empty.
+     *
+     * @param playerUUID The UUID of the player
+     * @param pathName The name of the path
+     */
+    private void removeDisplayedPath(UUID playerUUID, String pathName) {
+        Set<String> playerPaths = displayedPaths.get(playerUUID);
+        if (playerPaths == null) {
+            return;
+        }
+
+        playerPaths.remove(pathName);
         if (playerPaths.isEmpty()) {
             displayedPaths.remove(playerUUID);
         }
+    }
 
-        return new Result(true, "Success");
+    /**
+     * Removes a player from a path's viewers, dropping the path's entry when it becomes empty.
+     *
+     * @param pathName The name of the path
+     * @param playerUUID The UUID of the player
+     */
+    private void removeViewer(String pathName, UUID playerUUID) {
+        Set<UUID> viewers = pathViewers.get(pathName);
+        if (viewers == null) {
+            return;
+        }
+
+        viewers.remove(playerUUID);
+        if (viewers.isEmpty()) {
+            pathViewers.remove(pathName);
+        }
     }
 
     /**
@@ -423,12 +1356,17 @@ public class PathRecorder {
             return;
         }
 
+        UUID playerWorldId = player.getWorld().getUID();
         for (String pathName : new HashSet<>(playerPaths)) {
-            Path path = paths.get(pathName);
+            Path path = indexes.paths.get(pathName);
             if (path != null) {
-                path.displayPath(player, path.getDisplayParticle());
+                // Only paths in the player's current world can be seen
+                if (playerWorldId.equals(path.getWorldId())) {
+                    path.displayPath(player, path.getDisplayParticle());
+                }
             } else {
                 playerPaths.remove(pathName);
+                removeViewer(pathName, playerUUID);
             }
         }
     }
@@ -444,8 +1382,8 @@ public class PathRecorder {
         String recordingPathName = trackedPaths.get(playerUUID);
 
         if (recordingPathName != null) {
-            Path recordingPath = paths.get(recordingPathName);
-            if (recordingPath != null) {
+            Path recordingPath = indexes.paths.get(recordingPathName);
+            if (recordingPath != null && player.getWorld().getUID().equals(recordingPath.getWorldId())) {
                 recordingPath.displayPath(player, recordingPath.getDisplayParticle());
             }
         }
@@ -0,0 +1,173 @@
+package se.alvarsjogren.trailTracker;
+
+import com.destroystokyo.paper.ParticleBuilder;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Path-major particle renderer.
+ * Instead of walking every displayed path once per viewer, each displayed path is
+ * walked once per display tick. Every point is matched against a grid of that path's
+ * viewers, and a single particle spawn is sent to all viewers in range of the point.
+ * This scales better than the per-player loop when many players watch the same trail.
+ */
+public class PathRenderer {
+    /** Distance in blocks within which clients render normal particles */
+    private static final double VIEW_DISTANCE = 32.0;
+
+    /** Squared view distance for cheap distance comparisons */
+    private static final double VIEW_DISTANCE_SQUARED = VIEW_DISTANCE * VIEW_DISTANCE;
+
+    /** Reference to the PathRecorder that owns the paths and viewer index */
+    private final PathRecorder pathRecorder;
+
+    /** Reused list of players that receive the current point's particle */
+    private final List<Player> receivers = new ArrayList<>();
+
+    /**
+     * A viewer with its position captured once per display tick.
+     *
+     * @param player The viewing player
+     * @param x The player's X coordinate
+     * @param y The player's Y coordinate
+     * @param z The player's Z coordinate
+     */
+    private record Viewer(Player player, double x, double y, double z) {
+    }
+
+    /**
+     * Creates a new PathRenderer.
+     *
+     * @param pathRecorder The PathRecorder to read paths and viewers from
+     */
+    public PathRenderer(PathRecorder pathRecorder) {
+        this.pathRecorder = pathRecorder;
+    }
+
+    /**
+     * Renders every displayed path to the players displaying it.
+     * Must be called from the main thread, since it reads the positions of all viewers.
+     *
+     * @param server The server, used to resolve viewers and worlds
+     */
+    public void renderAll(Server server) {
+        for (String pathName : pathRecorder.getDisplayedPathNames()) {
+            Path path = pathRecorder.getPath(pathName);
+            if (path == null || !path.isBound()) {
+                continue;
+            }
+
+            World world = server.getWorld(path.getWorldId());
+            if (world == null) {
+                continue;
+            }
+
+            Map<Long, List<Viewer>> grid = buildViewerGrid(server, path, pathRecorder.getPathViewers(pathName));
+            if (!grid.isEmpty()) {
+                renderPath(world, path, grid);
+            }
+        }
+    }
+
+    /**
+     * Buckets the online viewers of a path that are in the path's world by grid cell.
+     * Cells are as wide as the view distance, so a point's viewers are always in the
+     * point's cell or one of its eight neighbours.
+     *
+     * @param server The server, used to resolve viewers
+     * @param path The path being rendered
+     * @param viewerIds The UUIDs of the players displaying the path
+     * @return Viewers by cell key, empty if no viewer can see the path
+     */
+    private Map<Long, List<Viewer>> buildViewerGrid(Server server, Path path, Iterable<UUID> viewerIds) {
+        Map<Long, List<Viewer>> grid = new HashMap<>();
+        for (UUID viewerId : viewerIds) {
+            Player player = server.getPlayer(viewerId);
+            if (player == null || !player.getWorld().getUID().equals(path.getWorldId())) {
+                continue;
+            }
+
+            double x = player.getLocation().getX();
+            double y = player.getLocation().getY();
+            double z = player.getLocation().getZ();
+            grid.computeIfAbsent(cellKey(cell(x), cell(z)), k -> new ArrayList<>(2))
+                    .add(new Viewer(player, x, y, z));
+        }
+        return grid;
+    }
+
+    /**
+     * Walks the points of a path once and sends each point's particle to the viewers in range.
+     *
+     * @param world The path's world
+     * @param path The path to render
+     * @param grid The path's viewers by cell key
+     */
+    private void renderPath(World world, Path path, Map<Long, List<Viewer>> grid) {
+        ParticleBuilder builder = new ParticleBuilder(path.getDisplayParticle()).count(1);
+
+        PointStorage points = path.getTrackedPath();
+        for (int i = 0; i < points.size(); i++) {
+            long point = points.get(i);
+            double x = PointCodec.x(point);
+            double y = PointCodec.y(point);
+            double z = PointCodec.z(point);
+
+            collectReceivers(grid, x, y, z);
+            if (receivers.isEmpty()) {
+                continue;
+            }
+
+            builder.location(world, x, y, z)
+                    .receivers(receivers)
+                    .spawn();
+        }
+        receivers.clear();
+    }
+
+    /**
+     * Fills the receiver list with the viewers within view distance of a point.
+     *
+     * @param grid The viewers by cell key
+     * @param x The X coordinate of the point being rendered
+     * @param y The Y coordinate of the point being rendered
+     * @param z The Z coordinate of the point being rendered
+     */
+    private void collectReceivers(Map<Long, List<Viewer>> grid, double x, double y, double z) {
+        receivers.clear();
+        int cellX = cell(x);
+        int cellZ = cell(z);
+
+        for (int offsetX = -1; offsetX <= 1; offsetX++) {
+            for (int offsetZ = -1; offsetZ <= 1; offsetZ++) {
+                List<Viewer> cellViewers = grid.get(cellKey(cellX + offsetX, cellZ + offsetZ));
+                if (cellViewers == null) {
+                    continue;
+                }
+                for (Viewer viewer : cellViewers) {
+                    double dx = viewer.x() - x;
+                    double dy = viewer.y() - y;
+                    double dz = viewer.z() - z;
+                    if (dx * dx + dy * dy + dz * dz <= VIEW_DISTANCE_SQUARED) {
+                        receivers.add(viewer.player());
+                    }
+                }
+            }
+        }
+    }
+
+    private static int cell(double coordinate) {
+        return (int) Math.floor(coordinate / VIEW_DISTANCE);
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+}
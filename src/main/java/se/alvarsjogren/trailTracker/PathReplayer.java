@@ -0,0 +1,226 @@
+package se.alvarsjogren.trailTracker;
+
+import org.bukkit.entity.Player;
+import se.alvarsjogren.trailTracker.api.PathStatistics;
+import se.alvarsjogren.trailTracker.utilities.TaskScheduler;
+import se.alvarsjogren.trailTracker.utilities.UITextComponents;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Plays recorded paths back as a moving particle "ghost" with /tt replay.
+ * The ghost moves at the speed the path was recorded, using the path's {@link PointTimes}.
+ * Paths recorded without times are replayed at walking speed. Every replay keeps a cursor
+ * into the points and a sequential reader over the times, so each tick only advances past
+ * the points that were reached since the last tick, whatever the length of the path.
+ */
+public class PathReplayer {
+    /** Milliseconds per server tick */
+    private static final long TICK_MILLIS = 50;
+
+    /** Longest pause that is replayed, so a break during recording does not stall the ghost */
+    private static final int MAX_PAUSE_MILLIS = 3000;
+
+    /** Number of points behind the ghost that are drawn as its tail */
+    private static final int TAIL_LENGTH = 4;
+
+    /**
+     * Progress of one replay. Only read and written on the viewer's own thread.
+     */
+    private static final class ReplayState {
+        /** The path being replayed */
+        private final Path path;
+
+        /** Recording times of the path, or null to replay at walking speed */
+        private final PointTimes.Reader times;
+
+        /** Index of the last point the ghost has passed */
+        private int index;
+
+        /** Milliseconds it takes the ghost to travel from the current point to the next */
+        private long currentDelta;
+
+        /** Milliseconds left until the ghost reaches the next point */
+        private long untilNext;
+
+        private ReplayState(Path path, PointTimes.Reader times) {
+            this.path = path;
+            this.times = times;
+        }
+    }
+
+    /** Reference to the main plugin instance */
+    private final TrailTracker plugin;
+
+    /** Reference to the PathRecorder that owns the paths */
+    private final PathRecorder pathRecorder;
+
+    /** Replay state of every watching player */
+    private final Map<UUID, ReplayState> replays = new ConcurrentHashMap<>();
+
+    /** Reference to the scheduled replay task */
+    private TaskScheduler.Task replayTask;
+
+    /**
+     * Creates a new PathReplayer.
+     *
+     * @param plugin The TrailTracker plugin instance
+     * @param pathRecorder The PathRecorder to read paths from
+     */
+    public PathReplayer(TrailTracker plugin, PathRecorder pathRecorder) {
+        this.plugin = plugin;
+        this.pathRecorder = pathRecorder;
+    }
+
+    /**
+     * (Re)starts the replay task, which runs every tick.
+     */
+    void start() {
+        stop();
+        TaskScheduler scheduler = plugin.getTaskScheduler();
+        replayTask = scheduler.runGlobalTimer(() -> {
+            for (UUID playerUUID : replays.keySet()) {
+                Player player = plugin.getServer().getPlayer(playerUUID);
+                if (player != null) {
+                    scheduler.runForEntity(player, () -> tick(player));
+                }
+            }
+        }, 1L, 1L);
+    }
+
+    /**
+     * Stops the replay task.
+     */
+    void stop() {
+        if (replayTask != null && !replayTask.isCancelled()) {
+            replayTask.cancel();
+        }
+    }
+
+    /**
+     * Starts replaying a completed path to a player, replacing any running replay.
+     *
+     * @param player The player who watches the replay
+     * @param pathName The name of the path to replay
+     * @return Result of the operation
+     */
+    public PathRecorder.Result startReplay(Player player, String pathName) {
+        Path path = pathRecorder.getPath(pathName);
+        if (path == null) {
+            return new PathRecorder.Result(false, "There is no path with that name. Use /tt list to see all paths.");
+        }
+        if (pathRecorder.isPathBeingRecorded(pathName)) {
+            return new PathRecorder.Result(false, "The path is still being recorded.");
+        }
+        if (!player.getWorld().getUID().equals(path.getWorldId()) || path.getPointCount() < 2) {
+            return new PathRecorder.Result(false, "That path is not in your world.");
+        }
+
+        PointTimes pointTimes = path.getPointTimes();
+        ReplayState state;
+        synchronized (path) {
+            boolean timed = pointTimes != null && pointTimes.size() == path.getPointCount();
+            state = new ReplayState(path, timed ? pointTimes.reader() : null);
+        }
+        if (state.times != null) {
+            // The first delta belongs to the first point and is always zero
+            state.times.next();
+        }
+        state.currentDelta = nextDelta(state, 1);
+        state.untilNext = state.currentDelta;
+        replays.put(player.getUniqueId(), state);
+        return new PathRecorder.Result(true, "Success");
+    }
+
+    /**
+     * Stops a player's replay.
+     *
+     * @param playerUUID The UUID of the player
+     * @return The name of the path that was being replayed, or null if there was no replay
+     */
+    public String stopReplay(UUID playerUUID) {
+        ReplayState state = replays.remove(playerUUID);
+        return state == null ? null : state.path.getName();
+    }
+
+    /**
+     * Advances a replay by one tick and draws the ghost.
+     * Runs on the viewer's own thread.
+     *
+     * @param player The watching player
+     */
+    private void tick(Player player) {
+        ReplayState state = replays.get(player.getUniqueId());
+        if (state == null) {
+            return;
+        }
+
+        Path path = state.path;
+        if (pathRecorder.getPath(path.getName()) != path) {
+            replays.remove(player.getUniqueId());
+            player.sendMessage(UITextComponents.errorMessage("The path you were replaying is no longer available."));
+            return;
+        }
+        if (!player.getWorld().getUID().equals(path.getWorldId())) {
+            return;
+        }
+
+        PointStorage points = path.getTrackedPath();
+        int lastIndex = points.size() - 1;
+
+        // Move past every point the ghost reached during this tick
+        state.untilNext -= TICK_MILLIS;
+        while (state.untilNext <= 0 && state.index < lastIndex) {
+            state.index++;
+            if (state.index == lastIndex) {
+                break;
+            }
+            state.currentDelta = nextDelta(state, state.index + 1);
+            state.untilNext += state.currentDelta;
+        }
+
+        if (state.index >= lastIndex) {
+            replays.remove(player.getUniqueId());
+            player.sendMessage(UITextComponents.successMessage("Finished replaying", path.getName()));
+            return;
+        }
+
+        // Draw the ghost between the current and the next point
+        long from = points.get(state.index);
+        long to = points.get(state.index + 1);
+        double progress = state.currentDelta <= 0 ? 1 : 1 - (double) state.untilNext / state.currentDelta;
+        progress = Math.max(0, Math.min(1, progress));
+        player.spawnParticle(path.getDisplayParticle(),
+                PointCodec.x(from) + (PointCodec.x(to) - PointCodec.x(from)) * progress,
+                PointCodec.y(from) + (PointCodec.y(to) - PointCodec.y(from)) * progress + 1,
+                PointCodec.z(from) + (PointCodec.z(to) - PointCodec.z(from)) * progress,
+                3);
+
+        for (int i = Math.max(0, state.index - TAIL_LENGTH + 1); i <= state.index; i++) {
+            long point = points.get(i);
+            player.spawnParticle(path.getDisplayParticle(), PointCodec.x(point), PointCodec.y(point) + 1, PointCodec.z(point), 1);
+        }
+    }
+
+    /**
+     * Gets the time it took to travel to a point from the point before it.
+     *
+     * @param state The replay
+     * @param index The index of the point being travelled to
+     * @return The travel time in milliseconds
+     */
+    private static long nextDelta(ReplayState state, int index) {
+        if (state.times != null && state.times.hasNext()) {
+            return Math.min(state.times.next(), MAX_PAUSE_MILLIS);
+        }
+
+        // No recorded time, so assume walking speed
+        PointStorage points = state.path.getTrackedPath();
+        double dx = points.getX(index) - points.getX(index - 1);
+        double dy = points.getY(index) - points.getY(index - 1);
+        double dz = points.getZ(index) - points.getZ(index - 1);
+        return Math.round(Math.sqrt(dx * dx + dy * dy + dz * dz) / PathStatistics.WALKING_SPEED * 1000);
+    }
+}
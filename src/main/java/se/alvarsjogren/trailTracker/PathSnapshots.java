@@ -0,0 +1,86 @@
+package se.alvarsjogren.trailTracker;
+
+import org.bukkit.World;
+import se.alvarsjogren.trailTracker.api.PathInfo;
+import se.alvarsjogren.trailTracker.api.PathStatistics;
+
+import java.util.Date;
+
+/**
+ * Creates {@link PathInfo} snapshots over packed points.
+ * {@link PointStorage} is not part of the API, so the constructor that takes it is
+ * private to PathInfo, which hands it to this class when it is initialized.
+ * Not part of the API.
+ */
+public final class PathSnapshots {
+    /**
+     * Creates a snapshot over packed points.
+     */
+    @FunctionalInterface
+    public interface Factory {
+        /**
+         * Creates a snapshot over packed points.
+         *
+         * @param name The name of the path
+         * @param description The description of the path
+         * @param radius The detection radius for the path
+         * @param creationDate When the path was created
+         * @param createdBy Who created the path
+         * @param points The path's packed points, owned by the snapshot from now on
+         * @param world The path's world, or null if it is not loaded
+         * @param statistics The path's cached statistics
+         * @param revision The revision of the path the snapshot was taken from
+         * @return The snapshot
+         */
+        PathInfo create(String name, String description, int radius, Date creationDate, String createdBy,
+                        PointStorage points, World world, PathStatistics statistics, int revision);
+    }
+
+    /** The factory installed by PathInfo, or null until PathInfo is initialized */
+    private static volatile Factory factory;
+
+    private PathSnapshots() {
+    }
+
+    /**
+     * Installs the factory. Called once by PathInfo when its class is initialized.
+     *
+     * @param installed The factory
+     * @throws IllegalStateException If a factory is already installed
+     */
+    public static synchronized void install(Factory installed) {
+        if (factory != null) {
+            throw new IllegalStateException("The PathInfo factory is already installed");
+        }
+        factory = installed;
+    }
+
+    /**
+     * Creates a snapshot over packed points.
+     *
+     * @param name The name of the path
+     * @param description The description of the path
+     * @param radius The detection radius for the path
+     * @param creationDate When the path was created
+     * @param createdBy Who created the path
+     * @param points The path's packed points, which must not change afterwards
+     * @param world The path's world, or null if it is not loaded
+     * @param statistics The path's cached statistics
+     * @param revision The revision of the path the snapshot was taken from
+     * @return The snapshot
+     */
+    static PathInfo create(String name, String description, int radius, Date creationDate, String createdBy,
+                           PointStorage points, World world, PathStatistics statistics, int revision) {
+        Factory current = factory;
+        if (current == null) {
+            // Initializing PathInfo installs the factory
+            try {
+                Class.forName(PathInfo.class.getName(), true, PathInfo.class.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+            current = factory;
+        }
+        return current.create(name, description, radius, creationDate, createdBy, points, world, statistics, revision);
+    }
+}
@@ -0,0 +1,562 @@
+package se.alvarsjogren.trailTracker;
+
+import org.bukkit.util.BoundingBox;
+import se.alvarsjogren.trailTracker.api.PathHit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Grid of path points per world, used to find paths near a location without
+ * scanning every point of every path.
+ * The world is divided into square columns of {@link #CELL_SIZE} blocks. Each cell
+ * lists, per path, the indexes of the points inside it, so a query only visits the
+ * cells within its search distance. Cells are replaced as whole arrays, which lets
+ * queries run from any thread while paths are added and removed.
+ */
+public class PathSpatialIndex {
+    /** Width of a grid cell in blocks */
+    static final int CELL_SIZE = 16;
+
+    /**
+     * The points of one path that lie in one cell.
+     *
+     * @param path The path
+     * @param pointIndexes The indexes of the points in the cell, in ascending order
+     */
+    private record CellEntry(Path path, int[] pointIndexes) {
+    }
+
+    /**
+     * Where a path is indexed, needed to remove it again.
+     *
+     * @param worldId The world the path was indexed in
+     * @param cellKeys The keys of every cell that holds points of the path
+     * @param radius The detection radius of the path when it was indexed
+     */
+    private record IndexedPath(UUID worldId, long[] cellKeys, int radius) {
+    }
+
+    /**
+     * A place where another path comes close to a path.
+     *
+     * @param other The other path
+     * @param pointIndex The index of the point on the searched path
+     * @param otherPointIndex The index of the closest point on the other path
+     * @param distance The distance between the two points in blocks
+     */
+    public record Contact(Path other, int pointIndex, int otherPointIndex, double distance) {
+    }
+
+    /** Cells of every world by world UID, then by cell key */
+    private final Map<UUID, Map<Long, CellEntry[]>> worlds = new ConcurrentHashMap<>();
+
+    /** Indexed paths by identity */
+    private final Map<Path, IndexedPath> indexedPaths = new ConcurrentHashMap<>();
+
+    /** Largest detection radius of the paths indexed in each world, by world UID */
+    private final Map<UUID, Integer> maxRadii = new ConcurrentHashMap<>();
+
+    /**
+     * Indexes every point of a path, replacing any earlier index of it.
+     * Paths without a bound world or without points are only removed.
+     *
+     * @param path The path to index
+     */
+    public synchronized void add(Path path) {
+        remove(path);
+        UUID worldId = path.getWorldId();
+        PointStorage points = path.getTrackedPath();
+        if (worldId == null || points.isEmpty()) {
+            return;
+        }
+
+        // Group point indexes by cell, in one pass over the points
+        Map<Long, IndexList> byCell = new HashMap<>();
+        for (int i = 0; i < points.size(); i++) {
+            long point = points.get(i);
+            byCell.computeIfAbsent(cellKey(cell(PointCodec.x(point)), cell(PointCodec.z(point))), k -> new IndexList())
+                    .add(i);
+        }
+
+        Map<Long, CellEntry[]> cells = worlds.computeIfAbsent(worldId, k -> new ConcurrentHashMap<>());
+        long[] cellKeys = new long[byCell.size()];
+        int keyCount = 0;
+        for (Map.Entry<Long, IndexList> entry : byCell.entrySet()) {
+            CellEntry added = new CellEntry(path, entry.getValue().toArray());
+            cells.merge(entry.getKey(), new CellEntry[]{added}, (existing, single) -> {
+                CellEntry[] grown = Arrays.copyOf(existing, existing.length + 1);
+                grown[existing.length] = added;
+                return grown;
+            });
+            cellKeys[keyCount++] = entry.getKey();
+        }
+        int radius = path.getRadius();
+        indexedPaths.put(path, new IndexedPath(worldId, cellKeys, radius));
+        maxRadii.merge(worldId, radius, Math::max);
+    }
+
+    /**
+     * Removes every point of a path from the index.
+     *
+     * @param path The path to remove
+     */
+    public synchronized void remove(Path path) {
+        IndexedPath indexed = indexedPaths.remove(path);
+        if (indexed == null) {
+            return;
+        }
+        Map<Long, CellEntry[]> cells = worlds.get(indexed.worldId());
+        if (cells == null) {
+            return;
+        }
+        for (long cellKey : indexed.cellKeys()) {
+            cells.computeIfPresent(cellKey, (key, existing) -> {
+                CellEntry[] kept = Arrays.stream(existing)
+                        .filter(entry -> entry.path() != path)
+                        .toArray(CellEntry[]::new);
+                return kept.length == 0 ? null : kept;
+            });
+        }
+        if (cells.isEmpty()) {
+            worlds.remove(indexed.worldId());
+        }
+        if (indexed.radius() >= maxRadii.getOrDefault(indexed.worldId(), -1)) {
+            recomputeMaxRadius(indexed.worldId());
+        }
+    }
+
+    /**
+     * Updates the detection radius of an indexed path after it was changed.
+     *
+     * @param path The path whose radius changed
+     */
+    public synchronized void updateRadius(Path path) {
+        IndexedPath indexed = indexedPaths.get(path);
+        if (indexed == null || indexed.radius() == path.getRadius()) {
+            return;
+        }
+        indexedPaths.put(path, new IndexedPath(indexed.worldId(), indexed.cellKeys(), path.getRadius()));
+        if (path.getRadius() > indexed.radius()) {
+            maxRadii.merge(indexed.worldId(), path.getRadius(), Math::max);
+        } else {
+            recomputeMaxRadius(indexed.worldId());
+        }
+    }
+
+    /**
+     * Gets the largest detection radius of the paths indexed in a world.
+     * Kept up to date as paths are added, removed and changed, so a lookup does
+     * not visit the paths.
+     *
+     * @param worldId The UID of the world
+     * @return The largest radius, or -1 if no path is indexed in the world
+     */
+    public int getMaxRadius(UUID worldId) {
+        return maxRadii.getOrDefault(worldId, -1);
+    }
+
+    /**
+     * Recomputes the largest radius of a world after the path that had it was
+     * removed or shrunk. Visits every indexed path, which only happens on such edits.
+     *
+     * @param worldId The UID of the world
+     */
+    private void recomputeMaxRadius(UUID worldId) {
+        int maxRadius = -1;
+        for (IndexedPath indexed : indexedPaths.values()) {
+            if (indexed.worldId().equals(worldId)) {
+                maxRadius = Math.max(maxRadius, indexed.radius());
+            }
+        }
+        if (maxRadius < 0) {
+            maxRadii.remove(worldId);
+        } else {
+            maxRadii.put(worldId, maxRadius);
+        }
+    }
+
+    /**
+     * Removes the points of a path from an index onwards, after its end was cut off.
+     * The points before the cut keep their indexes, so only the cells that hold
+     * removed points are replaced.
+     *
+     * @param path The path that was cut
+     * @param pointCount The number of points the path kept
+     */
+    public synchronized void truncate(Path path, int pointCount) {
+        IndexedPath indexed = indexedPaths.get(path);
+        Map<Long, CellEntry[]> cells = indexed == null ? null : worlds.get(indexed.worldId());
+        if (cells == null) {
+            return;
+        }
+
+        long[] keptKeys = new long[indexed.cellKeys().length];
+        int keptCount = 0;
+        for (long cellKey : indexed.cellKeys()) {
+            int[] indexes = indexesOf(cells.get(cellKey), path);
+            if (indexes == null) {
+                continue;
+            }
+            if (indexes[indexes.length - 1] < pointCount) {
+                keptKeys[keptCount++] = cellKey;
+                continue;
+            }
+
+            int position = Arrays.binarySearch(indexes, pointCount);
+            int[] kept = Arrays.copyOf(indexes, position < 0 ? -position - 1 : position);
+            cells.computeIfPresent(cellKey, (key, existing) -> {
+                CellEntry[] replaced = Arrays.stream(existing)
+                        .map(entry -> entry.path() != path ? entry : kept.length == 0 ? null : new CellEntry(path, kept))
+                        .filter(Objects::nonNull)
+                        .toArray(CellEntry[]::new);
+                return replaced.length == 0 ? null : replaced;
+            });
+            if (kept.length > 0) {
+                keptKeys[keptCount++] = cellKey;
+            }
+        }
+        if (cells.isEmpty()) {
+            worlds.remove(indexed.worldId());
+        }
+        indexedPaths.put(path, new IndexedPath(indexed.worldId(), Arrays.copyOf(keptKeys, keptCount), indexed.radius()));
+    }
+
+    /**
+     * Removes every path indexed in a world, for example when the world unloads.
+     *
+     * @param worldId The UID of the world
+     */
+    public synchronized void removeWorld(UUID worldId) {
+        worlds.remove(worldId);
+        indexedPaths.values().removeIf(indexed -> indexed.worldId().equals(worldId));
+        maxRadii.remove(worldId);
+    }
+
+    /**
+     * Finds the closest point of any matching path within a distance.
+     *
+     * @param worldId The UID of the world to search
+     * @param x The X coordinate to search from
+     * @param y The Y coordinate to search from
+     * @param z The Z coordinate to search from
+     * @param maxDistance The largest distance to consider, in blocks
+     * @param filter Paths to consider
+     * @return The closest point, or null if no point is close enough
+     */
+    public PathHit findNearest(UUID worldId, double x, double y, double z, double maxDistance, Predicate<Path> filter) {
+        return nearest(worldId, x, y, z, maxDistance, filter, false);
+    }
+
+    /**
+     * Finds the closest point that is within the detection radius of its own path.
+     * Used to decide which path a player is on.
+     *
+     * @param worldId The UID of the world to search
+     * @param x The X coordinate to search from
+     * @param y The Y coordinate to search from
+     * @param z The Z coordinate to search from
+     * @param maxRadius The largest detection radius of any path that may match
+     * @param filter Paths to consider
+     * @return The closest point within its path's radius, or null if there is none
+     */
+    public PathHit findWithinRadius(UUID worldId, double x, double y, double z, double maxRadius, Predicate<Path> filter) {
+        return nearest(worldId, x, y, z, maxRadius, filter, true);
+    }
+
+    private PathHit nearest(UUID worldId, double x, double y, double z, double maxDistance,
+                            Predicate<Path> filter, boolean withinPathRadius) {
+        Map<Long, CellEntry[]> cells = worlds.get(worldId);
+        // Also rejects NaN, which fails every comparison
+        if (cells == null || !(maxDistance >= 0)) {
+            return null;
+        }
+
+        NearestSearch search = new NearestSearch(x, y, z, maxDistance, filter, withinPathRadius);
+        int minCellX = cell(x - maxDistance), maxCellX = cell(x + maxDistance);
+        int minCellZ = cell(z - maxDistance), maxCellZ = cell(z + maxDistance);
+        if (coversMoreThanOccupied(minCellX, maxCellX, minCellZ, maxCellZ, cells.size())) {
+            // The square covers more cells than are occupied, so visit the occupied ones instead
+            for (Map.Entry<Long, CellEntry[]> cell : cells.entrySet()) {
+                int cellX = (int) (cell.getKey() >> 32);
+                int cellZ = (int) (long) cell.getKey();
+                if (cellX >= minCellX && cellX <= maxCellX && cellZ >= minCellZ && cellZ <= maxCellZ) {
+                    search.visit(cell.getValue());
+                }
+            }
+        } else {
+            // Long counters, since the range may end at Integer.MAX_VALUE
+            for (long cellX = minCellX; cellX <= maxCellX; cellX++) {
+                for (long cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                    CellEntry[] entries = cells.get(cellKey((int) cellX, (int) cellZ));
+                    if (entries != null) {
+                        search.visit(entries);
+                    }
+                }
+            }
+        }
+        return search.result();
+    }
+
+    /**
+     * Checks if a range of cells holds more cells than are occupied, in which case
+     * visiting the occupied cells is cheaper than looking up every cell of the range.
+     * Each side is checked first, so the area of a huge range cannot overflow.
+     */
+    private static boolean coversMoreThanOccupied(int minCellX, int maxCellX, int minCellZ, int maxCellZ, int occupied) {
+        long width = (long) maxCellX - minCellX + 1;
+        long depth = (long) maxCellZ - minCellZ + 1;
+        return width > occupied || depth > occupied || width * depth > occupied;
+    }
+
+    /**
+     * State of a search for the closest point, updated cell by cell.
+     */
+    private static final class NearestSearch {
+        private final double x, y, z;
+        private final Predicate<Path> filter;
+        private final boolean withinPathRadius;
+        private Path bestPath;
+        private int bestIndex = -1;
+        private double bestDistanceSquared;
+
+        NearestSearch(double x, double y, double z, double maxDistance, Predicate<Path> filter, boolean withinPathRadius) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.filter = filter;
+            this.withinPathRadius = withinPathRadius;
+            this.bestDistanceSquared = maxDistance * maxDistance;
+        }
+
+        void visit(CellEntry[] entries) {
+            for (CellEntry entry : entries) {
+                Path path = entry.path();
+                if (!filter.test(path)) {
+                    continue;
+                }
+                double limitSquared = bestDistanceSquared;
+                if (withinPathRadius) {
+                    limitSquared = Math.min(limitSquared, (double) path.getRadius() * path.getRadius());
+                }
+                PointStorage points = path.getTrackedPath();
+                for (int index : entry.pointIndexes()) {
+                    if (index >= points.size()) {
+                        break;
+                    }
+                    double distanceSquared = PointCodec.distanceSquared(points.get(index), x, y, z);
+                    if (distanceSquared <= limitSquared) {
+                        bestPath = path;
+                        bestIndex = index;
+                        bestDistanceSquared = distanceSquared;
+                        limitSquared = distanceSquared;
+                    }
+                }
+            }
+        }
+
+        PathHit result() {
+            return bestPath == null ? null : new PathHit(bestPath.getName(), bestIndex, Math.sqrt(bestDistanceSquared));
+        }
+    }
+
+    /**
+     * Finds the paths with at least one point inside an area.
+     * For each path, the point closest to the centre of the area is returned.
+     *
+     * @param worldId The UID of the world to search
+     * @param bounds The area to search
+     * @param filter Paths to consider
+     * @return One result per matching path, in no particular order
+     */
+    public List<PathHit> findIntersecting(UUID worldId, BoundingBox bounds, Predicate<Path> filter) {
+        Map<Long, CellEntry[]> cells = worlds.get(worldId);
+        if (cells == null) {
+            return List.of();
+        }
+
+        double centerX = (bounds.getMinX() + bounds.getMaxX()) / 2;
+        double centerY = (bounds.getMinY() + bounds.getMaxY()) / 2;
+        double centerZ = (bounds.getMinZ() + bounds.getMaxZ()) / 2;
+        Map<Path, PathHit> hits = new HashMap<>();
+
+        int minCellX = cell(bounds.getMinX()), maxCellX = cell(bounds.getMaxX());
+        int minCellZ = cell(bounds.getMinZ()), maxCellZ = cell(bounds.getMaxZ());
+        if (coversMoreThanOccupied(minCellX, maxCellX, minCellZ, maxCellZ, cells.size())) {
+            // The area covers more cells than are occupied, so visit the occupied ones instead
+            for (Map.Entry<Long, CellEntry[]> cell : cells.entrySet()) {
+                int cellX = (int) (cell.getKey() >> 32);
+                int cellZ = (int) (long) cell.getKey();
+                if (cellX >= minCellX && cellX <= maxCellX && cellZ >= minCellZ && cellZ <= maxCellZ) {
+                    collectInside(cell.getValue(), bounds, centerX, centerY, centerZ, filter, hits);
+                }
+            }
+        } else {
+            for (long cellX = minCellX; cellX <= maxCellX; cellX++) {
+                for (long cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                    CellEntry[] entries = cells.get(cellKey((int) cellX, (int) cellZ));
+                    if (entries != null) {
+                        collectInside(entries, bounds, centerX, centerY, centerZ, filter, hits);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(hits.values());
+    }
+
+    private static void collectInside(CellEntry[] entries, BoundingBox bounds,
+                                      double centerX, double centerY, double centerZ,
+                                      Predicate<Path> filter, Map<Path, PathHit> hits) {
+        for (CellEntry entry : entries) {
+            Path path = entry.path();
+            if (!filter.test(path)) {
+                continue;
+            }
+            PointStorage points = path.getTrackedPath();
+            PathHit best = hits.get(path);
+            for (int index : entry.pointIndexes()) {
+                if (index >= points.size()) {
+                    break;
+                }
+                long point = points.get(index);
+                if (!bounds.contains(PointCodec.x(point), PointCodec.y(point), PointCodec.z(point))) {
+                    continue;
+                }
+                double distance = Math.sqrt(PointCodec.distanceSquared(point, centerX, centerY, centerZ));
+                if (best == null || distance < best.distance()) {
+                    best = new PathHit(path.getName(), index, distance);
+                }
+            }
+            if (best != null) {
+                hits.put(path, best);
+            }
+        }
+    }
+
+    /**
+     * Finds where other paths come within reach of a path.
+     * For every cell of the path and every other path nearby, the closest pair of points
+     * is reported if they are within the larger detection radius of the two paths.
+     * Only the cells around the path are visited.
+     *
+     * @param path The path to search around, which must be indexed
+     * @param maxRadius The largest detection radius of any path that may match
+     * @param filter Other paths to consider
+     * @return The contacts, at most one per cell of the path and other path
+     */
+    public List<Contact> findContacts(Path path, double maxRadius, Predicate<Path> filter) {
+        IndexedPath indexed = indexedPaths.get(path);
+        Map<Long, CellEntry[]> cells = indexed == null ? null : worlds.get(indexed.worldId());
+        if (cells == null) {
+            return List.of();
+        }
+
+        List<Contact> contacts = new ArrayList<>();
+        PointStorage points = path.getTrackedPath();
+        int reach = (int) Math.ceil(maxRadius / CELL_SIZE);
+        Map<Path, Contact> cellContacts = new HashMap<>();
+        for (long key : indexed.cellKeys()) {
+            int[] ownIndexes = indexesOf(cells.get(key), path);
+            if (ownIndexes == null) {
+                continue;
+            }
+
+            int cellX = (int) (key >> 32);
+            int cellZ = (int) key;
+            cellContacts.clear();
+            for (int x = cellX - reach; x <= cellX + reach; x++) {
+                for (int z = cellZ - reach; z <= cellZ + reach; z++) {
+                    CellEntry[] entries = cells.get(cellKey(x, z));
+                    if (entries == null) {
+                        continue;
+                    }
+                    for (CellEntry entry : entries) {
+                        if (entry.path() != path && filter.test(entry.path())) {
+                            closestPair(path, points, ownIndexes, entry, cellContacts);
+                        }
+                    }
+                }
+            }
+            contacts.addAll(cellContacts.values());
+        }
+        return contacts;
+    }
+
+    private static int[] indexesOf(CellEntry[] entries, Path path) {
+        if (entries != null) {
+            for (CellEntry entry : entries) {
+                if (entry.path() == path) {
+                    return entry.pointIndexes();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Updates the closest contact with another path's points in one cell.
+     */
+    private static void closestPair(Path path, PointStorage points, int[] ownIndexes,
+                                    CellEntry entry, Map<Path, Contact> cellContacts) {
+        Path other = entry.path();
+        PointStorage otherPoints = other.getTrackedPath();
+        double limit = Math.max(path.getRadius(), other.getRadius());
+        Contact best = cellContacts.get(other);
+        double bestDistanceSquared = best == null ? limit * limit : best.distance() * best.distance();
+
+        for (int otherIndex : entry.pointIndexes()) {
+            if (otherIndex >= otherPoints.size()) {
+                break;
+            }
+            long otherPoint = otherPoints.get(otherIndex);
+            double x = PointCodec.x(otherPoint), y = PointCodec.y(otherPoint), z = PointCodec.z(otherPoint);
+            for (int index : ownIndexes) {
+                if (index >= points.size()) {
+                    break;
+                }
+                double distanceSquared = PointCodec.distanceSquared(points.get(index), x, y, z);
+                if (distanceSquared <= bestDistanceSquared) {
+                    bestDistanceSquared = distanceSquared;
+                    best = new Contact(other, index, otherIndex, Math.sqrt(distanceSquared));
+                }
+            }
+        }
+        if (best != null) {
+            cellContacts.put(other, best);
+        }
+    }
+
+    private static int cell(double coordinate) {
+        return (int) Math.floor(coordinate / CELL_SIZE);
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Growable list of point indexes, used while a path is being indexed.
+     */
+    private static class IndexList {
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
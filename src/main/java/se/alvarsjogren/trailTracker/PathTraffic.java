@@ -0,0 +1,398 @@
+package se.alvarsjogren.trailTracker;
+
+import org.bukkit.Color;
+import org.bukkit.Particle;
+import org.bukkit.entity.Player;
+import se.alvarsjogren.trailTracker.utilities.TaskScheduler;
+import se.alvarsjogren.trailTracker.utilities.UITextComponents;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Counts how often players pass each point of a completed path, and shows the
+ * counts as a heatmap with /tt heatmap.
+ * Counting is opt-in with the traffic-tracking option. Every counted path has an
+ * {@link AtomicIntegerArray} aligned with its points, so counting a player from the
+ * move event is a single lock-free increment. Stored counts are read in the background
+ * the first time a path is counted or viewed, and changed counts are written by the
+ * {@link se.alvarsjogren.trailTracker.utilities.StorageManager} on every save.
+ */
+public class PathTraffic {
+    /** Number of colors in the heatmap, including the color of untravelled points */
+    private static final int HEAT_LEVELS = 9;
+
+    /** Color of points nobody has passed */
+    private static final int COLD_COLOR = 0x6B6B6B;
+
+    /** Colors the heatmap blends between, from least to most travelled */
+    private static final int[] HEAT_COLORS = {0xF5C45E, 0xE78B48, 0xBE3D2A};
+
+    /**
+     * Traffic counts of a single path.
+     */
+    private static final class Counts {
+        /** One count per path point */
+        private final AtomicIntegerArray counts;
+
+        /** Whether the stored counts have been added, so the counts may be written */
+        private volatile boolean loaded;
+
+        /** Whether the counts changed since they were last taken for saving */
+        private volatile boolean dirty;
+
+        /** Identifies the counts across copies made when they grow, so stored counts are only added to the counts they were read for */
+        private final Object origin;
+
+        private Counts(int length, Object origin) {
+            this.counts = new AtomicIntegerArray(length);
+            this.origin = origin;
+        }
+    }
+
+    /** Reference to the main plugin instance */
+    private final TrailTracker plugin;
+
+    /** Reference to the PathRecorder that owns the paths */
+    private final PathRecorder pathRecorder;
+
+    /** Traffic counts of every path that has been counted or viewed, by path name */
+    private final Map<String, Counts> trafficByPath = new ConcurrentHashMap<>();
+
+    /** Maps player UUIDs to the path whose heatmap they are viewing */
+    private final Map<UUID, String> heatmapViewers = new ConcurrentHashMap<>();
+
+    /** Particle data for each heat level, from untravelled to most travelled */
+    private final Particle.DustOptions[] heatLevels = new Particle.DustOptions[HEAT_LEVELS];
+
+    /** Whether player traffic is counted */
+    private volatile boolean enabled;
+
+    /** Reference to the scheduled heatmap display task */
+    private TaskScheduler.Task heatmapTask;
+
+    /**
+     * Creates a new PathTraffic.
+     *
+     * @param plugin The TrailTracker plugin instance
+     * @param pathRecorder The PathRecorder to read paths from
+     */
+    public PathTraffic(TrailTracker plugin, PathRecorder pathRecorder) {
+        this.plugin = plugin;
+        this.pathRecorder = pathRecorder;
+
+        heatLevels[0] = new Particle.DustOptions(Color.fromRGB(COLD_COLOR), 1.0f);
+        for (int level = 1; level < HEAT_LEVELS; level++) {
+            double position = (double) (level - 1) / (HEAT_LEVELS - 2) * (HEAT_COLORS.length - 1);
+            int stop = Math.min((int) position, HEAT_COLORS.length - 2);
+            heatLevels[level] = new Particle.DustOptions(
+                    Color.fromRGB(blend(HEAT_COLORS[stop], HEAT_COLORS[stop + 1], position - stop)), 1.2f);
+        }
+    }
+
+    private static int blend(int from, int to, double amount) {
+        int red = (int) Math.round(((from >> 16) & 0xFF) + (((to >> 16) & 0xFF) - ((from >> 16) & 0xFF)) * amount);
+        int green = (int) Math.round(((from >> 8) & 0xFF) + (((to >> 8) & 0xFF) - ((from >> 8) & 0xFF)) * amount);
+        int blue = (int) Math.round((from & 0xFF) + ((to & 0xFF) - (from & 0xFF)) * amount);
+        return (red << 16) | (green << 8) | blue;
+    }
+
+    /**
+     * Loads the traffic settings and (re)starts the heatmap display task.
+     *
+     * @param periodTicks How often heatmaps are drawn, in ticks
+     */
+    void start(int periodTicks) {
+        stop();
+        enabled = plugin.getConfig().getBoolean("traffic-tracking", false);
+
+        TaskScheduler scheduler = plugin.getTaskScheduler();
+        heatmapTask = scheduler.runGlobalTimer(() -> {
+            for (UUID playerUUID : heatmapViewers.keySet()) {
+                Player player = plugin.getServer().getPlayer(playerUUID);
+                if (player != null) {
+                    scheduler.runForEntity(player, () -> displayHeatmap(player));
+                }
+            }
+        }, 20L, Math.max(1, periodTicks));
+    }
+
+    /**
+     * Stops the heatmap display task.
+     */
+    void stop() {
+        if (heatmapTask != null && !heatmapTask.isCancelled()) {
+            heatmapTask.cancel();
+        }
+    }
+
+    /**
+     * Checks if player traffic is counted.
+     *
+     * @return true if the traffic-tracking option is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Counts a player passing a point of a path.
+     * Does nothing unless traffic tracking is enabled.
+     *
+     * @param path The path the player is on
+     * @param pointIndex The index of the point the player is at
+     */
+    public void record(Path path, int pointIndex) {
+        if (!enabled) {
+            return;
+        }
+
+        Counts counts = getCounts(path);
+        if (pointIndex >= 0 && pointIndex < counts.counts.length()) {
+            counts.counts.incrementAndGet(pointIndex);
+            counts.dirty = true;
+        }
+    }
+
+    /**
+     * Gets the counts of a path, creating them on first use.
+     * New counts start reading the stored counts in the background. Counts are
+     * replaced by a larger copy if the path has grown; increments that race with
+     * the copy may be lost, which is acceptable for traffic statistics.
+     *
+     * @param path The path
+     * @return The counts, with at least one entry per point of the path
+     */
+    private Counts getCounts(Path path) {
+        String pathName = path.getName();
+        int pointCount = path.getPointCount();
+        Counts counts = trafficByPath.get(pathName);
+        if (counts != null && counts.counts.length() >= pointCount) {
+            return counts;
+        }
+
+        boolean[] created = new boolean[1];
+        counts = trafficByPath.compute(pathName, (key, existing) -> {
+            if (existing != null && existing.counts.length() >= pointCount) {
+                return existing;
+            }
+
+            Counts grown = new Counts(pointCount, existing != null ? existing.origin : new Object());
+            if (existing != null) {
+                for (int i = 0; i < existing.counts.length(); i++) {
+                    grown.counts.set(i, existing.counts.get(i));
+                }
+                grown.loaded = existing.loaded;
+                grown.dirty = existing.dirty;
+            } else {
+                created[0] = true;
+            }
+            return grown;
+        });
+
+        if (created[0]) {
+            loadStoredCounts(pathName, pathName, counts.origin, 0, Integer.MAX_VALUE, false);
+        }
+        return counts;
+    }
+
+    /**
+     * Adds the stored counts of a range of a path's points to the counts collected
+     * since the counts were created. If the stored counts cannot be read the counts
+     * are never written, so they cannot replace the stored counts.
+     *
+     * @param storedName The name of the path whose stored counts are read
+     * @param pathName The name of the path whose counts are added to
+     * @param origin The origin of the counts that are added to
+     * @param from The index of the first stored count to add
+     * @param to The index after the last stored count to add
+     * @param reversed Whether the range is added in reverse order
+     */
+    private void loadStoredCounts(String storedName, String pathName, Object origin, int from, int to, boolean reversed) {
+        plugin.getStorageManager().getStore().loadTraffic(storedName).thenAccept(stored ->
+                trafficByPath.computeIfPresent(pathName, (key, counts) -> {
+                    // Counts that were reset or replaced meanwhile no longer line up with the stored counts
+                    if (counts.origin != origin || counts.loaded) {
+                        return counts;
+                    }
+                    if (stored != null) {
+                        int length = Math.min(Math.min(stored.length, to) - from, counts.counts.length());
+                        for (int i = 0; i < length; i++) {
+                            counts.counts.addAndGet(reversed ? to - from - 1 - i : i, stored[from + i]);
+                        }
+                    }
+                    counts.loaded = true;
+                    return counts;
+                })
+        ).exceptionally(e -> {
+            plugin.getLogger().warning("Failed to load traffic of path " + storedName + " - Error: " + e.getMessage());
+            return null;
+        });
+    }
+
+    /**
+     * Takes a copy of every path's counts that changed since they were last taken.
+     * Called by the StorageManager when saving.
+     *
+     * @return The changed counts by path name
+     */
+    public Map<String, int[]> takeChangedCounts() {
+        Map<String, int[]> changed = new HashMap<>();
+        for (Map.Entry<String, Counts> entry : trafficByPath.entrySet()) {
+            Counts counts = entry.getValue();
+            if (!counts.loaded || !counts.dirty) {
+                continue;
+            }
+
+            // Cleared before copying, so increments made during the copy are saved next time
+            counts.dirty = false;
+            int[] copy = new int[counts.counts.length()];
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = counts.counts.get(i);
+            }
+            changed.put(entry.getKey(), copy);
+        }
+        return changed;
+    }
+
+    /**
+     * Marks the counts of a path as changed again, for example after a failed write.
+     *
+     * @param pathName The name of the path
+     */
+    public void markChanged(String pathName) {
+        Counts counts = trafficByPath.get(pathName);
+        if (counts != null) {
+            counts.dirty = true;
+        }
+    }
+
+    /**
+     * Starts the counts of a path over after its points were replaced, since the old
+     * counts no longer line up with the points. The stored counts are replaced on the next save.
+     *
+     * @param path The path whose points were replaced
+     */
+    public void resetPath(Path path) {
+        Counts counts = new Counts(path.getPointCount(), new Object());
+        counts.loaded = true;
+        counts.dirty = true;
+        trafficByPath.put(path.getName(), counts);
+    }
+
+    /**
+     * Carries the counts of a range of points over to the path that holds that range
+     * now, after a path was trimmed, split or reversed. Stored counts that were not read
+     * yet are read and carried over in the background.
+     * The stored counts of the target are replaced on the next save.
+     *
+     * @param sourceName The name of the path the points came from
+     * @param target The path that holds the range now, which may be the source itself
+     * @param from The index of the first point of the range in the source
+     * @param to The index after the last point of the range in the source
+     * @param reversed Whether the range is in reverse order in the target
+     */
+    public void remapPath(String sourceName, Path target, int from, int to, boolean reversed) {
+        Counts source = trafficByPath.get(sourceName);
+        Counts counts = new Counts(to - from, new Object());
+        if (source != null) {
+            int length = Math.min(to, source.counts.length()) - from;
+            for (int i = 0; i < length; i++) {
+                counts.counts.set(reversed ? to - from - 1 - i : i, source.counts.get(from + i));
+            }
+        }
+        counts.loaded = source != null && source.loaded;
+        counts.dirty = true;
+        trafficByPath.put(target.getName(), counts);
+
+        if (!counts.loaded) {
+            loadStoredCounts(sourceName, target.getName(), counts.origin, from, to, reversed);
+        }
+    }
+
+    /**
+     * Forgets the counts of a removed path.
+     * The stored counts are removed together with the stored path.
+     *
+     * @param pathName The name of the path
+     */
+    public void removePath(String pathName) {
+        trafficByPath.remove(pathName);
+        heatmapViewers.values().removeIf(pathName::equals);
+    }
+
+    /**
+     * Starts showing the heatmap of a completed path to a player.
+     *
+     * @param player The player
+     * @param pathName The name of the path
+     * @return Result of the operation
+     */
+    public PathRecorder.Result startViewing(Player player, String pathName) {
+        Path path = pathRecorder.getPath(pathName);
+        if (path == null) {
+            return new PathRecorder.Result(false, "There is no path with that name. Use /tt list to see all paths.");
+        }
+        if (pathRecorder.isPathBeingRecorded(pathName)) {
+            return new PathRecorder.Result(false, "The path is still being recorded.");
+        }
+
+        getCounts(path);
+        heatmapViewers.put(player.getUniqueId(), pathName);
+        return new PathRecorder.Result(true, "Success");
+    }
+
+    /**
+     * Stops showing a heatmap to a player.
+     *
+     * @param playerUUID The UUID of the player
+     * @return The name of the path whose heatmap was shown, or null if none was
+     */
+    public String stopViewing(UUID playerUUID) {
+        return heatmapViewers.remove(playerUUID);
+    }
+
+    /**
+     * Draws the heatmap a player is viewing, coloring every point by how often it was
+     * passed relative to the most travelled point of the path.
+     * Runs on the player's own thread.
+     *
+     * @param player The viewing player
+     */
+    private void displayHeatmap(Player player) {
+        String pathName = heatmapViewers.get(player.getUniqueId());
+        if (pathName == null) {
+            return;
+        }
+
+        Path path = pathRecorder.getPath(pathName);
+        if (path == null) {
+            heatmapViewers.remove(player.getUniqueId());
+            player.sendMessage(UITextComponents.errorMessage("The path whose heatmap you were viewing is no longer available."));
+            return;
+        }
+        if (!player.getWorld().getUID().equals(path.getWorldId())) {
+            return;
+        }
+
+        AtomicIntegerArray counts = getCounts(path).counts;
+        PointStorage points = path.getTrackedPath();
+        int pointCount = Math.min(points.size(), counts.length());
+
+        int maxCount = 0;
+        for (int i = 0; i < pointCount; i++) {
+            maxCount = Math.max(maxCount, counts.get(i));
+        }
+
+        for (int i = 0; i < pointCount; i++) {
+            int count = counts.get(i);
+            int level = count <= 0 ? 0 : Math.max(1, (int) ((long) count * (HEAT_LEVELS - 1) / maxCount));
+            long point = points.get(i);
+            player.spawnParticle(Particle.DUST, PointCodec.x(point), PointCodec.y(point), PointCodec.z(point),
+                    1, 0, 0, 0, 0, heatLevels[level]);
+        }
+    }
+}
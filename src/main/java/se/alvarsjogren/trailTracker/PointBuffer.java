@@ -0,0 +1,136 @@
+package se.alvarsjogren.trailTracker;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of packed path points backed by a primitive {@code long} array.
+ * Each point takes eight bytes and no object header; coordinates are only decoded
+ * when they are read. See {@link PointCodec} for the packed format.
+ *
+ * <p>Not thread-safe. Writers synchronize on the owning {@link Path}.</p>
+ */
+public class PointBuffer implements PointStorage {
+    /** Capacity allocated on the first append */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Packed points; only the first {@link #size} entries are used */
+    private long[] points;
+
+    /** Number of points in the buffer */
+    private int size;
+
+    /**
+     * Creates an empty buffer.
+     */
+    public PointBuffer() {
+        this.points = new long[0];
+    }
+
+    /**
+     * Creates a buffer holding a copy of the given points.
+     *
+     * @param source The points to copy
+     */
+    public PointBuffer(PointStorage source) {
+        this(source, 0, source.size());
+    }
+
+    /**
+     * Creates a buffer holding a copy of a range of the given points.
+     * Ranges of another buffer are copied with a single array copy.
+     *
+     * @param source The points to copy
+     * @param from The index of the first point to copy
+     * @param to The index after the last point to copy
+     * @throws IndexOutOfBoundsException If the range is outside the source
+     */
+    public PointBuffer(PointStorage source, int from, int to) {
+        if (from < 0 || to > source.size() || from > to) {
+            throw new IndexOutOfBoundsException("Range " + from + " to " + to + " out of bounds for size " + source.size());
+        }
+        this.size = to - from;
+        if (source instanceof PointBuffer buffer) {
+            this.points = Arrays.copyOfRange(buffer.points, from, to);
+        } else {
+            this.points = new long[size];
+            for (int i = 0; i < size; i++) {
+                points[i] = source.get(from + i);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return points[index];
+    }
+
+    /**
+     * Appends a packed point to the end of the buffer.
+     *
+     * @param packedPoint The packed point
+     */
+    public void add(long packedPoint) {
+        if (size == points.length) {
+            points = Arrays.copyOf(points, Math.max(INITIAL_CAPACITY, size + (size >> 1)));
+        }
+        points[size++] = packedPoint;
+    }
+
+    @Override
+    public PointBuffer slice(int from, int to) {
+        return new PointBuffer(this, from, to);
+    }
+
+    /**
+     * Removes the points from an index onwards, keeping the backing array.
+     *
+     * @param newSize The number of points to keep
+     * @throws IndexOutOfBoundsException If the buffer holds fewer points
+     */
+    public void truncate(int newSize) {
+        if (newSize < 0 || newSize > size) {
+            throw new IndexOutOfBoundsException("Size " + newSize + " out of bounds for size " + size);
+        }
+        size = newSize;
+    }
+
+    /**
+     * Copies the points in reverse order.
+     *
+     * @return A new buffer with the last point first
+     */
+    public PointBuffer reversed() {
+        PointBuffer reversed = new PointBuffer();
+        reversed.points = new long[size];
+        reversed.size = size;
+        for (int i = 0; i < size; i++) {
+            reversed.points[i] = points[size - 1 - i];
+        }
+        return reversed;
+    }
+
+    /**
+     * Removes all points and releases the backing array.
+     */
+    public void clear() {
+        points = new long[0];
+        size = 0;
+    }
+
+    /**
+     * Copies the used part of the buffer.
+     *
+     * @return A new array with exactly {@link #size()} packed points
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(points, size);
+    }
+}
@@ -0,0 +1,120 @@
+package se.alvarsjogren.trailTracker;
+
+/**
+ * Packs path point coordinates into a single {@code long}.
+ * Points are recorded at block centres, so coordinates are stored in half-block units:
+ * block coordinates plus a one-bit sub-block fraction per axis.
+ *
+ * <p>Bit layout, from the most significant bit:</p>
+ * <ul>
+ *     <li>27 bits: X in half blocks, signed (covers the whole world border)</li>
+ *     <li>27 bits: Z in half blocks, signed (covers the whole world border)</li>
+ *     <li>10 bits: Y in half blocks above {@link #MIN_Y}, unsigned (Y -64 to 447.5)</li>
+ * </ul>
+ */
+public final class PointCodec {
+    /** Number of units per block along each axis */
+    private static final double UNITS_PER_BLOCK = 2.0;
+
+    /** Lowest Y coordinate that can be stored */
+    public static final double MIN_Y = -64.0;
+
+    private static final int Y_BITS = 10;
+    private static final int Z_BITS = 27;
+    private static final int XZ_BITS = 27;
+
+    private static final long Y_MASK = (1L << Y_BITS) - 1;
+    private static final long XZ_MASK = (1L << XZ_BITS) - 1;
+
+    private static final int Z_SHIFT = Y_BITS;
+    private static final int X_SHIFT = Y_BITS + Z_BITS;
+
+    private static final long MIN_XZ_UNITS = -(1L << (XZ_BITS - 1));
+    private static final long MAX_XZ_UNITS = (1L << (XZ_BITS - 1)) - 1;
+
+    private PointCodec() {
+    }
+
+    /**
+     * Checks if a coordinate triple fits in the packed format.
+     *
+     * @param x The X coordinate
+     * @param y The Y coordinate
+     * @param z The Z coordinate
+     * @return true if the point can be encoded
+     */
+    public static boolean isEncodable(double x, double y, double z) {
+        long xUnits = Math.round(x * UNITS_PER_BLOCK);
+        long yUnits = Math.round((y - MIN_Y) * UNITS_PER_BLOCK);
+        long zUnits = Math.round(z * UNITS_PER_BLOCK);
+        return xUnits >= MIN_XZ_UNITS && xUnits <= MAX_XZ_UNITS
+                && zUnits >= MIN_XZ_UNITS && zUnits <= MAX_XZ_UNITS
+                && yUnits >= 0 && yUnits <= Y_MASK;
+    }
+
+    /**
+     * Encodes coordinates into a packed point, rounding to the nearest half block.
+     * Callers should check {@link #isEncodable} first; out-of-range values wrap.
+     *
+     * @param x The X coordinate
+     * @param y The Y coordinate
+     * @param z The Z coordinate
+     * @return The packed point
+     */
+    public static long encode(double x, double y, double z) {
+        long xUnits = Math.round(x * UNITS_PER_BLOCK);
+        long yUnits = Math.round((y - MIN_Y) * UNITS_PER_BLOCK);
+        long zUnits = Math.round(z * UNITS_PER_BLOCK);
+        return ((xUnits & XZ_MASK) << X_SHIFT)
+                | ((zUnits & XZ_MASK) << Z_SHIFT)
+                | (yUnits & Y_MASK);
+    }
+
+    /**
+     * Decodes the X coordinate of a packed point.
+     *
+     * @param packed The packed point
+     * @return The X coordinate
+     */
+    public static double x(long packed) {
+        // Arithmetic shift sign-extends the top field
+        return (packed >> X_SHIFT) / UNITS_PER_BLOCK;
+    }
+
+    /**
+     * Decodes the Y coordinate of a packed point.
+     *
+     * @param packed The packed point
+     * @return The Y coordinate
+     */
+    public static double y(long packed) {
+        return (packed & Y_MASK) / UNITS_PER_BLOCK + MIN_Y;
+    }
+
+    /**
+     * Decodes the Z coordinate of a packed point.
+     *
+     * @param packed The packed point
+     * @return The Z coordinate
+     */
+    public static double z(long packed) {
+        // Move the Z field to the top, then sign-extend it back down
+        return ((packed << (64 - X_SHIFT)) >> (64 - XZ_BITS)) / UNITS_PER_BLOCK;
+    }
+
+    /**
+     * Gets the squared distance between a packed point and the given coordinates.
+     *
+     * @param packed The packed point
+     * @param x The other X coordinate
+     * @param y The other Y coordinate
+     * @param z The other Z coordinate
+     * @return The squared distance
+     */
+    public static double distanceSquared(long packed, double x, double y, double z) {
+        double dx = x(packed) - x;
+        double dy = y(packed) - y;
+        double dz = z(packed) - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+}
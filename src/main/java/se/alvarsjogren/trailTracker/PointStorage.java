@@ -0,0 +1,52 @@
+package se.alvarsjogren.trailTracker;
+
+/**
+ * Read access to the packed points of a path.
+ * Implementations may keep the points on the heap ({@link PointBuffer}) or in a
+ * memory-mapped file ({@link MappedPointBuffer}); callers only see packed longs
+ * and decode coordinates on demand with {@link PointCodec}.
+ */
+public interface PointStorage {
+    /**
+     * Gets the number of points.
+     *
+     * @return The number of points
+     */
+    int size();
+
+    /**
+     * Gets a packed point.
+     *
+     * @param index The index of the point
+     * @return The packed point
+     * @throws IndexOutOfBoundsException If the index is outside the storage
+     */
+    long get(int index);
+
+    /**
+     * Gets a range of the points that does not change when this storage changes.
+     * Heap storage copies the range; read-only storage returns a view of it.
+     *
+     * @param from The index of the first point of the range
+     * @param to The index after the last point of the range
+     * @return The points of the range
+     * @throws IndexOutOfBoundsException If the range is outside the storage
+     */
+    PointStorage slice(int from, int to);
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    default double getX(int index) {
+        return PointCodec.x(get(index));
+    }
+
+    default double getY(int index) {
+        return PointCodec.y(get(index));
+    }
+
+    default double getZ(int index) {
+        return PointCodec.z(get(index));
+    }
+}
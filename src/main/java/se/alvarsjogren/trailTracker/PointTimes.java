@@ -0,0 +1,204 @@
+package se.alvarsjogren.trailTracker;
+
+import java.util.Arrays;
+
+/**
+ * Recording times of a path's points, stored as varint-encoded millisecond deltas.
+ * Each entry is the time since the previous point (0 for the first point), which
+ * usually fits in one or two bytes, so timing adds little to a path's size.
+ * Deltas can only be read in order, which is all a replay needs.
+ *
+ * <p>Not thread-safe. Writers synchronize on the owning {@link Path}.</p>
+ */
+public class PointTimes {
+    /** Capacity allocated on the first append */
+    private static final int INITIAL_CAPACITY = 32;
+
+    /** Encoded deltas; only the first {@link #byteLength} bytes are used */
+    private byte[] bytes;
+
+    /** Number of used bytes */
+    private int byteLength;
+
+    /** Number of deltas */
+    private int size;
+
+    /**
+     * Creates an empty list of times.
+     */
+    public PointTimes() {
+        this.bytes = new byte[0];
+    }
+
+    /**
+     * Creates a list of times from previously encoded deltas.
+     *
+     * @param encoded The encoded deltas, as returned by {@link #toByteArray()}
+     * @param size The number of deltas in the encoded bytes
+     */
+    public PointTimes(byte[] encoded, int size) {
+        this.bytes = encoded;
+        this.byteLength = encoded.length;
+        this.size = size;
+    }
+
+    /**
+     * Gets the number of deltas, which matches the number of timed points.
+     *
+     * @return The number of deltas
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Appends the delta of the next point.
+     *
+     * @param deltaMillis Milliseconds since the previous point; clamped to 0..Integer.MAX_VALUE
+     */
+    public void add(long deltaMillis) {
+        int value = (int) Math.max(0, Math.min(Integer.MAX_VALUE, deltaMillis));
+        if (byteLength + 5 > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(INITIAL_CAPACITY, bytes.length + (bytes.length >> 1) + 5));
+        }
+        // Seven bits per byte, high bit set on all but the last byte
+        while ((value & ~0x7F) != 0) {
+            bytes[byteLength++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[byteLength++] = (byte) value;
+        size++;
+    }
+
+    /**
+     * Copies the times of a range of points.
+     * The encoded deltas are copied as bytes; only the first one is re-encoded,
+     * since the first point of the range becomes a first point with delta 0.
+     *
+     * @param from The index of the first point of the range
+     * @param to The index after the last point of the range
+     * @return The times of the range
+     * @throws IndexOutOfBoundsException If the range is outside the times
+     */
+    public PointTimes slice(int from, int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("Range " + from + " to " + to + " out of bounds for size " + size);
+        }
+        PointTimes slice = new PointTimes();
+        if (from == to) {
+            return slice;
+        }
+
+        int start = offsetOf(from + 1, 0, 0);
+        int end = offsetOf(to, from + 1, start);
+        slice.add(0);
+        slice.bytes = Arrays.copyOf(slice.bytes, Math.max(INITIAL_CAPACITY, 1 + end - start));
+        System.arraycopy(bytes, start, slice.bytes, 1, end - start);
+        slice.byteLength = 1 + end - start;
+        slice.size = to - from;
+        return slice;
+    }
+
+    /**
+     * Finds the byte offset of a delta by skipping the deltas before it.
+     *
+     * @param index The index of the delta
+     * @param fromIndex The index of a delta at or before it
+     * @param fromOffset The byte offset of that delta
+     * @return The byte offset of the delta, or {@link #byteLength} if it is past the end
+     */
+    private int offsetOf(int index, int fromIndex, int fromOffset) {
+        int offset = fromOffset;
+        for (int i = fromIndex; i < index && offset < byteLength; i++) {
+            // Skip the bytes with the continuation bit set, then the last byte of the delta
+            while (offset < byteLength && (bytes[offset] & 0x80) != 0) {
+                offset++;
+            }
+            offset++;
+        }
+        return Math.min(offset, byteLength);
+    }
+
+    /**
+     * Copies the times for the points in reverse order.
+     * The delta of a point becomes the delta of the point after it, since walking
+     * the path backwards takes the same time between the same two points.
+     *
+     * @return The reversed times
+     */
+    public PointTimes reversed() {
+        int[] deltas = new int[size];
+        Reader reader = reader();
+        for (int i = 0; i < size && reader.hasNext(); i++) {
+            deltas[i] = reader.next();
+        }
+
+        PointTimes reversed = new PointTimes();
+        if (size > 0) {
+            reversed.add(0);
+        }
+        for (int i = size - 1; i > 0; i--) {
+            reversed.add(deltas[i]);
+        }
+        return reversed;
+    }
+
+    /**
+     * Copies the used part of the encoded deltas.
+     *
+     * @return A new array with the encoded deltas
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(bytes, byteLength);
+    }
+
+    /**
+     * Creates a reader positioned at the first delta.
+     * The reader sees the deltas that exist when it is created.
+     *
+     * @return A new reader
+     */
+    public Reader reader() {
+        return new Reader(bytes, byteLength);
+    }
+
+    /**
+     * Sequential reader over the deltas. Each read is constant time.
+     */
+    public static final class Reader {
+        private final byte[] bytes;
+        private final int length;
+        private int offset;
+
+        private Reader(byte[] bytes, int length) {
+            this.bytes = bytes;
+            this.length = length;
+        }
+
+        /**
+         * Checks if there are more deltas to read.
+         *
+         * @return true if {@link #next()} can be called
+         */
+        public boolean hasNext() {
+            return offset < length;
+        }
+
+        /**
+         * Reads the next delta.
+         *
+         * @return Milliseconds between the previous point and the next one
+         */
+        public int next() {
+            int value = 0;
+            int shift = 0;
+            byte current;
+            do {
+                current = bytes[offset++];
+                value |= (current & 0x7F) << shift;
+                shift += 7;
+            } while ((current & 0x80) != 0 && offset < length);
+            return value;
+        }
+    }
+}
@@ -4,15 +4,18 @@ import org.bstats.bukkit.Metrics;
 import org.bstats.charts.SimplePie;
 import org.bstats.charts.SingleLineChart;
 import org.bukkit.plugin.java.JavaPlugin;
-import se.alvarsjogren.trailTracker.api.TrailTrackerAPI;
 import se.alvarsjogren.trailTracker.api.TrailTrackerAPIImpl;
 import se.alvarsjogren.trailTracker.api.TrailTrackerProvider;
 import se.alvarsjogren.trailTracker.commands.TTCommandExecutor;
 import se.alvarsjogren.trailTracker.commands.TTTabCompleter;
 import se.alvarsjogren.trailTracker.listeners.PlayerHandler;
+import se.alvarsjogren.trailTracker.listeners.WorldHandler;
 import se.alvarsjogren.trailTracker.utilities.StorageManager;
+import se.alvarsjogren.trailTracker.utilities.TaskScheduler;
 import se.alvarsjogren.trailTracker.utilities.VersionCompatibility;
 
+import java.util.concurrent.CompletableFuture;
+
 
 /**
  * Main plugin class for TrailTracker.
@@ -29,7 +32,13 @@ public final class TrailTracker extends JavaPlugin {
     private Metrics metrics;
 
     /** API implementation for external plugin access */
-    private TrailTrackerAPI api;
+    private TrailTrackerAPIImpl api;
+
+    /** Paper/Folia-aware scheduler used for all plugin tasks */
+    private TaskScheduler taskScheduler;
+
+    /** Periodic background save, null when autosave is disabled */
+    private TaskScheduler.Task autosaveTask;
 
     /**
      * Called when the plugin is enabled.
@@ -54,6 +63,12 @@ public final class TrailTracker extends JavaPlugin {
         // Save default config if it doesn't exist
         saveDefaultConfig();
 
+        // Initialize the scheduler before anything schedules tasks
+        taskScheduler = new TaskScheduler(this);
+        if (TaskScheduler.isFolia()) {
+            getLogger().info("Folia detected, using region-aware scheduling");
+        }
+
         // Initialize PathRecorder
         pathRecorder = new PathRecorder(this);
 
@@ -63,6 +78,9 @@ public final class TrailTracker extends JavaPlugin {
         storageManager.load();
         getLogger().info("Data loaded successfully!");
 
+        // Periodically save paths in the background
+        startAutosaveTask();
+
         // Register commands
         TTCommandExecutor ttCommandExecutor = new TTCommandExecutor(this);
         TTTabCompleter ttTabCompleter = new TTTabCompleter(ttCommandExecutor.getSubCommands(), this);
@@ -71,6 +89,7 @@ public final class TrailTracker extends JavaPlugin {
 
         // Register event listeners
         getServer().getPluginManager().registerEvents(new PlayerHandler(this), this);
+        getServer().getPluginManager().registerEvents(new WorldHandler(storageManager), this);
 
         // Initialize bStats
         setupMetrics();
@@ -146,6 +165,46 @@ public final class TrailTracker extends JavaPlugin {
         getLogger().info("TrailTracker API initialized and registered");
     }
 
+    /**
+     * Starts the autosave task at the interval configured in config.yml.
+     * Cancels any existing autosave task first to prevent duplicates.
+     * Saving runs asynchronously so large path sets never stall the server tick.
+     */
+    private void startAutosaveTask() {
+        if (autosaveTask != null && !autosaveTask.isCancelled()) {
+            autosaveTask.cancel();
+            autosaveTask = null;
+        }
+
+        long intervalMinutes = getConfig().getLong("autosave-interval", 5);
+        if (intervalMinutes <= 0) {
+            getLogger().info("Autosave is disabled in config.yml");
+            return;
+        }
+
+        long intervalTicks = intervalMinutes * 60L * 20L;
+        autosaveTask = taskScheduler.runAsyncTimer(storageManager::autosave, intervalTicks, intervalTicks);
+        getLogger().info("Autosaving paths every " + intervalMinutes + " minute(s)");
+    }
+
+    /**
+     * Gets the scheduler used for all plugin tasks.
+     *
+     * @return The Paper/Folia-aware task scheduler
+     */
+    public TaskScheduler getTaskScheduler() {
+        return taskScheduler;
+    }
+
+    /**
+     * Gets the manager that saves and loads paths.
+     *
+     * @return The storage manager, or null before the plugin is enabled
+     */
+    public StorageManager getStorageManager() {
+        return storageManager;
+    }
+
     /**
      * Called when the plugin is disabled.
      * Saves all data and performs cleanup.
@@ -154,23 +213,39 @@ public final class TrailTracker extends JavaPlugin {
     public void onDisable() {
         getLogger().info("Shutting down...");
 
+        // Stop scheduled tasks so nothing runs against a half-disabled plugin
+        if (pathRecorder != null) {
+            pathRecorder.stopDisplayTask();
+        }
+        if (taskScheduler != null) {
+            taskScheduler.cancelAll();
+        }
+
         // Save all paths to disk
         getLogger().info("Saving data...");
         storageManager.save();
+        storageManager.close();
         getLogger().info("Data saved successfully!");
 
         // Unregister API
         TrailTrackerProvider.unregisterAPI();
+        if (api != null) {
+            api.shutdown();
+        }
         getLogger().info("API unregistered");
 
         getLogger().info("Shutdown successfully!");
     }
 
     /**
-     * Reloads the plugin configuration.
+     * Reloads the plugin configuration and all paths.
+     * Settings are applied immediately; paths are saved, read back and re-indexed
+     * in the background, so the call returns without waiting for storage.
      * Can be called by admin commands or other plugins.
+     *
+     * @return A future with the number of paths after the reload
      */
-    public void reloadPlugin() {
+    public CompletableFuture<Integer> reloadPlugin() {
         // Reload config
         reloadConfig();
 
@@ -179,6 +254,23 @@ public final class TrailTracker extends JavaPlugin {
             pathRecorder.loadConfigValues();
         }
 
-        getLogger().info("Configuration reloaded!");
+        // Restart autosave in case the interval changed
+        if (storageManager == null) {
+            getLogger().info("Configuration reloaded!");
+            return CompletableFuture.completedFuture(0);
+        }
+        startAutosaveTask();
+
+        getLogger().info("Configuration reloaded, reloading paths in the background...");
+        long startTime = System.nanoTime();
+        return storageManager.reload().whenComplete((pathCount, error) -> {
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                getLogger().warning("Failed to reload paths - Error: " + cause.getMessage());
+            } else {
+                long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+                getLogger().info("Reloaded " + pathCount + " paths in " + elapsedMillis + " ms.");
+            }
+        });
     }
 }
\ No newline at end of file
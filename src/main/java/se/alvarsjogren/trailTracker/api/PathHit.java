@@ -0,0 +1,13 @@
+package se.alvarsjogren.trailTracker.api;
+
+/**
+ * Result of a spatial path query: a single point of a path and how far it is from the query.
+ * Only the name and index are returned, so queries never copy path data;
+ * look the path up with {@link TrailTrackerAPI#getCompletedPath(String)} if more is needed.
+ *
+ * @param pathName The name of the path
+ * @param pointIndex The index of the matched point within the path
+ * @param distance The distance in blocks from the queried location to the point
+ */
+public record PathHit(String pathName, int pointIndex, double distance) {
+}
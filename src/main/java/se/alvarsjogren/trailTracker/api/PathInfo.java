@@ -1,12 +1,25 @@
 package se.alvarsjogren.trailTracker.api;
 
 import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.util.BoundingBox;
+import se.alvarsjogren.trailTracker.PathSnapshots;
+import se.alvarsjogren.trailTracker.PointStorage;
+
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Read-only information about a path.
- * This class is immutable to maintain API integrity.
+ * This class is immutable to maintain API integrity. The plugin keeps one snapshot
+ * per path and only creates a new one after the path changes, so the same instance
+ * is returned until then and can be compared by revision.
+ *
+ * <p>Snapshots taken by the plugin keep the path's packed points rather than locations.
+ * {@link #forEachPoint(PointConsumer)} and {@link #getPoints(int, int)} read them without
+ * creating an object per point; {@link #getLocations()} builds its list on first use.</p>
  */
 public class PathInfo {
     private final String name;
@@ -14,10 +27,19 @@ public class PathInfo {
     private final int radius;
     private final Date creationDate;
     private final String createdBy;
-    private final List<Location> locations;
+    private final PointStorage points;
+    private final World world;
+    private volatile List<Location> locations;
+    private final PathStatistics statistics;
+    private final int revision;
+
+    static {
+        PathSnapshots.install(PathInfo::new);
+    }
 
     /**
      * Creates a new PathInfo with all necessary data.
+     * Statistics are computed from the locations.
      *
      * @param name The name of the path
      * @param description The description of the path
@@ -35,6 +57,39 @@ public class PathInfo {
         this.createdBy = createdBy;
         // Create an immutable copy of locations
         this.locations = List.copyOf(locations);
+        this.points = null;
+        this.world = null;
+        this.statistics = PathStatistics.of(locations);
+        this.revision = 0;
+    }
+
+    /**
+     * Creates a new PathInfo over packed points, used by the plugin for its snapshots
+     * through {@link PathSnapshots}. The points must not change after they are passed in;
+     * locations are only created if {@link #getLocations()} is called.
+     *
+     * @param name The name of the path
+     * @param description The description of the path
+     * @param radius The detection radius for the path
+     * @param creationDate When the path was created
+     * @param createdBy Who created the path
+     * @param points The path's packed points, owned by the snapshot from now on
+     * @param world The path's world, or null if it is not loaded
+     * @param statistics The path's cached statistics
+     * @param revision The revision of the path the snapshot was taken from
+     */
+    private PathInfo(String name, String description, int radius, Date creationDate, String createdBy,
+                     PointStorage points, World world, PathStatistics statistics, int revision) {
+        this.name = name;
+        this.description = description;
+        this.radius = radius;
+        this.creationDate = new Date(creationDate.getTime()); // Defensive copy
+        this.createdBy = createdBy;
+        this.locations = null;
+        this.points = Objects.requireNonNull(points);
+        this.world = world;
+        this.statistics = statistics;
+        this.revision = revision;
     }
 
     public String getName() {
@@ -64,12 +119,23 @@ public class PathInfo {
 
     /**
      * Gets the locations that make up this path.
-     * The returned list is immutable.
+     * The returned list is immutable. The locations have no world
+     * if the path's world is not currently loaded.
+     * Prefer {@link #forEachPoint(PointConsumer)} when only the coordinates are needed.
      *
      * @return An immutable list of locations
      */
     public List<Location> getLocations() {
-        return locations; // Already immutable
+        List<Location> current = locations;
+        if (current == null) {
+            List<Location> built = new ArrayList<>(points.size());
+            for (int i = 0; i < points.size(); i++) {
+                built.add(new Location(world, points.getX(i), points.getY(i), points.getZ(i)));
+            }
+            current = List.copyOf(built);
+            locations = current;
+        }
+        return current;
     }
 
     /**
@@ -78,6 +144,123 @@ public class PathInfo {
      * @return The number of location points in the path
      */
     public int getPointCount() {
-        return locations.size();
+        return points != null ? points.size() : locations.size();
+    }
+
+    /**
+     * Passes the coordinates of every point, in path order, to a consumer.
+     * Reads the packed points directly, so no object is created per point.
+     *
+     * @param consumer The consumer to receive the points
+     */
+    public void forEachPoint(PointConsumer consumer) {
+        forEachPoint(0, getPointCount(), consumer);
+    }
+
+    /**
+     * Passes the coordinates of a range of points, in path order, to a consumer.
+     *
+     * @param from The index of the first point, inclusive
+     * @param to The index after the last point, exclusive
+     * @param consumer The consumer to receive the points
+     * @throws IndexOutOfBoundsException If the range is outside the path
+     */
+    public void forEachPoint(int from, int to, PointConsumer consumer) {
+        Objects.checkFromToIndex(from, to, getPointCount());
+        if (points != null) {
+            for (int i = from; i < to; i++) {
+                consumer.accept(points.getX(i), points.getY(i), points.getZ(i));
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                Location location = locations.get(i);
+                consumer.accept(location.getX(), location.getY(), location.getZ());
+            }
+        }
+    }
+
+    /**
+     * Gets the coordinates of a range of points as one flat array.
+     * Point {@code i} of the range is stored at indexes {@code 3i}, {@code 3i + 1}
+     * and {@code 3i + 2} as X, Y and Z.
+     *
+     * @param from The index of the first point, inclusive
+     * @param to The index after the last point, exclusive
+     * @return A new array of {@code 3 * (to - from)} coordinates
+     * @throws IndexOutOfBoundsException If the range is outside the path
+     */
+    public double[] getPoints(int from, int to) {
+        Objects.checkFromToIndex(from, to, getPointCount());
+        double[] coordinates = new double[(to - from) * 3];
+        for (int i = from; i < to; i++) {
+            int offset = (i - from) * 3;
+            if (points != null) {
+                coordinates[offset] = points.getX(i);
+                coordinates[offset + 1] = points.getY(i);
+                coordinates[offset + 2] = points.getZ(i);
+            } else {
+                Location location = locations.get(i);
+                coordinates[offset] = location.getX();
+                coordinates[offset + 1] = location.getY();
+                coordinates[offset + 2] = location.getZ();
+            }
+        }
+        return coordinates;
+    }
+
+    /**
+     * Gets the revision of the path this snapshot was taken from.
+     * A snapshot with a different revision means the path has changed in between.
+     *
+     * @return The path revision
+     */
+    public int getRevision() {
+        return revision;
+    }
+
+    /**
+     * Gets the derived statistics of this path: length, bounding box and elevation change.
+     * The statistics are cached by the plugin, so this does not scan the points.
+     *
+     * @return The path's statistics
+     */
+    public PathStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Gets the total length of this path.
+     *
+     * @return The length along the path in blocks
+     */
+    public double getLength() {
+        return statistics.length();
+    }
+
+    /**
+     * Gets the total upwards climb along this path.
+     *
+     * @return The elevation gain in blocks
+     */
+    public double getElevationGain() {
+        return statistics.elevationGain();
+    }
+
+    /**
+     * Gets the bounding box enclosing every point of this path.
+     *
+     * @return A new bounding box, or null if the path has no points
+     */
+    public BoundingBox getBoundingBox() {
+        return statistics.getBoundingBox();
+    }
+
+    /**
+     * Estimates how long it takes to walk this path.
+     *
+     * @return The estimated walk time in seconds
+     */
+    public double getEstimatedWalkSeconds() {
+        return statistics.getEstimatedWalkSeconds();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+package se.alvarsjogren.trailTracker.api;
+
+import java.util.List;
+
+/**
+ * Result of a route query: the stretches of path to travel, in order.
+ * Consecutive legs are on different paths and meet at a junction.
+ *
+ * @param legs The legs of the route, never empty
+ * @param length The total length of the route along the paths, in blocks
+ */
+public record PathRoute(List<Leg> legs, double length) {
+    /**
+     * One stretch of a single path.
+     * The end index is smaller than the start index when the path is travelled backwards.
+     *
+     * @param pathName The name of the path
+     * @param fromIndex The index of the point where the leg starts
+     * @param toIndex The index of the point where the leg ends
+     * @param length The length of the leg along the path, in blocks
+     */
+    public record Leg(String pathName, int fromIndex, int toIndex, double length) {
+    }
+}
@@ -0,0 +1,104 @@
+package se.alvarsjogren.trailTracker.api;
+
+import org.bukkit.Location;
+import org.bukkit.util.BoundingBox;
+
+import java.util.List;
+
+/**
+ * Derived statistics about a path: length, bounding box and elevation change.
+ * Instances are immutable; a path replaces its statistics as points are added,
+ * so reading them never requires scanning the points.
+ *
+ * @param pointCount The number of points the statistics cover
+ * @param length The total length along the path, in blocks
+ * @param elevationGain The total upwards climb along the path, in blocks
+ * @param elevationLoss The total downwards descent along the path, in blocks
+ * @param minX The smallest X coordinate of any point
+ * @param minY The smallest Y coordinate of any point
+ * @param minZ The smallest Z coordinate of any point
+ * @param maxX The largest X coordinate of any point
+ * @param maxY The largest Y coordinate of any point
+ * @param maxZ The largest Z coordinate of any point
+ */
+public record PathStatistics(int pointCount, double length, double elevationGain, double elevationLoss,
+                             double minX, double minY, double minZ,
+                             double maxX, double maxY, double maxZ) {
+
+    /** Statistics of a path without points */
+    public static final PathStatistics EMPTY = new PathStatistics(0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+    /** Average walking speed in blocks per second, used for walk time estimates */
+    public static final double WALKING_SPEED = 4.317;
+
+    /**
+     * Returns statistics extended by one more point at the end of the path.
+     * Runs in constant time, so statistics can be kept up to date while recording.
+     *
+     * @param x The X coordinate of the new point
+     * @param y The Y coordinate of the new point
+     * @param z The Z coordinate of the new point
+     * @param previousX The X coordinate of the previous last point (ignored if there is none)
+     * @param previousY The Y coordinate of the previous last point (ignored if there is none)
+     * @param previousZ The Z coordinate of the previous last point (ignored if there is none)
+     * @return New statistics that include the point
+     */
+    public PathStatistics withPoint(double x, double y, double z,
+                                    double previousX, double previousY, double previousZ) {
+        if (pointCount == 0) {
+            return new PathStatistics(1, 0, 0, 0, x, y, z, x, y, z);
+        }
+
+        double dx = x - previousX;
+        double dy = y - previousY;
+        double dz = z - previousZ;
+
+        return new PathStatistics(
+                pointCount + 1,
+                length + Math.sqrt(dx * dx + dy * dy + dz * dz),
+                elevationGain + Math.max(0, dy),
+                elevationLoss + Math.max(0, -dy),
+                Math.min(minX, x), Math.min(minY, y), Math.min(minZ, z),
+                Math.max(maxX, x), Math.max(maxY, y), Math.max(maxZ, z));
+    }
+
+    /**
+     * Computes statistics for a list of locations.
+     *
+     * @param locations The locations in path order
+     * @return The statistics for the locations
+     */
+    public static PathStatistics of(List<Location> locations) {
+        PathStatistics statistics = EMPTY;
+        Location previous = null;
+        for (Location location : locations) {
+            statistics = previous == null
+                    ? statistics.withPoint(location.getX(), location.getY(), location.getZ(), 0, 0, 0)
+                    : statistics.withPoint(location.getX(), location.getY(), location.getZ(),
+                    previous.getX(), previous.getY(), previous.getZ());
+            previous = location;
+        }
+        return statistics;
+    }
+
+    /**
+     * Gets the bounding box enclosing every point of the path.
+     *
+     * @return A new bounding box, or null if the path has no points
+     */
+    public BoundingBox getBoundingBox() {
+        if (pointCount == 0) {
+            return null;
+        }
+        return new BoundingBox(minX, minY, minZ, maxX, maxY, maxZ);
+    }
+
+    /**
+     * Estimates how long it takes to walk the whole path.
+     *
+     * @return The estimated walk time in seconds
+     */
+    public double getEstimatedWalkSeconds() {
+        return length / WALKING_SPEED;
+    }
+}
@@ -0,0 +1,18 @@
+package se.alvarsjogren.trailTracker.api;
+
+/**
+ * Receives the coordinates of path points one at a time.
+ * Used by {@link PathInfo#forEachPoint(PointConsumer)} to stream points without
+ * creating an object per point.
+ */
+@FunctionalInterface
+public interface PointConsumer {
+    /**
+     * Accepts one point.
+     *
+     * @param x The X coordinate of the point
+     * @param y The Y coordinate of the point
+     * @param z The Z coordinate of the point
+     */
+    void accept(double x, double y, double z);
+}
@@ -1,16 +1,32 @@
 package se.alvarsjogren.trailTracker.api;
 
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.util.BoundingBox;
+
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Public API interface for TrailTracker plugin.
  * Provides read-only access to paths data.
+ *
+ * <p>Thread safety: every method may be called from any thread. The synchronous methods
+ * read the plugin's concurrent indexes and never block on storage; the returned
+ * {@link PathInfo} and {@link PathHit} objects are immutable and safe to share.
+ * The {@code Async} variants run on a small executor owned by the plugin and complete
+ * on that executor's threads, so callbacks attached to them must not touch worlds or
+ * entities directly and should hand off to the server scheduler instead. Their futures
+ * fail with a {@link java.util.concurrent.RejectedExecutionException} once the plugin is disabled.
  */
 public interface TrailTrackerAPI {
 
     /**
      * Gets a read-only view of all completed paths in the system.
      * Completed paths are those that are not currently being recorded.
+     * The same map is returned until a path is added, removed or changed, so the
+     * result is cheap to poll and can be compared by identity.
      *
      * @return An unmodifiable map of path names to PathInfo objects
      */
@@ -26,9 +42,106 @@ public interface TrailTrackerAPI {
 
     /**
      * Gets information about a specific completed path.
+     * The same snapshot is returned until the path changes; see {@link PathInfo#getRevision()}.
      *
      * @param pathName The name of the path
      * @return PathInfo object if the path exists and is completed, null otherwise
      */
     PathInfo getCompletedPath(String pathName);
-}
\ No newline at end of file
+
+    /**
+     * Finds the completed path closest to a location.
+     * Backed by a grid of path points, so only points near the location are examined.
+     *
+     * @param location The location to search from; its world is searched
+     * @param maxDistance The largest distance to consider, in blocks; must be finite
+     * @return The closest path point within the distance, or null if there is none
+     *         or the location or distance is not finite
+     */
+    PathHit findNearestPath(Location location, double maxDistance);
+
+    /**
+     * Finds the completed paths that pass through an area.
+     *
+     * @param world The world to search
+     * @param bounds The area to search
+     * @return One result per path with a point inside the area, holding that path's
+     *         point closest to the centre of the area; empty if there are none
+     */
+    List<PathHit> findPathsIntersecting(World world, BoundingBox bounds);
+
+    /**
+     * Checks if a location is on a completed path, meaning within the path's detection radius.
+     *
+     * @param location The location to check
+     * @param pathName The name of the path
+     * @return true if the location is within the path's radius of one of its points
+     */
+    boolean isOnPath(Location location, String pathName);
+
+    /**
+     * Finds the shortest route along the path network between two locations.
+     * Paths are connected where they come within detection radius of each other.
+     * Both locations must be within 48 blocks of a completed path.
+     *
+     * @param from The start of the route
+     * @param to The destination, in the same world
+     * @return The route, or null if either location is off the network or they are not connected
+     */
+    PathRoute findRoute(Location from, Location to);
+
+    /**
+     * Finds the shortest route along the path network from a location to a completed path.
+     *
+     * @param from The start of the route, within 48 blocks of a completed path
+     * @param pathName The name of the path to reach
+     * @return The route, or null if the location is off the network or not connected to the path
+     */
+    PathRoute findRoute(Location from, String pathName);
+
+    /**
+     * Gets all completed paths without using the caller's thread.
+     *
+     * @return A future with the same map {@link #getCompletedPaths()} returns
+     */
+    CompletableFuture<Map<String, PathInfo>> getCompletedPathsAsync();
+
+    /**
+     * Gets a completed path without using the caller's thread.
+     * Building the snapshot of a path that has just changed walks all its points,
+     * which this variant keeps off the main thread.
+     *
+     * @param pathName The name of the path
+     * @return A future with the path's snapshot, or with null if the path does not exist or is being recorded
+     */
+    CompletableFuture<PathInfo> getCompletedPathAsync(String pathName);
+
+    /**
+     * Finds the completed path closest to a location without using the caller's thread.
+     *
+     * @param location The location to search from; its world is searched
+     * @param maxDistance The largest distance to consider, in blocks; must be finite
+     * @return A future with the closest path point, or with null if there is none
+     *         or the location or distance is not finite
+     */
+    CompletableFuture<PathHit> findNearestPathAsync(Location location, double maxDistance);
+
+    /**
+     * Finds the completed paths that pass through an area without using the caller's thread.
+     *
+     * @param world The world to search
+     * @param bounds The area to search
+     * @return A future with one result per path with a point inside the area
+     */
+    CompletableFuture<List<PathHit>> findPathsIntersectingAsync(World world, BoundingBox bounds);
+
+    /**
+     * Finds stored paths whose bounds overlap an area, using the storage backend.
+     * Unlike the other queries this also covers paths whose world is not loaded.
+     *
+     * @param worldName The name of the world
+     * @param bounds The area to search, or null for the whole world
+     * @return A future with the names of the matching paths
+     */
+    CompletableFuture<List<String>> findStoredPathsAsync(String worldName, BoundingBox bounds);
+}
@@ -1,21 +1,43 @@
 package se.alvarsjogren.trailTracker.api;
 
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.util.BoundingBox;
 import se.alvarsjogren.trailTracker.Path;
 import se.alvarsjogren.trailTracker.PathRecorder;
 import se.alvarsjogren.trailTracker.TrailTracker;
+import se.alvarsjogren.trailTracker.utilities.StorageManager;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * Implementation of the TrailTracker API.
  * Provides read-only access to path data.
+ * Paths are served as the immutable snapshots each path keeps of its current revision,
+ * and the map of completed paths is reused as long as none of its snapshots are stale,
+ * so polling the API does not copy any path data.
  */
 public class TrailTrackerAPIImpl implements TrailTrackerAPI {
+    /** Number of threads serving the asynchronous API methods */
+    private static final int ASYNC_THREADS = 2;
+
     private final TrailTracker plugin;
 
+    /** Executor for the asynchronous API methods, owned by the plugin and shut down with it */
+    private final ExecutorService executor;
+
+    /** Last map returned by {@link #getCompletedPaths()}, reused while it is still current */
+    private volatile Map<String, PathInfo> completedPaths = Collections.emptyMap();
+
     /**
      * Creates a new API implementation instance.
      *
@@ -23,42 +45,67 @@ public class TrailTrackerAPIImpl implements TrailTrackerAPI {
      */
     public TrailTrackerAPIImpl(TrailTracker plugin) {
         this.plugin = plugin;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(ASYNC_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "TrailTracker-API-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stops the executor of the asynchronous API methods.
+     * Queries already running finish; later calls return failed futures.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
     }
 
     @Override
     public Map<String, PathInfo> getCompletedPaths() {
-        Map<String, PathInfo> completedPaths = new HashMap<>();
         PathRecorder pathRecorder = plugin.pathRecorder;
 
         if (pathRecorder == null) {
             return Collections.emptyMap();
         }
 
-        // Get all paths and filter out those currently being tracked
-        Map<String, Path> allPaths = pathRecorder.getPaths();
-        Map<UUID, String> trackedPaths = pathRecorder.getTrackedPaths(); // UUID -> PathName
-
-        for (Map.Entry<String, Path> entry : allPaths.entrySet()) {
-            String pathName = entry.getKey();
-            Path path = entry.getValue();
-
-            // Check if this path is currently being tracked
-            if (!trackedPaths.containsValue(pathName)) {
-                // Convert Path to PathInfo for API exposure
-                PathInfo pathInfo = new PathInfo(
-                        path.getName(),
-                        path.getDescription(),
-                        path.getRadius(),
-                        path.getCreationDate(),
-                        path.getCreatedBy(),
-                        path.getTrackedPath()
-                );
-                completedPaths.put(pathName, pathInfo);
+        // Check the previous map against the current snapshots, filtering out paths being recorded
+        Map<String, PathInfo> cached = completedPaths;
+        int completedCount = 0;
+        boolean stale = false;
+        for (Path path : pathRecorder.getAllPaths()) {
+            if (pathRecorder.isPathBeingRecorded(path.getName())) {
+                continue;
+            }
+            completedCount++;
+            if (cached.get(path.getName()) != path.getSnapshot()) {
+                stale = true;
+                break;
+            }
+        }
+        if (!stale && completedCount == cached.size()) {
+            return cached;
+        }
+
+        Map<String, PathInfo> rebuilt = new HashMap<>();
+        for (Path path : pathRecorder.getAllPaths()) {
+            if (!pathRecorder.isPathBeingRecorded(path.getName())) {
+                rebuilt.put(path.getName(), path.getSnapshot());
             }
         }
 
         // Return an unmodifiable view
-        return Collections.unmodifiableMap(completedPaths);
+        Map<String, PathInfo> result = Collections.unmodifiableMap(rebuilt);
+        completedPaths = result;
+        return result;
     }
 
     @Override
@@ -67,11 +114,8 @@ public class TrailTrackerAPIImpl implements TrailTrackerAPI {
             return false;
         }
 
-        Map<String, Path> allPaths = plugin.pathRecorder.getPaths();
-        Map<UUID, String> trackedPaths = plugin.pathRecorder.getTrackedPaths();
-
         // Path must exist and not be currently tracked
-        return allPaths.containsKey(pathName) && !trackedPaths.containsValue(pathName);
+        return plugin.pathRecorder.getPath(pathName) != null && !plugin.pathRecorder.isPathBeingRecorded(pathName);
     }
 
     @Override
@@ -80,18 +124,100 @@ public class TrailTrackerAPIImpl implements TrailTrackerAPI {
             return null;
         }
 
-        Path path = plugin.pathRecorder.getPaths().get(pathName);
+        Path path = plugin.pathRecorder.getPath(pathName);
+        if (path == null) {
+            return null;
+        }
+
+        return path.getSnapshot();
+    }
+
+    @Override
+    public PathHit findNearestPath(Location location, double maxDistance) {
+        if (location == null || location.getWorld() == null || plugin.pathRecorder == null
+                || !Double.isFinite(maxDistance) || !isFinite(location)) {
+            return null;
+        }
+        return plugin.pathRecorder.findNearestPath(location.getWorld(),
+                location.getX(), location.getY(), location.getZ(), maxDistance);
+    }
+
+    @Override
+    public List<PathHit> findPathsIntersecting(World world, BoundingBox bounds) {
+        if (world == null || bounds == null || plugin.pathRecorder == null) {
+            return Collections.emptyList();
+        }
+        return plugin.pathRecorder.findPathsIntersecting(world, bounds);
+    }
+
+    @Override
+    public boolean isOnPath(Location location, String pathName) {
+        if (location == null || location.getWorld() == null || !isPathCompleted(pathName)) {
+            return false;
+        }
+
+        Path path = plugin.pathRecorder.getPath(pathName);
+        if (path == null || !location.getWorld().getUID().equals(path.getWorldId())) {
+            return false;
+        }
+        return plugin.pathRecorder.findPointOnPath(path,
+                location.getX(), location.getY(), location.getZ(), path.getRadius()) != null;
+    }
+
+    @Override
+    public PathRoute findRoute(Location from, Location to) {
+        if (from == null || to == null || from.getWorld() == null || !from.getWorld().equals(to.getWorld())
+                || plugin.pathRecorder == null) {
+            return null;
+        }
+        return plugin.pathRecorder.getPathNetwork().findRoute(from.getWorld(),
+                from.getX(), from.getY(), from.getZ(), to.getX(), to.getY(), to.getZ());
+    }
+
+    @Override
+    public PathRoute findRoute(Location from, String pathName) {
+        if (from == null || from.getWorld() == null || !isPathCompleted(pathName)) {
+            return null;
+        }
+        Path path = plugin.pathRecorder.getPath(pathName);
         if (path == null) {
             return null;
         }
+        return plugin.pathRecorder.getPathNetwork().findRoute(from.getWorld(),
+                from.getX(), from.getY(), from.getZ(), path);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, PathInfo>> getCompletedPathsAsync() {
+        return supplyAsync(this::getCompletedPaths);
+    }
+
+    @Override
+    public CompletableFuture<PathInfo> getCompletedPathAsync(String pathName) {
+        return supplyAsync(() -> getCompletedPath(pathName));
+    }
+
+    @Override
+    public CompletableFuture<PathHit> findNearestPathAsync(Location location, double maxDistance) {
+        return supplyAsync(() -> findNearestPath(location, maxDistance));
+    }
+
+    @Override
+    public CompletableFuture<List<PathHit>> findPathsIntersectingAsync(World world, BoundingBox bounds) {
+        return supplyAsync(() -> findPathsIntersecting(world, bounds));
+    }
+
+    @Override
+    public CompletableFuture<List<String>> findStoredPathsAsync(String worldName, BoundingBox bounds) {
+        StorageManager storageManager = plugin.getStorageManager();
+        if (worldName == null || storageManager == null) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        // The store runs the query on its own I/O thread
+        return storageManager.findStoredPaths(worldName, bounds);
+    }
 
-        return new PathInfo(
-                path.getName(),
-                path.getDescription(),
-                path.getRadius(),
-                path.getCreationDate(),
-                path.getCreatedBy(),
-                path.getTrackedPath()
-        );
+    private static boolean isFinite(Location location) {
+        return Double.isFinite(location.getX()) && Double.isFinite(location.getY()) && Double.isFinite(location.getZ());
     }
-}
\ No newline at end of file
+}
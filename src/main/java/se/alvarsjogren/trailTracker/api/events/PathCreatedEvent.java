@@ -0,0 +1,65 @@
+package se.alvarsjogren.trailTracker.api.events;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+import java.util.UUID;
+
+/**
+ * Called when a player starts recording a new path.
+ * The path exists from this point on but has no points yet.
+ */
+public class PathCreatedEvent extends Event {
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final String pathName;
+    private final UUID creatorId;
+
+    /**
+     * Creates a new PathCreatedEvent.
+     *
+     * @param pathName The name of the new path
+     * @param creatorId The UUID of the player recording the path
+     */
+    public PathCreatedEvent(String pathName, UUID creatorId) {
+        this.pathName = pathName;
+        this.creatorId = creatorId;
+    }
+
+    /**
+     * Gets the name of the new path.
+     *
+     * @return The name of the new path
+     */
+    public String getPathName() {
+        return pathName;
+    }
+
+    /**
+     * Gets the UUID of the player recording the path.
+     *
+     * @return The UUID of the player recording the path
+     */
+    public UUID getCreatorId() {
+        return creatorId;
+    }
+
+    /**
+     * Checks if any listener is registered for this event.
+     * The plugin uses it to skip creating the event when nobody listens.
+     *
+     * @return true if at least one listener is registered
+     */
+    public static boolean hasListeners() {
+        return HANDLERS.getRegisteredListeners().length > 0;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
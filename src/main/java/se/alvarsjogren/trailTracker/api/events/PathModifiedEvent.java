@@ -0,0 +1,76 @@
+package se.alvarsjogren.trailTracker.api.events;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Called after a property of a completed path has been changed.
+ */
+public class PathModifiedEvent extends Event {
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    /**
+     * Properties of a path that can be modified.
+     */
+    public enum Property {
+        /** The description text */
+        DESCRIPTION,
+        /** The detection radius */
+        RADIUS,
+        /** The display particle */
+        PARTICLE,
+        /** The points, for example after another path was merged into it */
+        POINTS
+    }
+
+    private final String pathName;
+    private final Property property;
+
+    /**
+     * Creates a new PathModifiedEvent.
+     *
+     * @param pathName The name of the modified path
+     * @param property The property that was changed
+     */
+    public PathModifiedEvent(String pathName, Property property) {
+        this.pathName = pathName;
+        this.property = property;
+    }
+
+    /**
+     * Gets the name of the modified path.
+     *
+     * @return The name of the modified path
+     */
+    public String getPathName() {
+        return pathName;
+    }
+
+    /**
+     * Gets the property that was changed.
+     *
+     * @return The property that was changed
+     */
+    public Property getProperty() {
+        return property;
+    }
+
+    /**
+     * Checks if any listener is registered for this event.
+     * The plugin uses it to skip creating the event when nobody listens.
+     *
+     * @return true if at least one listener is registered
+     */
+    public static boolean hasListeners() {
+        return HANDLERS.getRegisteredListeners().length > 0;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,76 @@
+package se.alvarsjogren.trailTracker.api.events;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Called when points have been added to a path that is being recorded.
+ * Points are reported in batches rather than one event per point; the last batch
+ * is reported when the recording stops, before the {@link PathRecordingStoppedEvent}.
+ */
+public class PathPointsAppendedEvent extends Event {
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final String pathName;
+    private final int fromIndex;
+    private final int pointCount;
+
+    /**
+     * Creates a new PathPointsAppendedEvent.
+     *
+     * @param pathName The name of the path
+     * @param fromIndex The index of the first new point
+     * @param pointCount The number of new points
+     */
+    public PathPointsAppendedEvent(String pathName, int fromIndex, int pointCount) {
+        this.pathName = pathName;
+        this.fromIndex = fromIndex;
+        this.pointCount = pointCount;
+    }
+
+    /**
+     * Gets the name of the path.
+     *
+     * @return The name of the path
+     */
+    public String getPathName() {
+        return pathName;
+    }
+
+    /**
+     * Gets the index of the first new point.
+     *
+     * @return The index of the first new point
+     */
+    public int getFromIndex() {
+        return fromIndex;
+    }
+
+    /**
+     * Gets the number of new points.
+     *
+     * @return The number of new points
+     */
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    /**
+     * Checks if any listener is registered for this event.
+     * The plugin uses it to skip creating the event when nobody listens.
+     *
+     * @return true if at least one listener is registered
+     */
+    public static boolean hasListeners() {
+        return HANDLERS.getRegisteredListeners().length > 0;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
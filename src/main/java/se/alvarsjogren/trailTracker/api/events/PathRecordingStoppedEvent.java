@@ -0,0 +1,76 @@
+package se.alvarsjogren.trailTracker.api.events;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+import java.util.UUID;
+
+/**
+ * Called when a player stops recording a path, which completes the path.
+ */
+public class PathRecordingStoppedEvent extends Event {
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final String pathName;
+    private final UUID recorderId;
+    private final int pointCount;
+
+    /**
+     * Creates a new PathRecordingStoppedEvent.
+     *
+     * @param pathName The name of the completed path
+     * @param recorderId The UUID of the player who recorded the path
+     * @param pointCount The number of points in the completed path
+     */
+    public PathRecordingStoppedEvent(String pathName, UUID recorderId, int pointCount) {
+        this.pathName = pathName;
+        this.recorderId = recorderId;
+        this.pointCount = pointCount;
+    }
+
+    /**
+     * Gets the name of the completed path.
+     *
+     * @return The name of the completed path
+     */
+    public String getPathName() {
+        return pathName;
+    }
+
+    /**
+     * Gets the UUID of the player who recorded the path.
+     *
+     * @return The UUID of the player who recorded the path
+     */
+    public UUID getRecorderId() {
+        return recorderId;
+    }
+
+    /**
+     * Gets the number of points in the completed path.
+     *
+     * @return The number of points in the completed path
+     */
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    /**
+     * Checks if any listener is registered for this event.
+     * The plugin uses it to skip creating the event when nobody listens.
+     *
+     * @return true if at least one listener is registered
+     */
+    public static boolean hasListeners() {
+        return HANDLERS.getRegisteredListeners().length > 0;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,50 @@
+package se.alvarsjogren.trailTracker.api.events;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Called after a path has been removed.
+ */
+public class PathRemovedEvent extends Event {
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final String pathName;
+
+    /**
+     * Creates a new PathRemovedEvent.
+     *
+     * @param pathName The name of the removed path
+     */
+    public PathRemovedEvent(String pathName) {
+        this.pathName = pathName;
+    }
+
+    /**
+     * Gets the name of the removed path.
+     *
+     * @return The name of the removed path
+     */
+    public String getPathName() {
+        return pathName;
+    }
+
+    /**
+     * Checks if any listener is registered for this event.
+     * The plugin uses it to skip creating the event when nobody listens.
+     *
+     * @return true if at least one listener is registered
+     */
+    public static boolean hasListeners() {
+        return HANDLERS.getRegisteredListeners().length > 0;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
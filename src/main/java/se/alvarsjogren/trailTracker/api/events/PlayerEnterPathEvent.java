@@ -0,0 +1,54 @@
+package se.alvarsjogren.trailTracker.api.events;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+
+/**
+ * Called when a player moves onto a path, meaning within its detection radius.
+ * Not called while the player is recording a path.
+ */
+public class PlayerEnterPathEvent extends PlayerEvent {
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final String pathName;
+
+    /**
+     * Creates a new PlayerEnterPathEvent.
+     *
+     * @param player The player
+     * @param pathName The name of the path the player entered
+     */
+    public PlayerEnterPathEvent(Player player, String pathName) {
+        super(player);
+        this.pathName = pathName;
+    }
+
+    /**
+     * Gets the name of the path the player entered.
+     *
+     * @return The name of the path the player entered
+     */
+    public String getPathName() {
+        return pathName;
+    }
+
+    /**
+     * Checks if any listener is registered for this event.
+     * The plugin uses it to skip creating the event when nobody listens.
+     *
+     * @return true if at least one listener is registered
+     */
+    public static boolean hasListeners() {
+        return HANDLERS.getRegisteredListeners().length > 0;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,54 @@
+package se.alvarsjogren.trailTracker.api.events;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+
+/**
+ * Called when a player is no longer on the path they were on, because they moved away,
+ * moved onto another path or left the server.
+ */
+public class PlayerLeavePathEvent extends PlayerEvent {
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final String pathName;
+
+    /**
+     * Creates a new PlayerLeavePathEvent.
+     *
+     * @param player The player
+     * @param pathName The name of the path the player left
+     */
+    public PlayerLeavePathEvent(Player player, String pathName) {
+        super(player);
+        this.pathName = pathName;
+    }
+
+    /**
+     * Gets the name of the path the player left.
+     *
+     * @return The name of the path the player left
+     */
+    public String getPathName() {
+        return pathName;
+    }
+
+    /**
+     * Checks if any listener is registered for this event.
+     * The plugin uses it to skip creating the event when nobody listens.
+     *
+     * @return true if at least one listener is registered
+     */
+    public static boolean hasListeners() {
+        return HANDLERS.getRegisteredListeners().length > 0;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -41,6 +41,12 @@ public class TTCommandExecutor implements CommandExecutor {
         subCommands.add(new RemoveCommand(plugin));
         subCommands.add(new InfoCommand(plugin));
         subCommands.add(new ModifyCommand(plugin));
+        subCommands.add(new FollowCommand(plugin));
+        subCommands.add(new ReplayCommand(plugin));
+        subCommands.add(new HeatmapCommand(plugin));
+        subCommands.add(new MergeCommand(plugin));
+        subCommands.add(new RouteCommand(plugin));
+        subCommands.add(new ReloadCommand(plugin));
     }
 
     /**
@@ -5,7 +5,7 @@ import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.jetbrains.annotations.NotNull;
-import se.alvarsjogren.trailTracker.Path;
+import se.alvarsjogren.trailTracker.PathNameIndex;
 import se.alvarsjogren.trailTracker.PathRecorder;
 import se.alvarsjogren.trailTracker.TrailTracker;
 import se.alvarsjogren.trailTracker.commands.subCommands.*;
@@ -14,7 +14,6 @@ import se.alvarsjogren.trailTracker.utilities.ParticleUtilities;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -68,143 +67,99 @@ public class TTTabCompleter implements TabCompleter {
                 case "remove":
                 case "info":
                 case "display":
+                case "follow":
+                case "replay":
+                case "heatmap":
+                case "merge":
+                case "route":
                     // Complete with path names for commands that operate on existing paths
                     completions = suggestPartialPathNames(args, 1);
                     break;
                 case "modify":
-                    // Get all path names from recorder
-                    Map<String, Path> availablePaths = pathRecorder.getPaths();
-
-                    // Check if we have a complete path name
-                    for (String path : availablePaths.keySet()) {
-                        String[] pathWords = path.split(" ");
-
-                        // If path has multiple words, check if it's fully typed
-                        if (pathWords.length > 1) {
-                            // Check if we have enough args to potentially contain this path
-                            if (args.length >= 1 + pathWords.length) {
-                                boolean matches = true;
-
-                                // Check if all words of the path are present in args
-                                for (int i = 0; i < pathWords.length; i++) {
-                                    if (!args[i + 1].equalsIgnoreCase(pathWords[i])) {
-                                        matches = false;
-                                        break;
-                                    }
-                                }
-
-                                // If the path is fully typed, suggest actions
-                                if (matches) {
-                                    // We're right after a complete path name - suggest actions
-                                    if (args.length == 1 + pathWords.length) {
-                                        // User has typed the full path, now suggest actions
-                                        SubCommand modifyCmd = subCommands.stream()
-                                                .filter(cmd -> cmd.getName().equals("modify"))
-                                                .findFirst()
-                                                .orElse(null);
-
-                                        if (modifyCmd instanceof ModifyCommand) {
-                                            return ((ModifyCommand) modifyCmd).getAvailableActions();
-                                        }
-                                    }
-                                    // User is typing an action
-                                    else if (args.length == 2 + pathWords.length) {
-                                        String typed = args[1 + pathWords.length].toLowerCase();
-                                        SubCommand modifyCmd = subCommands.stream()
-                                                .filter(cmd -> cmd.getName().equals("modify"))
-                                                .findFirst()
-                                                .orElse(null);
-
-                                        if (modifyCmd instanceof ModifyCommand) {
-                                            return ((ModifyCommand) modifyCmd).getAvailableActions().stream()
-                                                    .filter(action -> action.toLowerCase().startsWith(typed))
-                                                    .collect(Collectors.toList());
-                                        }
-                                    }
-                                    // User is typing a value for "particle" action
-                                    else if (args.length == 3 + pathWords.length) {
-                                        String action = args[1 + pathWords.length].toLowerCase();
-                                        String typed = args[2 + pathWords.length].toLowerCase();
-
-                                        if (action.equals("particle")) {
-                                            completions = Arrays.stream(Particle.values())
-                                                    .filter(particle -> !ParticleUtilities.isProblematicParticle(particle))
-                                                    .map(Particle::name)
-                                                    .filter(name -> name.toLowerCase().startsWith(args[args.length - 1].toLowerCase()))
-                                                    .collect(Collectors.toList());
-                                        }
-                                    }
-                                }
-                            }
+                    // Path name (possibly multi-word), then action, then value
+                    completions = suggestModifyArguments(args);
+                    break;
+                case "list":
+                    // Sort and filter options in key:value form
+                    String typedOption = args[args.length - 1].toLowerCase();
+                    for (SubCommand subCommand : subCommands) {
+                        if (subCommand instanceof ListCommand listCommand) {
+                            completions = listCommand.getAvailableOptions().stream()
+                                    .filter(option -> option.startsWith(typedOption))
+                                    .collect(Collectors.toList());
                         }
                     }
+                    break;
+            }
+        }
 
-                    // If we reach here, either:
-                    // 1. The path is single-word
-                    // 2. The path isn't completely typed yet
-                    // Handle single-word paths specifically
-                    if (args.length == 2) {
-                        // Only try tab completion for a path name
-                        completions = suggestPartialPathNames(args, 1);
-                    } else if (args.length == 3) {
-                        // Check if arg[1] is a complete path (no spaces)
-                        String potentialPath = args[1];
-                        if (availablePaths.containsKey(potentialPath)) {
-                            // Get the modify command to access available actions
-                            SubCommand modifyCmd = subCommands.stream()
-                                    .filter(cmd -> cmd.getName().equals("modify"))
-                                    .findFirst()
-                                    .orElse(null);
-
-                            if (modifyCmd instanceof ModifyCommand) {
-                                // Suggest available actions for the second argument
-                                completions = ((ModifyCommand) modifyCmd).getAvailableActions().stream()
-                                        .filter(action -> action.toLowerCase().startsWith(args[2].toLowerCase()))
-                                        .collect(Collectors.toList());
-                            }
-                        } else {
-                            // Could still be typing a multi-word path
-                            completions = suggestPartialPathNames(args, 1);
-                        }
-                    } else if (args.length == 4) {
-                        // First check if args[1] + args[2] is a path (has a space)
-                        String potentialPath = args[1] + " " + args[2];
-                        if (availablePaths.containsKey(potentialPath)) {
-                            // args[3] should be an action
-                            SubCommand modifyCmd = subCommands.stream()
-                                    .filter(cmd -> cmd.getName().equals("modify"))
-                                    .findFirst()
-                                    .orElse(null);
-
-                            if (modifyCmd instanceof ModifyCommand) {
-                                // Suggest available actions
-                                completions = ((ModifyCommand) modifyCmd).getAvailableActions().stream()
-                                        .filter(action -> action.toLowerCase().startsWith(args[3].toLowerCase()))
-                                        .collect(Collectors.toList());
-                            }
-                        } else if (availablePaths.containsKey(args[1])) {
-                            // args[1] is the path, args[2] is the action
-                            String action = args[2].toLowerCase();
+        return completions;
+    }
 
-                            // If the action is "particle", suggest particle types
-                            if (action.equals("particle")) {
-                                completions = Arrays.stream(Particle.values())
-                                        .map(Particle::name)
-                                        .filter(name -> name.toLowerCase().startsWith(args[3].toLowerCase()))
-                                        .collect(Collectors.toList());
-                            }
-                        } else {
-                            // Could still be typing a multi-word path
-                            completions = suggestPartialPathNames(args, 1);
-                        }
-                    }
-                    break;
+    /**
+     * Suggests completions for the modify command.
+     * The path name is resolved with the name index, so multi-word names are found
+     * without comparing the arguments against every path.
+     *
+     * @param args Command arguments
+     * @return List of matching suggestions
+     */
+    private List<String> suggestModifyArguments(String[] args) {
+        List<String> completions = new ArrayList<>();
+        String typed = args[args.length - 1].toLowerCase();
+
+        // Find the longest path name that is fully typed before the argument being completed
+        PathNameIndex.Match match = findCompletedPathName(args);
+
+        if (match != null && match.endIndex() == args.length - 1) {
+            // Right after the path name - suggest actions
+            ModifyCommand modifyCommand = getModifyCommand();
+            if (modifyCommand != null) {
+                modifyCommand.getAvailableActions().stream()
+                        .filter(action -> action.toLowerCase().startsWith(typed))
+                        .forEach(completions::add);
             }
+        } else if (match != null && match.endIndex() == args.length - 2
+                && args[match.endIndex()].equalsIgnoreCase("particle")) {
+            // Typing the value for the particle action
+            Arrays.stream(Particle.values())
+                    .filter(particle -> !ParticleUtilities.isProblematicParticle(particle))
+                    .map(Particle::name)
+                    .filter(name -> name.toLowerCase().startsWith(typed))
+                    .forEach(completions::add);
+        } else if (match != null && match.endIndex() == args.length - 2
+                && args[match.endIndex()].equalsIgnoreCase("trim")) {
+            // Typing the end to trim
+            ModifyCommand modifyCommand = getModifyCommand();
+            if (modifyCommand != null) {
+                modifyCommand.getTrimEnds().stream()
+                        .filter(end -> end.startsWith(typed))
+                        .forEach(completions::add);
+            }
+        }
+
+        // The arguments may still be the start of a longer multi-word path name
+        if (match == null || match.endIndex() == args.length - 1) {
+            completions.addAll(suggestPartialPathNames(args, 1));
         }
 
         return completions;
     }
 
+    /**
+     * Gets the registered modify command, used to look up its available actions.
+     *
+     * @return The modify command, or null if it is not registered
+     */
+    private ModifyCommand getModifyCommand() {
+        for (SubCommand subCommand : subCommands) {
+            if (subCommand instanceof ModifyCommand modifyCommand) {
+                return modifyCommand;
+            }
+        }
+        return null;
+    }
+
     /**
      * Suggests path names for tab completion, considering both full and partial path names.
      *
@@ -216,10 +171,7 @@ public class TTTabCompleter implements TabCompleter {
         // If we're just starting to type a path name
         if (args.length == startIndex + 1) {
             // Simple case - suggest paths that start with the current argument
-            return pathRecorder.getPaths().values().stream()
-                    .map(Path::getName)
-                    .filter(name -> name.toLowerCase().startsWith(args[startIndex].toLowerCase()))
-                    .collect(Collectors.toList());
+            return pathRecorder.completePathNames(args[startIndex]);
         } else {
             // We might be typing a path name with spaces
             String partialPath = String.join(" ", Arrays.copyOfRange(args, startIndex, args.length - 1));
@@ -233,10 +185,7 @@ public class TTTabCompleter implements TabCompleter {
             String finalPartialPath = partialPath + lastArg;
 
             // Get all paths that start with our partial path
-            List<String> matchingPaths = pathRecorder.getPaths().values().stream()
-                    .map(Path::getName)
-                    .filter(name -> name.toLowerCase().startsWith(finalPartialPath.toLowerCase()))
-                    .collect(Collectors.toList());
+            List<String> matchingPaths = pathRecorder.completePathNames(finalPartialPath);
 
             // For tab completion with spaces, we want to suggest the next word or completion
             List<String> nextWordSuggestions = new ArrayList<>();
@@ -254,7 +203,7 @@ public class TTTabCompleter implements TabCompleter {
 
                     // Add this as the suggested completion
                     nextWordSuggestions.add(lastArg + remainingPart);
-                } else if (fullPath.length() == finalPartialPath.length() && fullPath.equalsIgnoreCase(finalPartialPath)) {
+                } else if (fullPath.length() == finalPartialPath.length()) {
                     // Exact match, add to suggestions to support continuing to the action
                     nextWordSuggestions.add(lastArg);
                 }
@@ -266,27 +215,12 @@ public class TTTabCompleter implements TabCompleter {
 
     /**
      * Helper method to find a completed path name from command arguments.
-     * Used for tab completion of subsequent arguments.
+     * Only arguments before the one being typed are considered.
      *
      * @param args The command arguments
-     * @return The matching path name, or null if no path was found
+     * @return The longest matching path name and where it ends, or null if no path was found
      */
-    private String findCompletedPathName(String[] args) {
-        // Try different combinations for path name
-        String longestMatch = null;
-
-        for (int i = 1; i < args.length - 1; i++) {
-            // Try using i arguments for the path name
-            String pathName = String.join(" ", Arrays.copyOfRange(args, 1, i + 1));
-
-            if (pathRecorder.getPaths().containsKey(pathName)) {
-                // Save the longest path match
-                if (longestMatch == null || pathName.length() > longestMatch.length()) {
-                    longestMatch = pathName;
-                }
-            }
-        }
-
-        return longestMatch;
+    private PathNameIndex.Match findCompletedPathName(String[] args) {
+        return pathRecorder.findLongestPathName(args, 1, args.length - 1);
     }
-}
\ No newline at end of file
+}
@@ -5,6 +5,7 @@ import org.bukkit.entity.Player;
 import se.alvarsjogren.trailTracker.Path;
 import se.alvarsjogren.trailTracker.PathRecorder;
 import se.alvarsjogren.trailTracker.TrailTracker;
+import se.alvarsjogren.trailTracker.api.events.PathModifiedEvent;
 import se.alvarsjogren.trailTracker.utilities.UITextComponents;
 
 import java.util.Arrays;
@@ -99,6 +100,7 @@ public class DescribeCommand implements SubCommand {
 
         // Update the description
         path.setDescription(description);
+        pathRecorder.firePathModified(path.getName(), PathModifiedEvent.Property.DESCRIPTION);
         player.sendMessage(UITextComponents.successMessage("Updated description for", pathName));
     }
 
@@ -7,7 +7,6 @@ import se.alvarsjogren.trailTracker.TrailTracker;
 import se.alvarsjogren.trailTracker.utilities.UITextComponents;
 
 import java.util.Arrays;
-import java.util.Set;
 
 /**
  * Command that controls path visibility for players.
@@ -73,14 +72,13 @@ public class DisplayCommand implements SubCommand {
         String pathName = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
 
         // Check if the path exists
-        if (!pathRecorder.getPaths().containsKey(pathName)) {
+        if (pathRecorder.getPath(pathName) == null) {
             player.sendMessage(UITextComponents.errorMessage("Path not found: " + pathName));
             return;
         }
 
         // Check if player is already displaying this path
-        Set<String> playerDisplayedPaths = pathRecorder.getDisplayedPaths().get(player.getUniqueId());
-        boolean isDisplaying = playerDisplayedPaths != null && playerDisplayedPaths.contains(pathName);
+        boolean isDisplaying = pathRecorder.isDisplayingPath(player.getUniqueId(), pathName);
 
         PathRecorder.Result result;
 
@@ -0,0 +1,86 @@
+package se.alvarsjogren.trailTracker.commands.subCommands;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import se.alvarsjogren.trailTracker.PathFollower;
+import se.alvarsjogren.trailTracker.PathRecorder;
+import se.alvarsjogren.trailTracker.TrailTracker;
+import se.alvarsjogren.trailTracker.utilities.UITextComponents;
+
+import java.util.Arrays;
+
+/**
+ * Command that guides the player along a path.
+ * Shows the stretch of path just ahead together with progress and remaining distance.
+ * Running it without a path name stops following.
+ */
+public class FollowCommand implements SubCommand {
+    /** Reference to the PathFollower that guides players */
+    private final PathFollower pathFollower;
+
+    /**
+     * Creates a new FollowCommand.
+     *
+     * @param plugin The TrailTracker plugin instance
+     */
+    public FollowCommand(TrailTracker plugin) {
+        this.pathFollower = plugin.pathRecorder.getPathFollower();
+    }
+
+    @Override
+    public String getName() {
+        return "follow";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Guides you along the path.";
+    }
+
+    @Override
+    public String getSyntax() {
+        return "/tt follow [path]";
+    }
+
+    /**
+     * Starts or stops following a path.
+     *
+     * @param sender The command sender (must be a player)
+     * @param args The command arguments (args[1+] combine to form path name, none to stop)
+     */
+    @Override
+    public void perform(CommandSender sender, String[] args) {
+        // Command can only be executed by players
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage(UITextComponents.errorMessage("Only a player can use this command."));
+            return;
+        }
+
+        // Check permissions
+        if (!player.hasPermission("TrailTracker.follow")) {
+            player.sendMessage(UITextComponents.errorMessage("You are not allowed to use that command."));
+            return;
+        }
+
+        // Without a path name, stop following
+        if (args.length < 2) {
+            String followedPath = pathFollower.getFollowedPath(player.getUniqueId());
+            if (followedPath != null && pathFollower.stopFollowing(player.getUniqueId())) {
+                player.sendMessage(UITextComponents.successMessage("Stopped following path", followedPath));
+            } else {
+                player.sendMessage(UITextComponents.errorMessage("You are not following a path. Use /tt follow <path>"));
+            }
+            return;
+        }
+
+        // Combine all remaining arguments for path name to allow spaces
+        String pathName = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
+
+        PathRecorder.Result result = pathFollower.startFollowing(player, pathName);
+        if (result.flag) {
+            player.sendMessage(UITextComponents.successMessage("Following path", pathName));
+        } else {
+            player.sendMessage(UITextComponents.errorMessage(result.message));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package se.alvarsjogren.trailTracker.commands.subCommands;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import se.alvarsjogren.trailTracker.PathRecorder;
+import se.alvarsjogren.trailTracker.PathTraffic;
+import se.alvarsjogren.trailTracker.TrailTracker;
+import se.alvarsjogren.trailTracker.utilities.UITextComponents;
+
+import java.util.Arrays;
+
+/**
+ * Command that shows how much a path is travelled.
+ * Draws the path with particles colored from grey (never passed) through yellow
+ * to red (most passed). Running it without a path name hides the heatmap.
+ */
+public class HeatmapCommand implements SubCommand {
+    /** Reference to the PathTraffic that holds the traffic counts */
+    private final PathTraffic pathTraffic;
+
+    /**
+     * Creates a new HeatmapCommand.
+     *
+     * @param plugin The TrailTracker plugin instance
+     */
+    public HeatmapCommand(TrailTracker plugin) {
+        this.pathTraffic = plugin.pathRecorder.getPathTraffic();
+    }
+
+    @Override
+    public String getName() {
+        return "heatmap";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Shows how much the path is travelled.";
+    }
+
+    @Override
+    public String getSyntax() {
+        return "/tt heatmap [path]";
+    }
+
+    /**
+     * Shows or hides the heatmap of a path.
+     *
+     * @param sender The command sender (must be a player)
+     * @param args The command arguments (args[1+] combine to form path name, none to hide)
+     */
+    @Override
+    public void perform(CommandSender sender, String[] args) {
+        // Command can only be executed by players
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage(UITextComponents.errorMessage("Only a player can use this command."));
+            return;
+        }
+
+        // Check permissions
+        if (!player.hasPermission("TrailTracker.heatmap")) {
+            player.sendMessage(UITextComponents.errorMessage("You are not allowed to use that command."));
+            return;
+        }
+
+        // Without a path name, hide the heatmap
+        if (args.length < 2) {
+            String viewedPath = pathTraffic.stopViewing(player.getUniqueId());
+            if (viewedPath != null) {
+                player.sendMessage(UITextComponents.successMessage("Stopped showing heatmap of", viewedPath));
+            } else {
+                player.sendMessage(UITextComponents.errorMessage("You are not viewing a heatmap. Use /tt heatmap <path>"));
+            }
+            return;
+        }
+
+        // Combine all remaining arguments for path name to allow spaces
+        String pathName = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
+
+        PathRecorder.Result result = pathTraffic.startViewing(player, pathName);
+        if (!result.flag) {
+            player.sendMessage(UITextComponents.errorMessage(result.message));
+            return;
+        }
+
+        player.sendMessage(UITextComponents.successMessage("Showing heatmap of", pathName));
+        if (!pathTraffic.isEnabled()) {
+            player.sendMessage(UITextComponents.errorMessage("Traffic tracking is disabled, so the heatmap is not updated."));
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.bukkit.entity.Player;
 import se.alvarsjogren.trailTracker.Path;
 import se.alvarsjogren.trailTracker.PathRecorder;
 import se.alvarsjogren.trailTracker.TrailTracker;
+import se.alvarsjogren.trailTracker.api.PathStatistics;
 import se.alvarsjogren.trailTracker.utilities.UITextComponents;
 
 import java.util.Arrays;
@@ -73,7 +74,7 @@ public class InfoCommand implements SubCommand {
 
         // Combine all remaining arguments for path name to allow spaces
         String pathName = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
-        Path path = pathRecorder.getPaths().get(pathName);
+        Path path = pathRecorder.getPath(pathName);
 
         // Check if path exists
         if (path == null) {
@@ -114,10 +115,22 @@ public class InfoCommand implements SubCommand {
                 .text("Number of Points: ")
                 .color(TextColor.color(0xE78B48))
                 .append(Component
-                        .text(String.valueOf(path.getTrackedPath().size()))
+                        .text(String.valueOf(path.getPointCount()))
                         .color(TextColor.color(0xF5C45E)));
         player.sendMessage(points);
 
+        // Derived statistics, cached on the path so no points are scanned here
+        PathStatistics statistics = path.getStatistics();
+        player.sendMessage(infoLine("Length: ", String.format("%.1f blocks", statistics.length())));
+        player.sendMessage(infoLine("Elevation: ", String.format("+%.1f / -%.1f blocks",
+                statistics.elevationGain(), statistics.elevationLoss())));
+        if (statistics.pointCount() > 0) {
+            player.sendMessage(infoLine("Bounds: ", String.format("%d, %d, %d to %d, %d, %d",
+                    (int) Math.floor(statistics.minX()), (int) Math.floor(statistics.minY()), (int) Math.floor(statistics.minZ()),
+                    (int) Math.floor(statistics.maxX()), (int) Math.floor(statistics.maxY()), (int) Math.floor(statistics.maxZ()))));
+        }
+        player.sendMessage(infoLine("Estimated Walk Time: ", formatDuration(statistics.getEstimatedWalkSeconds())));
+
         // Detection radius
         final TextComponent radius = Component
                 .text("Detection Radius: ")
@@ -138,12 +151,7 @@ public class InfoCommand implements SubCommand {
         player.sendMessage(status);
 
         // Count how many players are currently displaying this path
-        int displayCount = 0;
-        for (var entry : pathRecorder.getDisplayedPaths().entrySet()) {
-            if (entry.getValue().contains(path.getName())) {
-                displayCount++;
-            }
-        }
+        int displayCount = pathRecorder.getViewerCount(path.getName());
 
         final TextComponent displayed = Component
                 .text("Displayed by: ")
@@ -160,4 +168,33 @@ public class InfoCommand implements SubCommand {
         player.sendMessage(footer);
         player.sendMessage("\n");
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates a single "label: value" line in the info display style.
+     *
+     * @param label The label text, including its trailing separator
+     * @param value The value text
+     * @return The formatted line
+     */
+    private TextComponent infoLine(String label, String value) {
+        return Component
+                .text(label)
+                .color(TextColor.color(0xE78B48))
+                .append(Component
+                        .text(value)
+                        .color(TextColor.color(0xF5C45E)));
+    }
+
+    /**
+     * Formats a duration in seconds as minutes and seconds.
+     *
+     * @param seconds The duration in seconds
+     * @return A short human-readable duration such as "3m 12s"
+     */
+    private String formatDuration(double seconds) {
+        long totalSeconds = Math.round(seconds);
+        long minutes = totalSeconds / 60;
+        long remainder = totalSeconds % 60;
+        return minutes > 0 ? minutes + "m " + remainder + "s" : remainder + "s";
+    }
+}
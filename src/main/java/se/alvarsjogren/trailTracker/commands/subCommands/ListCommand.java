@@ -5,17 +5,30 @@ import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.format.TextColor;
 import org.bukkit.command.CommandSender;
 import se.alvarsjogren.trailTracker.Path;
+import se.alvarsjogren.trailTracker.PathListIndex;
 import se.alvarsjogren.trailTracker.PathRecorder;
 import se.alvarsjogren.trailTracker.TrailTracker;
+import se.alvarsjogren.trailTracker.utilities.UITextComponents;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
 
 /**
- * Command that lists all available paths.
- * Displays a formatted list of all paths with their descriptions.
+ * Command that lists available paths.
+ * Displays a paginated, optionally sorted and filtered list of paths with their descriptions.
  */
 public class ListCommand implements SubCommand {
     /** Reference to the PathRecorder for accessing path information */
     private final PathRecorder pathRecorder;
 
+    /** Reference to the main plugin instance, used to read the page size */
+    private final TrailTracker plugin;
+
+    /** Options accepted in key:value form, used for tab completion */
+    private final List<String> availableOptions = List.of("sort:name", "sort:date", "sort:points", "creator:", "world:");
+
     /**
      * Creates a new ListCommand.
      *
@@ -23,6 +36,7 @@ public class ListCommand implements SubCommand {
      */
     public ListCommand(TrailTracker plugin) {
         this.pathRecorder = plugin.pathRecorder;
+        this.plugin = plugin;
     }
 
     @Override
@@ -32,26 +46,92 @@ public class ListCommand implements SubCommand {
 
     @Override
     public String getDescription() {
-        return "Lists all paths.";
+        return "Lists paths, optionally sorted and filtered.";
     }
 
     @Override
     public String getSyntax() {
-        return "/tt list";
+        return "/tt list [page] [sort:name|date|points] [creator:<player>] [world:<world>]";
     }
 
     /**
-     * Lists all available paths in a formatted display.
+     * Lists one page of paths in a formatted display.
      * Shows path names and descriptions using Adventure API for rich text formatting.
-     * This command can be used by any sender (player or console).
+     * Paths come from a pre-sorted index and components are only built for the
+     * requested page. This command can be used by any sender (player or console).
      *
      * @param sender The command sender
-     * @param args The command arguments (not used)
+     * @param args The command arguments (args[1+] = page number and key:value options in any order)
      */
     @Override
     public void perform(CommandSender sender, String[] args) {
         // No permission check needed as this is visible to everyone
 
+        int page = 1;
+        PathListIndex.SortOrder order = PathListIndex.SortOrder.NAME;
+        String creator = null;
+        String world = null;
+
+        // Parse page number and options
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            String lowerArg = arg.toLowerCase();
+
+            if (lowerArg.startsWith("sort:")) {
+                order = PathListIndex.SortOrder.fromString(arg.substring(5));
+                if (order == null) {
+                    sender.sendMessage(UITextComponents.errorMessage("Unknown sort order. Use name, date or points."));
+                    return;
+                }
+            } else if (lowerArg.startsWith("creator:")) {
+                creator = arg.substring(8);
+            } else if (lowerArg.startsWith("world:")) {
+                world = arg.substring(6);
+            } else {
+                try {
+                    page = Integer.parseInt(arg);
+                } catch (NumberFormatException e) {
+                    sender.sendMessage(UITextComponents.errorMessage("Wrong usage. Use " + getSyntax()));
+                    return;
+                }
+                if (page < 1) {
+                    sender.sendMessage(UITextComponents.errorMessage("Page must be a positive number."));
+                    return;
+                }
+            }
+        }
+
+        Predicate<Path> filter = buildFilter(creator, world);
+        int pageSize = Math.max(1, plugin.getConfig().getInt("list-page-size", 10));
+
+        // Unfiltered lists are counted from the index; filtered lists are counted
+        // and paged in a single walk, since the filter has to visit every path anyway
+        long skip = (long) (page - 1) * pageSize;
+        List<Path> pagePaths;
+        long totalPaths;
+        if (filter == null) {
+            totalPaths = pathRecorder.getPathCount();
+            pagePaths = pathRecorder.getSortedPaths(order).skip(skip).limit(pageSize).toList();
+        } else {
+            pagePaths = new ArrayList<>(pageSize);
+            long matched = 0;
+            Iterator<Path> matches = pathRecorder.getSortedPaths(order).filter(filter).iterator();
+            while (matches.hasNext()) {
+                Path path = matches.next();
+                if (matched >= skip && pagePaths.size() < pageSize) {
+                    pagePaths.add(path);
+                }
+                matched++;
+            }
+            totalPaths = matched;
+        }
+        int totalPages = (int) Math.max(1, (totalPaths + pageSize - 1) / pageSize);
+
+        if (page > totalPages) {
+            sender.sendMessage(UITextComponents.errorMessage("Page " + page + " does not exist. There are " + totalPages + " page(s)."));
+            return;
+        }
+
         // Start with a blank line for cleaner output
         sender.sendMessage("\n");
 
@@ -64,16 +144,22 @@ public class ListCommand implements SubCommand {
                 .append(Component.text("Tracker ")
                         .color(TextColor.color(0xBE3D2A)))
                 .append(Component
-                        .text("Paths ===")
+                        .text("Paths (" + page + "/" + totalPages + ") ===")
                         .color(TextColor.color(0xE78B48)));
         sender.sendMessage(header);
 
-        // List all paths with their descriptions
-        for (Path path : pathRecorder.getPaths().values()) {
-            final TextComponent item = Component
+        // List the paths on this page with their descriptions
+        for (Path path : pagePaths) {
+            sender.sendMessage(Component
                     .text(path.getName() + " - " + path.getDescription())
-                    .color(TextColor.color(0xF5C45E));
-            sender.sendMessage(item);
+                    .color(TextColor.color(0xF5C45E)));
+        }
+
+        // Hint how to reach the next page
+        if (page < totalPages) {
+            sender.sendMessage(Component
+                    .text("Use " + buildPageCommand(page + 1, order, creator, world) + " for the next page.")
+                    .color(TextColor.color(0xE78B48)));
         }
 
         // Create styled footer
@@ -85,4 +171,56 @@ public class ListCommand implements SubCommand {
         // End with a blank line for cleaner output
         sender.sendMessage("\n");
     }
-}
\ No newline at end of file
+
+    /**
+     * Builds the command that lists another page with the same sort order and filters.
+     *
+     * @param page The page to list
+     * @param order The sort order of the list
+     * @param creator The creator filter, or null for any creator
+     * @param world The world filter, or null for any world
+     * @return The command to type
+     */
+    private String buildPageCommand(int page, PathListIndex.SortOrder order, String creator, String world) {
+        StringBuilder command = new StringBuilder("/tt list ").append(page);
+        if (order != PathListIndex.SortOrder.NAME) {
+            command.append(" sort:").append(order.name().toLowerCase());
+        }
+        if (creator != null) {
+            command.append(" creator:").append(creator);
+        }
+        if (world != null) {
+            command.append(" world:").append(world);
+        }
+        return command.toString();
+    }
+
+    /**
+     * Builds the filter for the creator and world options.
+     *
+     * @param creator The creator to filter by, or null for any creator
+     * @param world The world name to filter by, or null for any world
+     * @return The combined filter, or null if no filter was given
+     */
+    private Predicate<Path> buildFilter(String creator, String world) {
+        Predicate<Path> filter = null;
+        if (creator != null) {
+            filter = path -> creator.equalsIgnoreCase(path.getCreatedBy());
+        }
+        if (world != null) {
+            Predicate<Path> worldFilter = path -> world.equalsIgnoreCase(path.getWorldName());
+            filter = filter == null ? worldFilter : filter.and(worldFilter);
+        }
+        return filter;
+    }
+
+    /**
+     * Gets the options accepted in key:value form.
+     * Used for tab completion.
+     *
+     * @return List of available options
+     */
+    public List<String> getAvailableOptions() {
+        return availableOptions;
+    }
+}
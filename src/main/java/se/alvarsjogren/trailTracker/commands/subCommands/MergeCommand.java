@@ -0,0 +1,174 @@
+package se.alvarsjogren.trailTracker.commands.subCommands;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextColor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import se.alvarsjogren.trailTracker.Path;
+import se.alvarsjogren.trailTracker.PathDeduplicator;
+import se.alvarsjogren.trailTracker.PathRecorder;
+import se.alvarsjogren.trailTracker.TrailTracker;
+import se.alvarsjogren.trailTracker.utilities.UITextComponents;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Command that finds and merges paths that retrace other paths.
+ * Without arguments it lists the likely duplicates. With one path it merges that
+ * path into the path it retraces; "into" names the path to keep explicitly.
+ * The comparison runs in the background and the result is reported when it is done.
+ */
+public class MergeCommand implements SubCommand {
+    /** Reference to the main plugin instance */
+    private final TrailTracker plugin;
+
+    /** Reference to the PathRecorder for merging paths */
+    private final PathRecorder pathRecorder;
+
+    /**
+     * Creates a new MergeCommand.
+     *
+     * @param plugin The TrailTracker plugin instance
+     */
+    public MergeCommand(TrailTracker plugin) {
+        this.plugin = plugin;
+        this.pathRecorder = plugin.pathRecorder;
+    }
+
+    @Override
+    public String getName() {
+        return "merge";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Lists or merges paths that retrace another path.";
+    }
+
+    @Override
+    public String getSyntax() {
+        return "/tt merge [path] [into <path>]";
+    }
+
+    /**
+     * Lists duplicate paths or merges one into the path it retraces.
+     *
+     * @param sender The command sender
+     * @param args The command arguments (args[1+] form the path name, optionally followed by "into" and the path to keep)
+     */
+    @Override
+    public void perform(CommandSender sender, String[] args) {
+        // Check permissions
+        if (!sender.hasPermission("TrailTracker.merge")) {
+            sender.sendMessage(UITextComponents.errorMessage("You are not allowed to use that command."));
+            return;
+        }
+
+        PathDeduplicator deduplicator = pathRecorder.getPathDeduplicator();
+        if (args.length < 2) {
+            sender.sendMessage(UITextComponents.successMessage("Looking for", "duplicate paths"));
+            runAsync(deduplicator::analyze).whenComplete((duplicates, error) ->
+                    report(sender, () -> listDuplicates(sender, duplicates, error)));
+            return;
+        }
+
+        String[] names = splitNames(args);
+        String pathName = names[0];
+        String canonicalName = names[1];
+        if (canonicalName == null) {
+            Path path = pathRecorder.getPath(pathName);
+            if (path == null) {
+                sender.sendMessage(UITextComponents.errorMessage("There is no path with that name. Use /tt list to see all paths."));
+                return;
+            }
+
+            runAsync(() -> {
+                PathDeduplicator.Duplicate duplicate = deduplicator.findCanonical(path);
+                return duplicate == null ? null : pathRecorder.mergePaths(pathName, duplicate.canonicalName());
+            }).whenComplete((result, error) -> report(sender, () -> {
+                if (error == null && result == null) {
+                    sender.sendMessage(UITextComponents.errorMessage(pathName + " does not retrace another path. Use /tt merge <path> into <path>"));
+                } else {
+                    reportMerge(sender, pathName, result, error);
+                }
+            }));
+            return;
+        }
+
+        runAsync(() -> pathRecorder.mergePaths(pathName, canonicalName))
+                .whenComplete((result, error) -> report(sender, () -> reportMerge(sender, pathName, result, error)));
+    }
+
+    /**
+     * Splits the arguments into the path to merge and the path to keep.
+     * Path names may contain spaces and even the word "into", so the first split
+     * where both sides are existing path names is used.
+     *
+     * @param args The command arguments
+     * @return The path to merge and the path to keep, which is null if not given
+     */
+    private String[] splitNames(String[] args) {
+        for (int i = 2; i < args.length - 1; i++) {
+            if (!args[i].equalsIgnoreCase("into")) {
+                continue;
+            }
+            String pathName = String.join(" ", Arrays.copyOfRange(args, 1, i));
+            String canonicalName = String.join(" ", Arrays.copyOfRange(args, i + 1, args.length));
+            if (pathRecorder.getPath(pathName) != null && pathRecorder.getPath(canonicalName) != null) {
+                return new String[]{pathName, canonicalName};
+            }
+        }
+        return new String[]{String.join(" ", Arrays.copyOfRange(args, 1, args.length)), null};
+    }
+
+    private void listDuplicates(CommandSender sender, List<PathDeduplicator.Duplicate> duplicates, Throwable error) {
+        if (error != null) {
+            sender.sendMessage(UITextComponents.errorMessage("Failed to compare paths. See the console for details."));
+            return;
+        }
+        if (duplicates.isEmpty()) {
+            sender.sendMessage(UITextComponents.successMessage("No path retraces", "another path"));
+            return;
+        }
+
+        sender.sendMessage(UITextComponents.successMessage("Paths that retrace another path:", String.valueOf(duplicates.size())));
+        for (PathDeduplicator.Duplicate duplicate : duplicates) {
+            sender.sendMessage(Component
+                    .text(duplicate.pathName() + " - " + Math.round(duplicate.overlap() * 100) + "% on " + duplicate.canonicalName())
+                    .color(TextColor.color(0xF5C45E)));
+        }
+        sender.sendMessage(Component
+                .text("Use /tt merge <path> to merge a path into the path it retraces.")
+                .color(TextColor.color(0xE78B48)));
+    }
+
+    private void reportMerge(CommandSender sender, String pathName, PathRecorder.Result result, Throwable error) {
+        if (error != null) {
+            plugin.getLogger().warning("Failed to merge path " + pathName + " - Error: " + error.getMessage());
+            sender.sendMessage(UITextComponents.errorMessage("Merge failed. See the console for details."));
+        } else if (result.flag) {
+            sender.sendMessage(UITextComponents.successMessage("Merged path", pathName));
+            sender.sendMessage(Component.text(result.message).color(TextColor.color(0xF5C45E)));
+        } else {
+            sender.sendMessage(UITextComponents.errorMessage(result.message));
+        }
+    }
+
+    private <T> CompletableFuture<T> runAsync(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, plugin.getTaskScheduler()::runAsync);
+    }
+
+    /**
+     * Sends a report from the right thread: a player's own thread, or directly for the console.
+     */
+    private void report(CommandSender sender, Runnable report) {
+        if (sender instanceof Player player) {
+            plugin.getTaskScheduler().runForEntity(player, report);
+        } else {
+            report.run();
+        }
+    }
+}
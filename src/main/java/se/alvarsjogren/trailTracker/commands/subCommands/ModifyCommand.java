@@ -1,11 +1,15 @@
 package se.alvarsjogren.trailTracker.commands.subCommands;
 
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextColor;
 import org.bukkit.Particle;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import se.alvarsjogren.trailTracker.Path;
+import se.alvarsjogren.trailTracker.PathNameIndex;
 import se.alvarsjogren.trailTracker.PathRecorder;
 import se.alvarsjogren.trailTracker.TrailTracker;
+import se.alvarsjogren.trailTracker.api.events.PathModifiedEvent;
 import se.alvarsjogren.trailTracker.utilities.ParticleUtilities;
 import se.alvarsjogren.trailTracker.utilities.UITextComponents;
 
@@ -14,14 +18,19 @@ import java.util.List;
 
 /**
  * Command that allows modification of existing path properties.
- * Supports modifying the detection radius, display particle, and description of a path.
+ * Supports modifying the detection radius, display particle, and description of a path,
+ * and editing its points: trimming either end, splitting it in two, reversing it and
+ * continuing its recording.
  */
 public class ModifyCommand implements SubCommand {
     /** Reference to the PathRecorder for accessing path information */
     private final PathRecorder pathRecorder;
 
     /** List of available modification actions */
-    private final List<String> availableActions = List.of("radius", "particle", "description");
+    private final List<String> availableActions = List.of("radius", "particle", "description", "trim", "split", "reverse", "append");
+
+    /** Ends of a path that can be trimmed */
+    private final List<String> trimEnds = List.of("start", "end");
 
     /**
      * Creates a new ModifyCommand.
@@ -48,8 +57,7 @@ public class ModifyCommand implements SubCommand {
     }
 
     /**
-     * Modifies a property of an existing path.
-     * Supports changing the detection radius, display particle, and description.
+     * Modifies a property or the points of an existing path.
      *
      * @param sender The command sender (must be a player)
      * @param args The command arguments (args[1] = path name, args[2] = action, args[3+] = value)
@@ -74,15 +82,17 @@ public class ModifyCommand implements SubCommand {
             return;
         }
 
-        // Find path name (which might contain spaces)
-        String pathName = findPathName(args);
-        if (pathName == null) {
+        // Find path name (which might contain spaces), leaving at least one argument for the action
+        PathNameIndex.Match match = findPathName(args);
+        if (match == null) {
             player.sendMessage(UITextComponents.errorMessage("Path not found. Use /tt list to see available paths."));
             return;
         }
 
+        String pathName = match.name();
+
         // Get the path object
-        Path path = pathRecorder.getPaths().get(pathName);
+        Path path = pathRecorder.getPath(pathName);
 
         // Check if path is being tracked
         if (pathRecorder.getTrackedPaths().containsValue(pathName)) {
@@ -90,20 +100,8 @@ public class ModifyCommand implements SubCommand {
             return;
         }
 
-        // Extract action and value
-        int pathEndIndex = -1;
-        for (int i = 1; i <= args.length - 2; i++) { // Need at least 2 more args after path
-            String testPath = String.join(" ", Arrays.copyOfRange(args, 1, i + 1));
-            if (testPath.equals(pathName)) {
-                pathEndIndex = i;
-                break;
-            }
-        }
-
-        if (pathEndIndex == -1 || pathEndIndex >= args.length - 1) {
-            player.sendMessage(UITextComponents.errorMessage("Please provide an action and value after the path name."));
-            return;
-        }
+        // The action follows directly after the path name
+        int pathEndIndex = match.endIndex() - 1;
 
         String action = args[pathEndIndex + 1].toLowerCase();
 
@@ -134,8 +132,102 @@ public class ModifyCommand implements SubCommand {
 
             String description = String.join(" ", Arrays.copyOfRange(args, pathEndIndex + 2, args.length));
             path.setDescription(description);
+            pathRecorder.firePathModified(path.getName(), PathModifiedEvent.Property.DESCRIPTION);
             player.sendMessage(UITextComponents.successMessage("Updated description for", path.getName()));
         }
+        else if (action.equals("trim")) {
+            // Trim needs the end and the number of points
+            if (pathEndIndex + 3 >= args.length || !trimEnds.contains(args[pathEndIndex + 2].toLowerCase())) {
+                player.sendMessage(UITextComponents.errorMessage("Wrong usage. Use /tt modify <path> trim <start|end> <points>"));
+                return;
+            }
+
+            handleTrim(player, path, args[pathEndIndex + 2].toLowerCase(), args[pathEndIndex + 3]);
+        }
+        else if (action.equals("split")) {
+            // Split needs the point and a name for the new path, which may contain spaces
+            if (pathEndIndex + 3 >= args.length) {
+                player.sendMessage(UITextComponents.errorMessage("Wrong usage. Use /tt modify <path> split <point> <new path>"));
+                return;
+            }
+
+            String newPathName = String.join(" ", Arrays.copyOfRange(args, pathEndIndex + 3, args.length));
+            handleSplit(player, path, args[pathEndIndex + 2], newPathName);
+        }
+        else if (action.equals("reverse")) {
+            PathRecorder.Result result = pathRecorder.reversePath(pathName);
+            if (result.flag) {
+                player.sendMessage(UITextComponents.successMessage("Reversed path", pathName));
+            } else {
+                player.sendMessage(UITextComponents.errorMessage(result.message));
+            }
+        }
+        else if (action.equals("append")) {
+            PathRecorder.Result result = pathRecorder.resumeTrackingPath(player.getUniqueId(), pathName, player.getWorld());
+            if (result.flag) {
+                player.sendMessage(UITextComponents.successMessage("Continued tracking path", pathName));
+            } else {
+                player.sendMessage(UITextComponents.errorMessage(result.message));
+            }
+        }
+    }
+
+    /**
+     * Removes points from the start or end of a path.
+     *
+     * @param player The player executing the command
+     * @param path The path to trim
+     * @param end The end to trim, "start" or "end"
+     * @param countStr The number of points to remove
+     */
+    private void handleTrim(Player player, Path path, String end, String countStr) {
+        int count;
+        try {
+            count = Integer.parseInt(countStr);
+        } catch (NumberFormatException e) {
+            player.sendMessage(UITextComponents.errorMessage("Invalid number of points. Please enter a number."));
+            return;
+        }
+        if (count <= 0) {
+            player.sendMessage(UITextComponents.errorMessage("The number of points must be a positive number."));
+            return;
+        }
+
+        int pointCount = path.getPointCount();
+        PathRecorder.Result result = end.equals("start")
+                ? pathRecorder.trimPath(path.getName(), Math.min(count, pointCount), pointCount)
+                : pathRecorder.trimPath(path.getName(), 0, Math.max(0, pointCount - count));
+        if (result.flag) {
+            player.sendMessage(UITextComponents.successMessage("Trimmed the " + end + " of", path.getName()));
+            player.sendMessage(Component.text(result.message).color(TextColor.color(0xF5C45E)));
+        } else {
+            player.sendMessage(UITextComponents.errorMessage(result.message));
+        }
+    }
+
+    /**
+     * Splits a path in two at a point.
+     *
+     * @param player The player executing the command
+     * @param path The path to split
+     * @param pointStr The index of the point to split at, counting from 0
+     * @param newPathName The name of the new path
+     */
+    private void handleSplit(Player player, Path path, String pointStr, String newPathName) {
+        int pointIndex;
+        try {
+            pointIndex = Integer.parseInt(pointStr);
+        } catch (NumberFormatException e) {
+            player.sendMessage(UITextComponents.errorMessage("Invalid point. Please enter a number."));
+            return;
+        }
+
+        PathRecorder.Result result = pathRecorder.splitPath(player.getUniqueId(), path.getName(), pointIndex, newPathName);
+        if (result.flag) {
+            player.sendMessage(UITextComponents.successMessage("Split path " + path.getName() + " into", newPathName));
+        } else {
+            player.sendMessage(UITextComponents.errorMessage(result.message));
+        }
     }
 
     /**
@@ -155,7 +247,8 @@ public class ModifyCommand implements SubCommand {
                     return;
                 }
 
-                path.setRadius(newRadius);
+                pathRecorder.setPathRadius(path, newRadius);
+                pathRecorder.firePathModified(path.getName(), PathModifiedEvent.Property.RADIUS);
                 player.sendMessage(UITextComponents.successMessage("Updated path radius to " + newRadius + " for", path.getName()));
             } catch (NumberFormatException e) {
                 player.sendMessage(UITextComponents.errorMessage("Invalid radius value. Please enter a number."));
@@ -173,6 +266,7 @@ public class ModifyCommand implements SubCommand {
                 }
 
                 path.setDisplayParticle(particle);
+                pathRecorder.firePathModified(path.getName(), PathModifiedEvent.Property.PARTICLE);
                 player.sendMessage(UITextComponents.successMessage("Updated display particle to " + particle.name() + " for", path.getName()));
             } catch (IllegalArgumentException e) {
                 player.sendMessage(UITextComponents.errorMessage("Invalid particle value. Please use a valid particle name."));
@@ -182,23 +276,13 @@ public class ModifyCommand implements SubCommand {
 
     /**
      * Helper method to find a valid path name from command arguments.
-     * Tries different combinations of arguments to match an existing path.
+     * Resolves the longest existing path name, leaving at least one argument for the action.
      *
      * @param args The command arguments
-     * @return The matching path name, or null if no path was found
+     * @return The matching path name and the index after it, or null if no path was found
      */
-    private String findPathName(String[] args) {
-        // Try different combinations for path name
-        for (int i = 1; i < args.length - 1; i++) {
-            // Try using i arguments for the path name
-            String pathName = String.join(" ", Arrays.copyOfRange(args, 1, i + 1));
-
-            if (pathRecorder.getPaths().containsKey(pathName)) {
-                return pathName;
-            }
-        }
-
-        return null;
+    private PathNameIndex.Match findPathName(String[] args) {
+        return pathRecorder.findLongestPathName(args, 1, args.length - 1);
     }
 
     /**
@@ -210,4 +294,14 @@ public class ModifyCommand implements SubCommand {
     public List<String> getAvailableActions() {
         return availableActions;
     }
+
+    /**
+     * Gets the ends of a path that can be trimmed.
+     * Used for tab completion.
+     *
+     * @return List of path ends
+     */
+    public List<String> getTrimEnds() {
+        return trimEnds;
+    }
 }
\ No newline at end of file
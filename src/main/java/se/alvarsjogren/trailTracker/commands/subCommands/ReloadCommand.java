@@ -0,0 +1,73 @@
+package se.alvarsjogren.trailTracker.commands.subCommands;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import se.alvarsjogren.trailTracker.TrailTracker;
+import se.alvarsjogren.trailTracker.utilities.UITextComponents;
+
+/**
+ * Command that reloads the configuration and all paths.
+ * The paths are reloaded in the background, and the sender is told when it finishes.
+ */
+public class ReloadCommand implements SubCommand {
+    /** Reference to the main plugin instance */
+    private final TrailTracker plugin;
+
+    /**
+     * Creates a new ReloadCommand.
+     *
+     * @param plugin The TrailTracker plugin instance
+     */
+    public ReloadCommand(TrailTracker plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public String getName() {
+        return "reload";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Reloads the configuration and all paths.";
+    }
+
+    @Override
+    public String getSyntax() {
+        return "/tt reload";
+    }
+
+    /**
+     * Starts a reload and reports the result once the paths have been re-indexed.
+     * Can be used from the console as well as by players with permission.
+     *
+     * @param sender The command sender
+     * @param args The command arguments (none besides the subcommand name)
+     */
+    @Override
+    public void perform(CommandSender sender, String[] args) {
+        // Check permissions
+        if (!sender.hasPermission("TrailTracker.reload")) {
+            sender.sendMessage(UITextComponents.errorMessage("You are not allowed to use that command."));
+            return;
+        }
+
+        sender.sendMessage(UITextComponents.successMessage("Reloading", "TrailTracker"));
+        plugin.reloadPlugin().whenComplete((pathCount, error) -> {
+            Runnable report = () -> {
+                if (error != null) {
+                    sender.sendMessage(UITextComponents.errorMessage("Reload failed. See the console for details."));
+                } else {
+                    sender.sendMessage(UITextComponents.successMessage("Reloaded paths:", String.valueOf(pathCount)));
+                }
+            };
+
+            // Messages to a player are sent from the player's own thread
+            if (sender instanceof Player player) {
+                plugin.getTaskScheduler().runForEntity(player, report);
+            } else {
+                report.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,86 @@
+package se.alvarsjogren.trailTracker.commands.subCommands;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import se.alvarsjogren.trailTracker.PathRecorder;
+import se.alvarsjogren.trailTracker.PathReplayer;
+import se.alvarsjogren.trailTracker.TrailTracker;
+import se.alvarsjogren.trailTracker.utilities.UITextComponents;
+
+import java.util.Arrays;
+
+/**
+ * Command that replays a recorded path as a moving particle ghost.
+ * The ghost moves at the speed the path was recorded. Running it without
+ * a path name stops the replay.
+ */
+public class ReplayCommand implements SubCommand {
+    /** Reference to the PathReplayer that runs replays */
+    private final PathReplayer pathReplayer;
+
+    /**
+     * Creates a new ReplayCommand.
+     *
+     * @param plugin The TrailTracker plugin instance
+     */
+    public ReplayCommand(TrailTracker plugin) {
+        this.pathReplayer = plugin.pathRecorder.getPathReplayer();
+    }
+
+    @Override
+    public String getName() {
+        return "replay";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Replays the path as it was recorded.";
+    }
+
+    @Override
+    public String getSyntax() {
+        return "/tt replay [path]";
+    }
+
+    /**
+     * Starts or stops a replay.
+     *
+     * @param sender The command sender (must be a player)
+     * @param args The command arguments (args[1+] combine to form path name, none to stop)
+     */
+    @Override
+    public void perform(CommandSender sender, String[] args) {
+        // Command can only be executed by players
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage(UITextComponents.errorMessage("Only a player can use this command."));
+            return;
+        }
+
+        // Check permissions
+        if (!player.hasPermission("TrailTracker.replay")) {
+            player.sendMessage(UITextComponents.errorMessage("You are not allowed to use that command."));
+            return;
+        }
+
+        // Without a path name, stop the replay
+        if (args.length < 2) {
+            String replayedPath = pathReplayer.stopReplay(player.getUniqueId());
+            if (replayedPath != null) {
+                player.sendMessage(UITextComponents.successMessage("Stopped replaying", replayedPath));
+            } else {
+                player.sendMessage(UITextComponents.errorMessage("You are not watching a replay. Use /tt replay <path>"));
+            }
+            return;
+        }
+
+        // Combine all remaining arguments for path name to allow spaces
+        String pathName = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
+
+        PathRecorder.Result result = pathReplayer.startReplay(player, pathName);
+        if (result.flag) {
+            player.sendMessage(UITextComponents.successMessage("Replaying", pathName));
+        } else {
+            player.sendMessage(UITextComponents.errorMessage(result.message));
+        }
+    }
+}
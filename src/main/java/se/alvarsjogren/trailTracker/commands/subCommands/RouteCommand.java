@@ -0,0 +1,117 @@
+package se.alvarsjogren.trailTracker.commands.subCommands;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextColor;
+import org.bukkit.Location;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import se.alvarsjogren.trailTracker.Path;
+import se.alvarsjogren.trailTracker.PathNetwork;
+import se.alvarsjogren.trailTracker.PathRecorder;
+import se.alvarsjogren.trailTracker.TrailTracker;
+import se.alvarsjogren.trailTracker.api.PathRoute;
+import se.alvarsjogren.trailTracker.utilities.UITextComponents;
+
+import java.util.Arrays;
+
+/**
+ * Command that finds the shortest way along the path network to a path.
+ * The route starts at the path closest to the player and lists the paths
+ * to take, switching where two paths meet.
+ */
+public class RouteCommand implements SubCommand {
+    /** Reference to the PathRecorder for finding paths */
+    private final PathRecorder pathRecorder;
+
+    /**
+     * Creates a new RouteCommand.
+     *
+     * @param plugin The TrailTracker plugin instance
+     */
+    public RouteCommand(TrailTracker plugin) {
+        this.pathRecorder = plugin.pathRecorder;
+    }
+
+    @Override
+    public String getName() {
+        return "route";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Shows which paths lead to the path.";
+    }
+
+    @Override
+    public String getSyntax() {
+        return "/tt route <path>";
+    }
+
+    /**
+     * Finds and lists the route from the player to a path.
+     *
+     * @param sender The command sender (must be a player)
+     * @param args The command arguments (args[1+] combine to form path name)
+     */
+    @Override
+    public void perform(CommandSender sender, String[] args) {
+        // Command can only be executed by players
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage(UITextComponents.errorMessage("Only a player can use this command."));
+            return;
+        }
+
+        // Check permissions
+        if (!player.hasPermission("TrailTracker.route")) {
+            player.sendMessage(UITextComponents.errorMessage("You are not allowed to use that command."));
+            return;
+        }
+
+        // Validate arguments
+        if (args.length < 2) {
+            player.sendMessage(UITextComponents.errorMessage("You need to enter a path name. " + getSyntax()));
+            return;
+        }
+
+        // Combine all remaining arguments for path name to allow spaces
+        String pathName = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
+        Path path = pathRecorder.getPath(pathName);
+        if (path == null) {
+            player.sendMessage(UITextComponents.errorMessage("There is no path with that name. Use /tt list to see all paths."));
+            return;
+        }
+        if (pathRecorder.isPathBeingRecorded(pathName)) {
+            player.sendMessage(UITextComponents.errorMessage("The path is still being recorded."));
+            return;
+        }
+
+        Location location = player.getLocation();
+        PathRoute route = pathRecorder.getPathNetwork().findRoute(location.getWorld(),
+                location.getX(), location.getY(), location.getZ(), path);
+        if (route == null) {
+            if (pathRecorder.findNearestPath(location.getWorld(), location.getX(), location.getY(), location.getZ(),
+                    PathNetwork.ACCESS_DISTANCE) == null) {
+                player.sendMessage(UITextComponents.errorMessage("You are not near any path."));
+            } else {
+                player.sendMessage(UITextComponents.errorMessage("There is no route to that path from here."));
+            }
+            return;
+        }
+
+        if (route.length() == 0) {
+            player.sendMessage(UITextComponents.successMessage("You are already on", pathName));
+            return;
+        }
+
+        player.sendMessage(UITextComponents.successMessage("Route to", pathName));
+        int legNumber = 1;
+        for (PathRoute.Leg leg : route.legs()) {
+            player.sendMessage(Component
+                    .text(legNumber++ + ". " + leg.pathName() + " - " + Math.round(leg.length()) + " blocks")
+                    .color(TextColor.color(0xF5C45E)));
+        }
+        player.sendMessage(Component
+                .text("Total: " + Math.round(route.length()) + " blocks. Use /tt follow <path> to be guided along each path.")
+                .color(TextColor.color(0xE78B48)));
+    }
+}
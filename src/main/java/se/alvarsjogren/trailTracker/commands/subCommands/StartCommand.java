@@ -71,7 +71,7 @@ public class StartCommand implements SubCommand {
         String pathName = String.join(" ", Arrays.copyOfRange(args, 1, args.length));
 
         // Attempt to start tracking the path
-        PathRecorder.Result result = pathRecorder.startTrackingPath(player.getUniqueId(), player.getName(), pathName);
+        PathRecorder.Result result = pathRecorder.startTrackingPath(player.getUniqueId(), player.getName(), pathName, player.getWorld());
 
         // Display appropriate success/error message
         if (result.flag) {
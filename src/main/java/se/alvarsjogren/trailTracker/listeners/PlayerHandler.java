@@ -5,7 +5,6 @@ import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.Location;
-import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
@@ -13,7 +12,12 @@ import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import se.alvarsjogren.trailTracker.Path;
 import se.alvarsjogren.trailTracker.PathRecorder;
+import se.alvarsjogren.trailTracker.PathTraffic;
 import se.alvarsjogren.trailTracker.TrailTracker;
+import se.alvarsjogren.trailTracker.api.PathHit;
+import se.alvarsjogren.trailTracker.api.events.PlayerEnterPathEvent;
+import se.alvarsjogren.trailTracker.api.events.PlayerLeavePathEvent;
+import se.alvarsjogren.trailTracker.utilities.UITextComponents;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -22,6 +26,9 @@ import java.util.concurrent.ConcurrentHashMap;
  * Listens for player movement events to handle path tracking and display.
  */
 public class PlayerHandler implements Listener {
+    /** Reference to the main plugin instance, used to fire events */
+    private final TrailTracker plugin;
+
     /** Reference to the PathRecorder for tracking and displaying paths */
     private final PathRecorder pathRecorder;
 
@@ -34,6 +41,9 @@ public class PlayerHandler implements Listener {
     /** Maps player UUIDs to the path they are currently on */
     private final Map<UUID, String> currentPlayerPaths = new ConcurrentHashMap<>();
 
+    /** Maps player UUIDs to the path point where their traffic was last counted */
+    private final Map<UUID, Integer> lastTrafficPoints = new ConcurrentHashMap<>();
+
     /** Maps player UUIDs to when they last received a path notification */
     private final Map<UUID, Long> lastNotificationTime = new ConcurrentHashMap<>();
 
@@ -47,6 +57,7 @@ public class PlayerHandler implements Listener {
      * @param plugin The TrailTracker plugin instance
      */
     public PlayerHandler(TrailTracker plugin) {
+        this.plugin = plugin;
         this.pathRecorder = plugin.pathRecorder;
 
         // Load message templates
@@ -89,7 +100,10 @@ public class PlayerHandler implements Listener {
             // and update the path with their new position
             if (pathRecorder.isPlayerTracking(player.getUniqueId())) {
                 showRecordingMessage(player);
-                pathRecorder.trackPaths(player);
+                if (!pathRecorder.trackPaths(player)) {
+                    player.sendMessage(UITextComponents.errorMessage(
+                            "You are outside the area paths can be recorded in. Points are skipped until you return."));
+                }
                 // Skip path detection while recording to ensure recording message always shows
                 return;
             }
@@ -101,14 +115,23 @@ public class PlayerHandler implements Listener {
 
     /**
      * Handles player quit events to clean up tracking data.
-     * Removes the player from notification tracking maps when they log out.
+     * Removes the player from notification tracking maps and stops displaying
+     * their paths when they log out.
      *
      * @param event The PlayerQuitEvent
      */
     @EventHandler
     public void onPlayerQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
+        String currentPathName = currentPlayerPaths.get(player.getUniqueId());
+        if (currentPathName != null) {
+            fireLeft(player, currentPathName);
+        }
         clearPlayerData(player.getUniqueId());
+        pathRecorder.stopDisplayingAllPaths(player.getUniqueId());
+        pathRecorder.getPathFollower().stopFollowing(player.getUniqueId());
+        pathRecorder.getPathReplayer().stopReplay(player.getUniqueId());
+        pathRecorder.getPathTraffic().stopViewing(player.getUniqueId());
     }
 
     /**
@@ -122,28 +145,14 @@ public class PlayerHandler implements Listener {
         String currentPathName = currentPlayerPaths.get(playerUUID);
         boolean foundPath = false;
         String foundPathName = null;
-        World playerWorld = player.getWorld();
-
-        // Check all paths to see if player is near any of them
-        for (Path path : pathRecorder.getPaths().values()) {
-            // Skip paths that are currently being recorded
-            if (!pathRecorder.getTrackedPaths().containsValue(path.getName())) {
-                // Check if player is near any point on this path
-                for (Location location : path.getTrackedPath()) {
-                    // Make sure the path location is in the same world as the player
-                    if (location.getWorld() != null && location.getWorld().equals(playerWorld)) {
-                        if (player.getLocation().distance(location) <= path.getRadius()) {
-                            foundPath = true;
-                            foundPathName = path.getName();
-                            break;
-                        }
-                    }
-                }
 
-                if (foundPath) {
-                    break; // Stop checking once we find a path the player is on
-                }
-            }
+        // The point grid only visits points near the player, in the player's world
+        Location playerLocation = player.getLocation();
+        PathHit hit = pathRecorder.findPathAt(player.getWorld(), playerLocation.getX(), playerLocation.getY(), playerLocation.getZ());
+        if (hit != null) {
+            foundPath = true;
+            foundPathName = hit.pathName();
+            countTraffic(playerUUID, hit, hit.pathName().equals(currentPathName));
         }
 
         // Handle path entry/exit and notifications
@@ -154,6 +163,13 @@ public class PlayerHandler implements Listener {
                 showPathNotification(player, foundPathName);
                 currentPlayerPaths.put(playerUUID, foundPathName);
                 lastNotificationTime.put(playerUUID, System.currentTimeMillis());
+
+                if (currentPathName != null) {
+                    fireLeft(player, currentPathName);
+                }
+                if (PlayerEnterPathEvent.hasListeners()) {
+                    plugin.getServer().getPluginManager().callEvent(new PlayerEnterPathEvent(player, foundPathName));
+                }
             } else {
                 // Player is still on the same path - check if we should show a reminder
                 long lastTime = lastNotificationTime.getOrDefault(playerUUID, 0L);
@@ -170,10 +186,43 @@ public class PlayerHandler implements Listener {
             if (currentPathName != null) {
                 // Player has left a path they were on
                 currentPlayerPaths.remove(playerUUID);
+                fireLeft(player, currentPathName);
             }
         }
     }
 
+    /**
+     * Counts a player's traffic at a path point, once per point they reach.
+     * Standing still or moving within the range of the same point is not counted again.
+     *
+     * @param playerUUID The UUID of the player
+     * @param hit The path point the player is at
+     * @param samePath Whether the player was already on this path
+     */
+    private void countTraffic(UUID playerUUID, PathHit hit, boolean samePath) {
+        PathTraffic traffic = pathRecorder.getPathTraffic();
+        if (!traffic.isEnabled()) {
+            return;
+        }
+
+        Integer lastPoint = lastTrafficPoints.get(playerUUID);
+        if (samePath && lastPoint != null && lastPoint == hit.pointIndex()) {
+            return;
+        }
+        lastTrafficPoints.put(playerUUID, hit.pointIndex());
+
+        Path path = pathRecorder.getPath(hit.pathName());
+        if (path != null) {
+            traffic.record(path, hit.pointIndex());
+        }
+    }
+
+    private void fireLeft(Player player, String pathName) {
+        if (PlayerLeavePathEvent.hasListeners()) {
+            plugin.getServer().getPluginManager().callEvent(new PlayerLeavePathEvent(player, pathName));
+        }
+    }
+
     /**
      * Shows a notification to a player about the path they are on.
      *
@@ -221,5 +270,6 @@ public class PlayerHandler implements Listener {
     public void clearPlayerData(UUID playerUUID) {
         currentPlayerPaths.remove(playerUUID);
         lastNotificationTime.remove(playerUUID);
+        lastTrafficPoints.remove(playerUUID);
     }
 }
\ No newline at end of file
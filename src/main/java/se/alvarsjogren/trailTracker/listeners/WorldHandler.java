@@ -0,0 +1,49 @@
+package se.alvarsjogren.trailTracker.listeners;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import se.alvarsjogren.trailTracker.utilities.StorageManager;
+
+/**
+ * Listens for worlds being loaded and unloaded so that path data
+ * for unloaded worlds can be paged out of memory and back in again.
+ */
+public class WorldHandler implements Listener {
+    /** Reference to the StorageManager that saves and restores path points */
+    private final StorageManager storageManager;
+
+    /**
+     * Creates a new WorldHandler listener.
+     *
+     * @param storageManager The StorageManager used to page path data in and out
+     */
+    public WorldHandler(StorageManager storageManager) {
+        this.storageManager = storageManager;
+    }
+
+    /**
+     * Handles world unload events.
+     * Saves and releases the points of every path in the unloaded world.
+     * Runs at MONITOR priority so cancelled unloads keep their paths in memory.
+     *
+     * @param event The WorldUnloadEvent
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        storageManager.unloadWorld(event.getWorld());
+    }
+
+    /**
+     * Handles world load events.
+     * Restores the points of paths that were paged out when the world was unloaded.
+     *
+     * @param event The WorldLoadEvent
+     */
+    @EventHandler
+    public void onWorldLoad(WorldLoadEvent event) {
+        storageManager.loadWorld(event.getWorld());
+    }
+}
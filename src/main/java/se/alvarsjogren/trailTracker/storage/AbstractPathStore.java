@@ -0,0 +1,84 @@
+package se.alvarsjogren.trailTracker.storage;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base class for stores that run blocking I/O on a single dedicated thread.
+ * One thread keeps operations in submission order and lets implementations use
+ * unsynchronized file handles and connections.
+ */
+abstract class AbstractPathStore implements PathStore {
+    /** Seconds to wait for pending operations when the store is closed */
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+
+    /**
+     * A blocking storage operation.
+     *
+     * @param <T> The result type
+     */
+    @FunctionalInterface
+    protected interface IoTask<T> {
+        T call() throws IOException;
+    }
+
+    /** Thread all operations of this store run on */
+    private final ExecutorService executor;
+
+    /**
+     * Creates the store's I/O thread.
+     *
+     * @param threadName Name of the I/O thread, shown in thread dumps
+     */
+    protected AbstractPathStore(String threadName) {
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs a blocking operation on the store's I/O thread.
+     *
+     * @param task The operation
+     * @param <T> The result type
+     * @return A future with the result, failing with the operation's IOException
+     */
+    protected <T> CompletableFuture<T> submit(IoTask<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Stops accepting operations and waits for pending ones, then releases resources.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        closeResources();
+    }
+
+    /**
+     * Releases resources once no more operations can run.
+     */
+    protected void closeResources() {
+    }
+}
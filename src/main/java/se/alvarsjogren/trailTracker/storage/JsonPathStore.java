@@ -0,0 +1,574 @@
+package se.alvarsjogren.trailTracker.storage;
+
+import com.google.gson.*;
+import org.bukkit.util.BoundingBox;
+import se.alvarsjogren.trailTracker.MappedPointBuffer;
+import se.alvarsjogren.trailTracker.Path;
+import se.alvarsjogren.trailTracker.PointBuffer;
+import se.alvarsjogren.trailTracker.PointStorage;
+import se.alvarsjogren.trailTracker.TrailTracker;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores every path in its own JSON file in the configured path folder.
+ * Files can optionally be GZIP compressed, and the points of large paths are kept
+ * in a separate binary point file that is memory-mapped when loaded.
+ */
+public class JsonPathStore extends AbstractPathStore {
+    /**
+     * Logger for files that cannot be read or moved
+     */
+    private final Logger logger;
+
+    /**
+     * Directory where path files are stored
+     */
+    private final File pathsFolder;
+
+    /**
+     * Whether path files are written GZIP compressed.
+     * Reading detects the format per file, so both kinds can coexist.
+     */
+    private final boolean compress;
+
+    /**
+     * Point count from which a path's points are saved to a memory-mapped point file
+     * instead of inline in its JSON file (0 = never)
+     */
+    private final int mappedPointsThreshold;
+
+    /**
+     * Creates a new JsonPathStore.
+     * Sets up the storage directory based on configuration.
+     *
+     * @param plugin The TrailTracker plugin instance
+     */
+    public JsonPathStore(TrailTracker plugin) {
+        this(new File(plugin.getDataFolder(), readPathFolder(plugin)), readCompression(plugin),
+                plugin.getConfig().getInt("mapped-points-threshold", 100000), plugin.getLogger());
+    }
+
+    /**
+     * Creates a new JsonPathStore with explicit settings, creating the folder if needed.
+     *
+     * @param pathsFolder Directory where path files are stored
+     * @param compress Whether path files are written GZIP compressed
+     * @param mappedPointsThreshold Point count from which points go to a point file (0 = never)
+     * @param logger Logger for files that cannot be read or moved
+     */
+    JsonPathStore(File pathsFolder, boolean compress, int mappedPointsThreshold, Logger logger) {
+        super("TrailTracker-JsonStore");
+        this.logger = logger;
+        this.pathsFolder = pathsFolder;
+        this.compress = compress;
+        this.mappedPointsThreshold = Math.max(0, mappedPointsThreshold);
+
+        // Create the folder if it doesn't exist
+        if (!pathsFolder.exists()) {
+            if (pathsFolder.mkdirs()) {
+                logger.info("Created path folder: " + pathsFolder.getAbsolutePath());
+            } else {
+                logger.warning("Failed to create path folder: " + pathsFolder.getAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * Reads the path folder from config, relative to the plugin's data folder.
+     *
+     * @param plugin The TrailTracker plugin instance
+     * @return The folder name
+     */
+    private static String readPathFolder(TrailTracker plugin) {
+        // Get the path folder from the config file (use default "paths" if not set)
+        String folderPath = plugin.getConfig().getString("path-folder", "paths");
+
+        // Validate folder path to prevent invalid paths
+        if (folderPath.trim().isEmpty()) {
+            plugin.getLogger().warning("Invalid path folder specified in config. Using default 'paths'.");
+            folderPath = "paths"; // Fallback to default if config is invalid
+        }
+        return folderPath;
+    }
+
+    /**
+     * Reads whether path files are compressed from config.
+     *
+     * @param plugin The TrailTracker plugin instance
+     * @return true if path files are written GZIP compressed
+     */
+    private static boolean readCompression(TrailTracker plugin) {
+        String compression = plugin.getConfig().getString("compression", "none");
+        if (!compression.equalsIgnoreCase("none") && !compression.equalsIgnoreCase("gzip")) {
+            plugin.getLogger().warning("Unknown compression '" + compression + "' in config. Using 'none'.");
+        }
+        return compression.equalsIgnoreCase("gzip");
+    }
+
+    @Override
+    public String getDescription() {
+        return compress ? "json, gzip" : "json";
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Path>> loadAll() {
+        return submit(this::readAll);
+    }
+
+    @Override
+    public CompletableFuture<PointStorage> loadPoints(String pathName) {
+        return submit(() -> {
+            File pathFile = getPathFile(pathName);
+            if (!pathFile.exists()) {
+                return null;
+            }
+
+            Path stored = readPath(pathFile);
+            return stored == null ? null : stored.getTrackedPath();
+        });
+    }
+
+    /**
+     * Lists metadata by reading every path file.
+     * Inline points are parsed too, so this costs as much as loading all paths.
+     */
+    @Override
+    public CompletableFuture<List<PathMetadata>> listMetadata() {
+        return submit(() -> {
+            List<PathMetadata> result = new ArrayList<>();
+            for (Path path : readAll().values()) {
+                result.add(new PathMetadata(path.getName(), path.getWorldName(), path.getCreatedBy(),
+                        path.getCreationDate(), path.getPointCount()));
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public CompletableFuture<WriteResult> savePath(Path path) {
+        return submit(() -> writePath(path));
+    }
+
+    /**
+     * Writes only the JSON file when the path keeps its points in a point file,
+     * otherwise rewrites the whole path file since the points are inline.
+     */
+    @Override
+    public CompletableFuture<WriteResult> saveMetadata(Path path) {
+        return submit(() -> {
+            File pointFile = getPointFile(path.getName());
+            if (!pointFile.exists()) {
+                return writePath(path);
+            }
+
+            return new WriteResult(-1, writeMetadata(path));
+        });
+    }
+
+    /**
+     * Appends to the point file in place when the path has one, leaving the JSON file as it is.
+     * Paths with inline points are rewritten, since JSON cannot be appended to.
+     */
+    @Override
+    public CompletableFuture<WriteResult> appendPoints(Path path, int fromIndex) {
+        return submit(() -> {
+            File pointFile = getPointFile(path.getName());
+            if (!pointFile.exists()) {
+                return writePath(path);
+            }
+
+            long[] newPoints;
+            synchronized (path) {
+                PointStorage points = path.getTrackedPath();
+                if (points.size() < fromIndex) {
+                    // The end was cut off since the append was submitted
+                    return writePath(path);
+                }
+                newPoints = new long[points.size() - fromIndex];
+                for (int i = 0; i < newPoints.length; i++) {
+                    newPoints[i] = points.get(fromIndex + i);
+                }
+            }
+
+            if (!PointFile.append(pointFile, newPoints, fromIndex)) {
+                return writePath(path);
+            }
+            return new WriteResult(fromIndex + newPoints.length, (long) newPoints.length * Long.BYTES);
+        });
+    }
+
+    /**
+     * Writes the whole path. A point file may still be mapped by snapshots of the path,
+     * so it is replaced by a new file rather than cut.
+     */
+    @Override
+    public CompletableFuture<WriteResult> rewritePointsFrom(Path path, int fromIndex) {
+        return submit(() -> writePath(path));
+    }
+
+    @Override
+    public CompletableFuture<int[]> loadTraffic(String pathName) {
+        return submit(() -> TrafficFile.read(getTrafficFile(pathName)));
+    }
+
+    @Override
+    public CompletableFuture<WriteResult> saveTraffic(String pathName, int[] counts) {
+        return submit(() -> new WriteResult(-1, TrafficFile.write(getTrafficFile(pathName), counts)));
+    }
+
+    /**
+     * Moves the path's files to the backup folder instead of deleting them.
+     */
+    @Override
+    public CompletableFuture<Void> delete(String pathName) {
+        return submit(() -> {
+            File pathFile = getPathFile(pathName);
+            if (pathFile.exists()) {
+                deleteOldPathFiles(Map.of(sanitizeFileName(pathName), pathFile));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Finds paths by reading every path file.
+     * The JSON store has no index, so this scans the whole folder.
+     */
+    @Override
+    public CompletableFuture<List<String>> findPathNames(String worldName, BoundingBox bounds) {
+        return submit(() -> {
+            List<String> result = new ArrayList<>();
+            for (Path path : readAll().values()) {
+                if (!worldName.equals(path.getWorldName())) {
+                    continue;
+                }
+                BoundingBox pathBounds = path.getStatistics().getBoundingBox();
+                if (bounds == null || (pathBounds != null && pathBounds.overlaps(bounds))) {
+                    result.add(path.getName());
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Saves a single path to disk.
+     * Serializes the path to JSON and streams it to a file, compressing it on the fly if enabled.
+     * Paths with at least {@link #mappedPointsThreshold} points keep their points in a separate
+     * binary point file instead, so they can be memory-mapped when loaded.
+     *
+     * @param path The path to save
+     * @return The number of points written and the size of the written files
+     * @throws IOException If saving fails
+     */
+    private WriteResult writePath(Path path) throws IOException {
+        File pathFile = getPathFile(path.getName());
+        File pointFile = getPointFile(path.getName());
+        int pointCount;
+
+        // Always ensure version is set before saving
+        path.setVersion(CURRENT_VERSION);
+
+        // Lock the path so points recorded on another thread cannot change it mid-write
+        try (Writer writer = openWriter(pathFile)) {
+            synchronized (path) {
+                PointStorage points = path.getTrackedPath();
+                pointCount = points.size();
+                boolean separatePoints = mappedPointsThreshold > 0 && pointCount >= mappedPointsThreshold;
+
+                if (separatePoints) {
+                    // Mapped points are read-only, so the file they were mapped from is still up to date;
+                    // views of part of a file and files of another path are written like any points
+                    if (!(points instanceof MappedPointBuffer mapped && pointFile.equals(mapped.getFile()))) {
+                        PointFile.write(pointFile, points);
+                    }
+                    PathGson.METADATA.toJson(path, writer);
+                } else {
+                    PathGson.FULL.toJson(path, writer);
+                    Files.deleteIfExists(pointFile.toPath());
+                }
+            }
+        } catch (JsonIOException e) {
+            throw new IOException(e);
+        }
+        return new WriteResult(pointCount, pathFile.length() + pointFile.length());
+    }
+
+    /**
+     * Writes the JSON file of a path that keeps its points in a point file.
+     *
+     * @param path The path
+     * @return The size of the written file in bytes
+     * @throws IOException If the file cannot be written
+     */
+    private long writeMetadata(Path path) throws IOException {
+        File pathFile = getPathFile(path.getName());
+        path.setVersion(CURRENT_VERSION);
+        try (Writer writer = openWriter(pathFile)) {
+            synchronized (path) {
+                PathGson.METADATA.toJson(path, writer);
+            }
+        } catch (JsonIOException e) {
+            throw new IOException(e);
+        }
+        return pathFile.length();
+    }
+
+    /**
+     * Opens a streaming writer for a path file, GZIP compressed if compression is enabled.
+     *
+     * @param file The file to write
+     * @return A UTF-8 writer for the file
+     * @throws IOException If the file cannot be opened
+     */
+    private Writer openWriter(File file) throws IOException {
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(file, false));
+        if (compress) {
+            out = new GZIPOutputStream(out);
+        }
+        return new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Opens a streaming reader for a path file.
+     * GZIP files are recognized by their magic bytes, so plain and compressed files can be mixed.
+     *
+     * @param file The file to read
+     * @return A UTF-8 reader for the file's JSON content
+     * @throws IOException If the file cannot be opened
+     */
+    private Reader openReader(File file) throws IOException {
+        InputStream in = new BufferedInputStream(new FileInputStream(file));
+        try {
+            in.mark(2);
+            int magic = in.read() | (in.read() << 8);
+            in.reset();
+            if (magic == GZIPInputStream.GZIP_MAGIC) {
+                in = new GZIPInputStream(in);
+            }
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return new InputStreamReader(in, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Moves old path files to a backup folder.
+     * Creates a "deleted" subfolder and moves obsolete path files there.
+     *
+     * @param leftoverFiles Map of files to move, by sanitized path name
+     */
+    private void deleteOldPathFiles(Map<String, File> leftoverFiles) {
+        int movedCount = 0;
+
+        // Create the "deleted" folder if it doesn't exist
+        File deletedFolder = new File(pathsFolder, "deleted");
+        if (!deletedFolder.exists()) {
+            if (deletedFolder.mkdirs()) {
+                logger.info("Created 'deleted' folder for backup.");
+            } else {
+                logger.warning("Failed to create 'deleted' folder for backup.");
+            }
+        }
+
+        for (Map.Entry<String, File> leftover : leftoverFiles.entrySet()) {
+            File leftoverFile = leftover.getValue();
+
+            // Move the file to the "deleted" folder
+            File target = new File(deletedFolder, leftoverFile.getName());
+            if (leftoverFile.renameTo(target)) {
+                movedCount++;
+            } else {
+                logger.warning("Failed to move old path file to backup: " + leftoverFile.getName());
+            }
+
+            // Keep a separate point file together with its path file
+            File pointFile = new File(pathsFolder, leftover.getKey() + PointFile.EXTENSION);
+            if (pointFile.exists() && !pointFile.renameTo(new File(deletedFolder, pointFile.getName()))) {
+                logger.warning("Failed to move old point file to backup: " + pointFile.getName());
+            }
+
+            File trafficFile = new File(pathsFolder, leftover.getKey() + TrafficFile.EXTENSION);
+            if (trafficFile.exists() && !trafficFile.renameTo(new File(deletedFolder, trafficFile.getName()))) {
+                logger.warning("Failed to move old traffic file to backup: " + trafficFile.getName());
+            }
+        }
+
+        if (movedCount > 0) {
+            logger.info("Moved " + movedCount + " old path file(s) to 'deleted' folder.");
+        }
+    }
+
+    /**
+     * Loads all paths from the path folder.
+     * Files that cannot be read are logged and skipped.
+     *
+     * @return The loaded paths by name
+     * @throws IOException If the folder cannot be listed
+     */
+    private Map<String, Path> readAll() throws IOException {
+        // Check if the paths folder exists
+        if (!pathsFolder.exists()) {
+            logger.warning("Path folder does not exist: " + pathsFolder.getAbsolutePath());
+            return new HashMap<>(); // No folder = nothing to load
+        }
+
+        // List all JSON files in the paths folder
+        File[] files = pathsFolder.listFiles((dir, name) -> name.endsWith(".json"));
+        if (files == null) {
+            throw new IOException("Failed to list files in path folder: " + pathsFolder.getAbsolutePath());
+        }
+
+        HashMap<String, Path> loadedPaths = new HashMap<>();
+        int errorCount = 0;
+
+        // Process each JSON file
+        for (File file : files) {
+            try {
+                Path path = readPath(file);
+
+                if (path != null && path.getName() != null) {
+                    loadedPaths.put(path.getName(), path);
+                } else {
+                    logger.warning("Path file " + file.getName() + " is missing a name! Skipping...");
+                    errorCount++;
+                }
+            } catch (JsonParseException e) {
+                logger.warning("Invalid JSON syntax in " + file.getName() + ": " + e.getMessage());
+                errorCount++;
+            } catch (IOException e) {
+                logger.warning("Failed to load path from " + file.getName() + " - Error: " + e.getMessage());
+                errorCount++;
+            }
+        }
+
+        if (errorCount > 0) {
+            logger.warning("Failed to load " + errorCount + " path file(s).");
+        }
+        return loadedPaths;
+    }
+
+    private File getPathFile(String pathName) {
+        return new File(pathsFolder, sanitizeFileName(pathName) + ".json");
+    }
+
+    private File getPointFile(String pathName) {
+        return new File(pathsFolder, sanitizeFileName(pathName) + PointFile.EXTENSION);
+    }
+
+    private File getTrafficFile(String pathName) {
+        return new File(pathsFolder, sanitizeFileName(pathName) + TrafficFile.EXTENSION);
+    }
+
+    /**
+     * Reads and deserializes a single path file.
+     *
+     * @param file The path file to read
+     * @return The deserialized path, or null if the file is empty
+     * @throws IOException If the file cannot be read
+     */
+    private Path readPath(File file) throws IOException {
+        try (Reader reader = openReader(file)) {
+            // Parse the JSON first to check version
+            JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
+
+            // Check version for backwards compatibility
+            int fileVersion = json.has("version") ? json.get("version").getAsInt() : 1; // Default to version 1
+
+            if (fileVersion > CURRENT_VERSION) {
+                logger.warning("Path file " + file.getName() + " uses a newer version (" + fileVersion + ") than supported!");
+            } else if (fileVersion == 1) {
+                migrateVersion1(file, json);
+            }
+
+            // Deserialize the Path
+            Path path = PathGson.FULL.fromJson(json, Path.class);
+
+            // Points of large paths live in a separate point file that is mapped instead of parsed
+            if (path != null && !json.has("trackedPath")) {
+                path.pageIn(readPointFile(file));
+            }
+            return path;
+        }
+    }
+
+    /**
+     * Memory-maps the point file that belongs to a path file.
+     *
+     * @param pathFile The path's JSON file
+     * @return The mapped points, or an empty buffer if the path has no point file
+     * @throws IOException If the point file exists but cannot be mapped
+     */
+    private PointStorage readPointFile(File pathFile) throws IOException {
+        String baseName = pathFile.getName().substring(0, pathFile.getName().length() - 5); // Remove ".json"
+        File pointFile = new File(pathsFolder, baseName + PointFile.EXTENSION);
+        if (!pointFile.exists()) {
+            logger.warning("Path file " + pathFile.getName() + " has no points and no point file.");
+            return new PointBuffer();
+        }
+        return PointFile.map(pointFile);
+    }
+
+    /**
+     * Migrates a version 1 path file in place before it is deserialized.
+     * Version 1 stored the world name on every point. The world of the first point
+     * becomes the path's world and points recorded in other worlds are dropped,
+     * since a path now belongs to exactly one world.
+     *
+     * @param file The file being read, used for log messages
+     * @param json The parsed path JSON
+     */
+    private void migrateVersion1(File file, JsonObject json) {
+        if (json.has("worldName") || !json.has("trackedPath")) {
+            return;
+        }
+
+        JsonArray points = json.getAsJsonArray("trackedPath");
+        if (points.isEmpty()) {
+            return;
+        }
+
+        JsonObject firstPoint = points.get(0).getAsJsonObject();
+        if (!firstPoint.has("world")) {
+            return;
+        }
+
+        String worldName = firstPoint.get("world").getAsString();
+        json.addProperty("worldName", worldName);
+
+        JsonArray sameWorldPoints = new JsonArray(points.size());
+        for (JsonElement point : points) {
+            JsonElement pointWorld = point.getAsJsonObject().get("world");
+            if (pointWorld == null || pointWorld.getAsString().equals(worldName)) {
+                sameWorldPoints.add(point);
+            }
+        }
+
+        int droppedCount = points.size() - sameWorldPoints.size();
+        if (droppedCount > 0) {
+            logger.warning("Path file " + file.getName() + " has " + droppedCount
+                    + " point(s) outside world " + worldName + ". They will be dropped on next save.");
+        }
+        json.add("trackedPath", sameWorldPoints);
+    }
+
+    /**
+     * Sanitizes a filename to ensure it's safe for file system operations.
+     * Replaces invalid characters with underscores.
+     *
+     * @param input The input string
+     * @return A sanitized filename
+     */
+    private String sanitizeFileName(String input) {
+        return input.replaceAll("[^a-zA-Z0-9-_]", "_");
+    }
+}
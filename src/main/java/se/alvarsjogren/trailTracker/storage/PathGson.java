@@ -0,0 +1,39 @@
+package se.alvarsjogren.trailTracker.storage;
+
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import se.alvarsjogren.trailTracker.Path;
+import se.alvarsjogren.trailTracker.PointStorage;
+import se.alvarsjogren.trailTracker.PointTimes;
+
+/**
+ * Gson configurations shared by the path stores.
+ */
+final class PathGson {
+    /** Full path JSON with points inline as packed numbers and point times as Base64 */
+    static final Gson FULL = new GsonBuilder()
+            .setPrettyPrinting()
+            .registerTypeAdapter(PointStorage.class, new PointBufferAdapter())
+            .registerTypeAdapter(PointTimes.class, new PointTimesAdapter())
+            .create();
+
+    /** Path JSON without the points, for stores that keep points separately */
+    static final Gson METADATA = FULL.newBuilder()
+            .addSerializationExclusionStrategy(new ExclusionStrategy() {
+                @Override
+                public boolean shouldSkipField(FieldAttributes field) {
+                    return field.getDeclaringClass() == Path.class && field.getName().equals("trackedPath");
+                }
+
+                @Override
+                public boolean shouldSkipClass(Class<?> clazz) {
+                    return false;
+                }
+            })
+            .create();
+
+    private PathGson() {
+    }
+}
@@ -0,0 +1,15 @@
+package se.alvarsjogren.trailTracker.storage;
+
+import java.util.Date;
+
+/**
+ * Summary of a stored path that can be listed without reading its points.
+ *
+ * @param name The path name
+ * @param worldName The name of the path's world, or null if it has none yet
+ * @param createdBy The name of the player who recorded the path
+ * @param creationDate When the path was created
+ * @param pointCount The number of stored points
+ */
+public record PathMetadata(String name, String worldName, String createdBy, Date creationDate, int pointCount) {
+}
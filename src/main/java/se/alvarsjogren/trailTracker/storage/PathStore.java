@@ -0,0 +1,148 @@
+package se.alvarsjogren.trailTracker.storage;
+
+import org.bukkit.util.BoundingBox;
+import se.alvarsjogren.trailTracker.Path;
+import se.alvarsjogren.trailTracker.PointStorage;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous storage backend for paths.
+ * {@link se.alvarsjogren.trailTracker.utilities.StorageManager} decides what to save and when;
+ * a store only knows how to persist and read paths.
+ *
+ * <p>Every operation runs on the store's executor and returns a future that completes
+ * with the result, or exceptionally with an {@link java.io.IOException} wrapped in a
+ * {@link java.util.concurrent.CompletionException}. Operations are executed in the
+ * order they were submitted, so a save followed by a delete of the same path is safe.</p>
+ */
+public interface PathStore {
+    /**
+     * Current version of the path data format.
+     * Version 1 stored the world on every point, version 2 stores it once per path,
+     * version 3 stores every point as a single packed number.
+     */
+    int CURRENT_VERSION = 3;
+
+    /**
+     * Outcome of a write.
+     *
+     * @param pointCount Number of points stored for the path after the write,
+     *                   or -1 if the write did not touch the points
+     * @param bytesWritten Approximate number of bytes written
+     */
+    record WriteResult(int pointCount, long bytesWritten) {
+    }
+
+    /**
+     * Gets a short description of the backend and its settings, used in log messages.
+     *
+     * @return The description, for example "json, gzip"
+     */
+    String getDescription();
+
+    /**
+     * Reads every stored path, including its points.
+     * Paths that cannot be read are logged and skipped.
+     *
+     * @return A future with the stored paths by name
+     */
+    CompletableFuture<Map<String, Path>> loadAll();
+
+    /**
+     * Reads the points of a single stored path, used to restore paged out paths.
+     *
+     * @param pathName The name of the path
+     * @return A future with the stored points, or null if the path is not stored
+     */
+    CompletableFuture<PointStorage> loadPoints(String pathName);
+
+    /**
+     * Lists the metadata of every stored path without reading points where the backend allows it.
+     *
+     * @return A future with one entry per stored path
+     */
+    CompletableFuture<List<PathMetadata>> listMetadata();
+
+    /**
+     * Writes a path completely, replacing anything stored under its name.
+     *
+     * @param path The path to write
+     * @return A future with the outcome of the write
+     */
+    CompletableFuture<WriteResult> savePath(Path path);
+
+    /**
+     * Writes the metadata of a path (everything except its points).
+     * Backends that cannot store metadata separately write the whole path.
+     *
+     * @param path The path whose metadata changed
+     * @return A future with the outcome of the write
+     */
+    CompletableFuture<WriteResult> saveMetadata(Path path);
+
+    /**
+     * Appends the points of a path from the given index onwards to the stored points.
+     * If the stored path does not have exactly {@code fromIndex} points, or the backend
+     * cannot append, the whole path is written instead. The point times are part of the
+     * metadata and are not written; {@link #saveMetadata(Path)} brings them up to date.
+     *
+     * @param path The path that grew
+     * @param fromIndex The number of points already stored
+     * @return A future with the outcome of the write
+     */
+    CompletableFuture<WriteResult> appendPoints(Path path, int fromIndex);
+
+    /**
+     * Replaces the stored points of a path from the given index onwards with the path's
+     * points from that index, after the end of the path was cut off. The stored points
+     * before the index are kept. If fewer than {@code fromIndex} points are stored, or the
+     * backend cannot cut stored points, the whole path is written instead.
+     *
+     * @param path The path whose end changed
+     * @param fromIndex The number of stored points that are still valid
+     * @return A future with the outcome of the write
+     */
+    CompletableFuture<WriteResult> rewritePointsFrom(Path path, int fromIndex);
+
+    /**
+     * Reads the stored traffic counts of a path.
+     *
+     * @param pathName The name of the path
+     * @return A future with one count per path point, or null if no counts are stored
+     */
+    CompletableFuture<int[]> loadTraffic(String pathName);
+
+    /**
+     * Writes the traffic counts of a path, replacing any stored counts.
+     *
+     * @param pathName The name of the path
+     * @param counts One count per path point
+     * @return A future with the outcome of the write
+     */
+    CompletableFuture<WriteResult> saveTraffic(String pathName, int[] counts);
+
+    /**
+     * Removes a stored path together with its traffic counts.
+     *
+     * @param pathName The name of the path to remove
+     * @return A future that completes when the path is removed
+     */
+    CompletableFuture<Void> delete(String pathName);
+
+    /**
+     * Finds stored paths in a world, optionally limited to those whose bounds overlap a box.
+     *
+     * @param worldName The world name
+     * @param bounds The area to search, or null for the whole world
+     * @return A future with the names of the matching paths
+     */
+    CompletableFuture<List<String>> findPathNames(String worldName, BoundingBox bounds);
+
+    /**
+     * Releases any resources held by the store. Waits for submitted operations to finish.
+     */
+    void close();
+}
@@ -0,0 +1,49 @@
+package se.alvarsjogren.trailTracker.storage;
+
+import com.google.gson.*;
+import se.alvarsjogren.trailTracker.PointBuffer;
+import se.alvarsjogren.trailTracker.PointCodec;
+import se.alvarsjogren.trailTracker.PointStorage;
+
+import java.lang.reflect.Type;
+
+/**
+ * Gson adapter that stores a path's points inline as an array of packed {@code long} values.
+ * Older files stored every point as an object with x, y and z fields; those are
+ * still read and packed on load.
+ */
+public class PointBufferAdapter implements JsonSerializer<PointStorage>, JsonDeserializer<PointStorage> {
+    @Override
+    public JsonElement serialize(PointStorage src, Type typeOfSrc, JsonSerializationContext context) {
+        JsonArray array = new JsonArray(src.size());
+        for (int i = 0; i < src.size(); i++) {
+            array.add(src.get(i));
+        }
+        return array;
+    }
+
+    @Override
+    public PointStorage deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
+        PointBuffer buffer = new PointBuffer();
+        if (json == null || json.isJsonNull()) {
+            return buffer;
+        }
+
+        for (JsonElement element : json.getAsJsonArray()) {
+            if (element.isJsonPrimitive()) {
+                buffer.add(element.getAsLong());
+                continue;
+            }
+
+            // Version 1 and 2 point objects
+            JsonObject point = element.getAsJsonObject();
+            double x = point.get("x").getAsDouble();
+            double y = point.get("y").getAsDouble();
+            double z = point.get("z").getAsDouble();
+            if (PointCodec.isEncodable(x, y, z)) {
+                buffer.add(PointCodec.encode(x, y, z));
+            }
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,132 @@
+package se.alvarsjogren.trailTracker.storage;
+
+import se.alvarsjogren.trailTracker.MappedPointBuffer;
+import se.alvarsjogren.trailTracker.PointStorage;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes fixed-width binary point files.
+ * A point file has a 16 byte header (magic number, format version and point count)
+ * followed by one big-endian packed {@code long} per point, so it can be memory-mapped
+ * and indexed directly without parsing.
+ */
+public final class PointFile {
+    /** File extension of point files, next to the path's JSON file */
+    public static final String EXTENSION = ".points";
+
+    /** Magic number at the start of every point file ("TTPT") */
+    private static final int MAGIC = 0x54545054;
+
+    /** Current version of the binary point format */
+    private static final int FORMAT_VERSION = 1;
+
+    /** Size of the header in bytes, keeping the points 8-byte aligned */
+    private static final int HEADER_SIZE = 16;
+
+    private PointFile() {
+    }
+
+    /**
+     * Writes points to a point file.
+     * The points are written to a temporary file first and moved into place, so a
+     * mapping of the previous file stays valid and a failed write never leaves a partial file.
+     *
+     * @param file The point file to write
+     * @param points The points to write
+     * @throws IOException If the file cannot be written
+     */
+    public static void write(File file, PointStorage points) throws IOException {
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(points.size());
+            for (int i = 0; i < points.size(); i++) {
+                out.writeLong(points.get(i));
+            }
+        }
+        Files.move(tempFile.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Appends points to the end of an existing point file.
+     * The points are written first and the count in the header is updated last, so an
+     * interrupted append leaves the file with its previous points. Existing mappings of
+     * the file stay valid.
+     *
+     * @param file The point file to extend
+     * @param points The packed points to append
+     * @param expectedCount The number of points the file must currently hold
+     * @return true if the points were appended, false if the file does not hold exactly
+     *         {@code expectedCount} points and has to be rewritten instead
+     * @throws IOException If the file cannot be written
+     */
+    public static boolean append(File file, long[] points, int expectedCount) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (channel.read(header, 0) != HEADER_SIZE || header.getInt(0) != MAGIC
+                    || header.getLong(8) != expectedCount) {
+                return false;
+            }
+
+            ByteBuffer bytes = ByteBuffer.allocate(points.length * Long.BYTES);
+            bytes.asLongBuffer().put(points);
+            long position = HEADER_SIZE + (long) expectedCount * Long.BYTES;
+            while (bytes.hasRemaining()) {
+                position += channel.write(bytes, position);
+            }
+            channel.force(false);
+
+            ByteBuffer count = ByteBuffer.allocate(Long.BYTES).putLong(0, (long) expectedCount + points.length);
+            channel.write(count, 8);
+            return true;
+        }
+    }
+
+    /**
+     * Memory-maps the points of a point file.
+     * Bytes after the last counted point, left by an interrupted append, are ignored.
+     * The channel is closed right away; the mapping stays valid until it is garbage collected.
+     *
+     * @param file The point file to map
+     * @return Read-only storage backed by the mapped file
+     * @throws IOException If the file cannot be read or is not a valid point file
+     */
+    public static MappedPointBuffer map(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new IOException("Point file " + file.getName() + " is too short");
+            }
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Point file " + file.getName() + " is too large to map");
+            }
+
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            if (mapped.getInt(0) != MAGIC) {
+                throw new IOException("Point file " + file.getName() + " has an invalid header");
+            }
+
+            int version = mapped.getInt(4);
+            if (version > FORMAT_VERSION) {
+                throw new IOException("Point file " + file.getName() + " uses a newer version (" + version + ") than supported");
+            }
+
+            long count = mapped.getLong(8);
+            if (count < 0 || count > Integer.MAX_VALUE || HEADER_SIZE + count * Long.BYTES > fileSize) {
+                throw new IOException("Point file " + file.getName() + " is truncated or corrupt");
+            }
+
+            ByteBuffer points = mapped.slice(HEADER_SIZE, (int) (count * Long.BYTES));
+            return new MappedPointBuffer(points.asLongBuffer(), file);
+        }
+    }
+}
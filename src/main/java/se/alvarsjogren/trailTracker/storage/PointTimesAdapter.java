@@ -0,0 +1,36 @@
+package se.alvarsjogren.trailTracker.storage;
+
+import com.google.gson.*;
+import se.alvarsjogren.trailTracker.PointTimes;
+
+import java.lang.reflect.Type;
+import java.util.Base64;
+
+/**
+ * Gson adapter that stores point times as their count and the Base64 of the encoded deltas.
+ * Unreadable times are dropped rather than failing the whole path.
+ */
+public class PointTimesAdapter implements JsonSerializer<PointTimes>, JsonDeserializer<PointTimes> {
+    @Override
+    public JsonElement serialize(PointTimes src, Type typeOfSrc, JsonSerializationContext context) {
+        JsonObject object = new JsonObject();
+        object.addProperty("count", src.size());
+        object.addProperty("deltas", Base64.getEncoder().encodeToString(src.toByteArray()));
+        return object;
+    }
+
+    @Override
+    public PointTimes deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
+        if (json == null || json.isJsonNull()) {
+            return null;
+        }
+        JsonObject object = json.getAsJsonObject();
+        try {
+            byte[] encoded = Base64.getDecoder().decode(object.get("deltas").getAsString());
+            return new PointTimes(encoded, object.get("count").getAsInt());
+        } catch (IllegalArgumentException | NullPointerException | IllegalStateException e) {
+            // Damaged timing only costs the replay speed, not the path
+            return null;
+        }
+    }
+}
@@ -0,0 +1,438 @@
+package se.alvarsjogren.trailTracker.storage;
+
+import org.bukkit.util.BoundingBox;
+import se.alvarsjogren.trailTracker.Path;
+import se.alvarsjogren.trailTracker.PointBuffer;
+import se.alvarsjogren.trailTracker.PointStorage;
+import se.alvarsjogren.trailTracker.TrailTracker;
+import se.alvarsjogren.trailTracker.api.PathStatistics;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+/**
+ * Stores all paths in a single embedded SQLite database file.
+ * Each path is one row holding its metadata as JSON, its points as a blob of packed
+ * longs, and its world and bounding box as indexed columns for spatial queries.
+ * Every operation is a single statement and therefore atomic; appends concatenate
+ * to the stored blob instead of rewriting it.
+ * Uses the SQLite JDBC driver bundled with Paper.
+ */
+public class SqlitePathStore extends AbstractPathStore {
+    /** Name of the database file in the plugin's data folder */
+    private static final String DATABASE_FILE = "paths.db";
+
+    private static final String UPSERT_PATH = """
+            INSERT INTO paths (name, world, point_count, min_x, min_y, min_z, max_x, max_y, max_z, metadata, points)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT(name) DO UPDATE SET
+                world = excluded.world, point_count = excluded.point_count,
+                min_x = excluded.min_x, min_y = excluded.min_y, min_z = excluded.min_z,
+                max_x = excluded.max_x, max_y = excluded.max_y, max_z = excluded.max_z,
+                metadata = excluded.metadata, points = excluded.points""";
+
+    /**
+     * Appends the new points to the stored blob. SQLite's || yields TEXT even for
+     * two blobs, so the result is cast back; substr on TEXT would count characters.
+     * The metadata (?9) is left as it is, so the point times are not rewritten on every append.
+     */
+    private static final String APPEND_POINTS = """
+            UPDATE paths SET points = CAST(points || ?1 AS BLOB),
+                min_x = ?2, min_y = ?3, min_z = ?4, max_x = ?5, max_y = ?6, max_z = ?7,
+                point_count = ?8
+            WHERE name = ?10 AND point_count = ?11""";
+
+    /**
+     * Cuts the stored blob after the first ?11 points and appends the new points, with the same parameters.
+     * The stored value is cast to a blob first, so rows written by older appends as TEXT are cut by bytes.
+     */
+    private static final String REWRITE_POINTS = """
+            UPDATE paths SET points = CAST(substr(CAST(points AS BLOB), 1, ?11 * 8) || ?1 AS BLOB),
+                min_x = ?2, min_y = ?3, min_z = ?4, max_x = ?5, max_y = ?6, max_z = ?7,
+                point_count = ?8, metadata = ?9
+            WHERE name = ?10 AND point_count >= ?11""";
+
+    /** Logger for paths that cannot be read */
+    private final Logger logger;
+
+    /** Open connection to the database, only used from the store's I/O thread */
+    private final Connection connection;
+
+    /**
+     * Opens or creates the database and its tables.
+     *
+     * @param plugin The TrailTracker plugin instance
+     * @throws IOException If the driver is missing or the database cannot be opened
+     */
+    public SqlitePathStore(TrailTracker plugin) throws IOException {
+        this(new File(plugin.getDataFolder(), DATABASE_FILE), plugin.getLogger());
+    }
+
+    /**
+     * Opens or creates the database and its tables in the given file.
+     *
+     * @param databaseFile The database file
+     * @param logger Logger for paths that cannot be read
+     * @throws IOException If the driver is missing or the database cannot be opened
+     */
+    SqlitePathStore(File databaseFile, Logger logger) throws IOException {
+        super("TrailTracker-SqliteStore");
+        this.logger = logger;
+
+        try {
+            Class.forName("org.sqlite.JDBC");
+            connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute("""
+                        CREATE TABLE IF NOT EXISTS paths (
+                            name TEXT PRIMARY KEY,
+                            world TEXT,
+                            point_count INTEGER NOT NULL,
+                            min_x REAL, min_y REAL, min_z REAL,
+                            max_x REAL, max_y REAL, max_z REAL,
+                            metadata TEXT NOT NULL,
+                            points BLOB NOT NULL
+                        )""");
+                statement.execute("CREATE INDEX IF NOT EXISTS paths_world_bounds ON paths (world, min_x, max_x, min_z, max_z)");
+                statement.execute("""
+                        CREATE TABLE IF NOT EXISTS traffic (
+                            name TEXT PRIMARY KEY,
+                            counts BLOB NOT NULL
+                        )""");
+            }
+        } catch (ClassNotFoundException e) {
+            throw new IOException("SQLite driver is not available on this server", e);
+        } catch (SQLException e) {
+            throw new IOException("Failed to open database " + databaseFile.getName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String getDescription() {
+        return "sqlite";
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Path>> loadAll() {
+        return submit(this::readAll);
+    }
+
+    @Override
+    public CompletableFuture<PointStorage> loadPoints(String pathName) {
+        return submit(() -> {
+            try (PreparedStatement query = connection.prepareStatement("SELECT points FROM paths WHERE name = ?")) {
+                query.setString(1, pathName);
+                try (ResultSet rows = query.executeQuery()) {
+                    return rows.next() ? decodePoints(rows.getBytes(1)) : null;
+                }
+            } catch (SQLException e) {
+                throw new IOException("Failed to read points of " + pathName + " from database: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Lists metadata from the indexed columns and metadata JSON, without reading any point blobs.
+     */
+    @Override
+    public CompletableFuture<List<PathMetadata>> listMetadata() {
+        return submit(() -> {
+            List<PathMetadata> result = new ArrayList<>();
+            try (Statement statement = connection.createStatement();
+                 ResultSet rows = statement.executeQuery("SELECT name, world, point_count, metadata FROM paths")) {
+                while (rows.next()) {
+                    Path metadata = PathGson.FULL.fromJson(rows.getString(4), Path.class);
+                    result.add(new PathMetadata(rows.getString(1), rows.getString(2),
+                            metadata.getCreatedBy(), metadata.getCreationDate(), rows.getInt(3)));
+                }
+            } catch (SQLException e) {
+                throw new IOException("Failed to list paths in database: " + e.getMessage(), e);
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public CompletableFuture<WriteResult> savePath(Path path) {
+        return submit(() -> writePath(path));
+    }
+
+    @Override
+    public CompletableFuture<WriteResult> saveMetadata(Path path) {
+        return submit(() -> {
+            String metadata;
+            synchronized (path) {
+                path.setVersion(CURRENT_VERSION);
+                metadata = PathGson.METADATA.toJson(path);
+            }
+
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE paths SET world = ?, metadata = ? WHERE name = ?")) {
+                update.setString(1, path.getWorldName());
+                update.setString(2, metadata);
+                update.setString(3, path.getName());
+                if (update.executeUpdate() == 0) {
+                    return writePath(path);
+                }
+            } catch (SQLException e) {
+                throw new IOException("Failed to save metadata of " + path.getName() + ": " + e.getMessage(), e);
+            }
+            return new WriteResult(-1, metadata.length());
+        });
+    }
+
+    /**
+     * Concatenates the new points to the stored blob and updates the bounding box columns.
+     * The update only applies if the stored point count matches, otherwise the path is rewritten.
+     */
+    @Override
+    public CompletableFuture<WriteResult> appendPoints(Path path, int fromIndex) {
+        return submit(() -> writePointsFrom(path, fromIndex, APPEND_POINTS, false));
+    }
+
+    /**
+     * Cuts the stored blob after the valid points and appends the path's points after them,
+     * so only the changed end of the path is written.
+     * The update only applies if at least that many points are stored, otherwise the path is rewritten.
+     */
+    @Override
+    public CompletableFuture<WriteResult> rewritePointsFrom(Path path, int fromIndex) {
+        return submit(() -> writePointsFrom(path, fromIndex, REWRITE_POINTS, true));
+    }
+
+    /**
+     * Writes the points of a path from an index onwards with one of the point updates,
+     * which both take the same numbered parameters.
+     *
+     * @param withMetadata Whether the update also writes the metadata, which holds the point times
+     */
+    private WriteResult writePointsFrom(Path path, int fromIndex, String sql, boolean withMetadata) throws IOException {
+        byte[] newPoints;
+        PathStatistics statistics;
+        String metadata;
+        synchronized (path) {
+            PointStorage points = path.getTrackedPath();
+            if (points.size() < fromIndex) {
+                // Cut again since the write was submitted
+                return writePath(path);
+            }
+            ByteBuffer bytes = ByteBuffer.allocate((points.size() - fromIndex) * Long.BYTES);
+            for (int i = fromIndex; i < points.size(); i++) {
+                bytes.putLong(points.get(i));
+            }
+            newPoints = bytes.array();
+            statistics = path.getStatistics();
+            if (withMetadata) {
+                // The point times are part of the metadata and were cut with the points
+                path.setVersion(CURRENT_VERSION);
+                metadata = PathGson.METADATA.toJson(path);
+            } else {
+                metadata = null;
+            }
+        }
+
+        try (PreparedStatement update = connection.prepareStatement(sql)) {
+            update.setBytes(1, newPoints);
+            bindBounds(update, 2, statistics);
+            update.setInt(8, statistics.pointCount());
+            if (withMetadata) {
+                update.setString(9, metadata);
+            }
+            update.setString(10, path.getName());
+            update.setInt(11, fromIndex);
+            if (update.executeUpdate() == 0) {
+                return writePath(path);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Failed to write points of " + path.getName() + ": " + e.getMessage(), e);
+        }
+        return new WriteResult(statistics.pointCount(), newPoints.length + (metadata != null ? metadata.length() : 0));
+    }
+
+    @Override
+    public CompletableFuture<int[]> loadTraffic(String pathName) {
+        return submit(() -> {
+            try (PreparedStatement query = connection.prepareStatement("SELECT counts FROM traffic WHERE name = ?")) {
+                query.setString(1, pathName);
+                try (ResultSet rows = query.executeQuery()) {
+                    return rows.next() ? TrafficFile.decode(rows.getBytes(1)) : null;
+                }
+            } catch (SQLException e) {
+                throw new IOException("Failed to read traffic of " + pathName + " from database: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<WriteResult> saveTraffic(String pathName, int[] counts) {
+        return submit(() -> {
+            byte[] data = TrafficFile.encode(counts);
+            try (PreparedStatement upsert = connection.prepareStatement(
+                    "INSERT INTO traffic (name, counts) VALUES (?, ?) ON CONFLICT(name) DO UPDATE SET counts = excluded.counts")) {
+                upsert.setString(1, pathName);
+                upsert.setBytes(2, data);
+                upsert.executeUpdate();
+            } catch (SQLException e) {
+                throw new IOException("Failed to save traffic of " + pathName + ": " + e.getMessage(), e);
+            }
+            return new WriteResult(-1, data.length);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(String pathName) {
+        return submit(() -> {
+            try (PreparedStatement delete = connection.prepareStatement("DELETE FROM paths WHERE name = ?");
+                 PreparedStatement deleteTraffic = connection.prepareStatement("DELETE FROM traffic WHERE name = ?")) {
+                delete.setString(1, pathName);
+                delete.executeUpdate();
+                deleteTraffic.setString(1, pathName);
+                deleteTraffic.executeUpdate();
+            } catch (SQLException e) {
+                throw new IOException("Failed to delete " + pathName + " from database: " + e.getMessage(), e);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Finds paths using the world and bounding box index, without reading any points.
+     */
+    @Override
+    public CompletableFuture<List<String>> findPathNames(String worldName, BoundingBox bounds) {
+        return submit(() -> {
+            String sql = bounds == null
+                    ? "SELECT name FROM paths WHERE world = ?"
+                    : "SELECT name FROM paths WHERE world = ? AND point_count > 0"
+                    + " AND max_x >= ? AND min_x <= ? AND max_z >= ? AND min_z <= ? AND max_y >= ? AND min_y <= ?";
+
+            try (PreparedStatement query = connection.prepareStatement(sql)) {
+                query.setString(1, worldName);
+                if (bounds != null) {
+                    query.setDouble(2, bounds.getMinX());
+                    query.setDouble(3, bounds.getMaxX());
+                    query.setDouble(4, bounds.getMinZ());
+                    query.setDouble(5, bounds.getMaxZ());
+                    query.setDouble(6, bounds.getMinY());
+                    query.setDouble(7, bounds.getMaxY());
+                }
+
+                List<String> result = new ArrayList<>();
+                try (ResultSet rows = query.executeQuery()) {
+                    while (rows.next()) {
+                        result.add(rows.getString(1));
+                    }
+                }
+                return result;
+            } catch (SQLException e) {
+                throw new IOException("Failed to query paths in world " + worldName + ": " + e.getMessage(), e);
+            }
+        });
+    }
+
+    @Override
+    protected void closeResources() {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warning("Failed to close database - Error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes a whole path row, replacing any stored version.
+     *
+     * @param path The path to write
+     * @return The number of points written and the bytes of metadata and points
+     * @throws IOException If the row cannot be written
+     */
+    private WriteResult writePath(Path path) throws IOException {
+        String metadata;
+        byte[] points;
+        PathStatistics statistics;
+
+        // Lock the path so points recorded on another thread cannot change it mid-write
+        synchronized (path) {
+            path.setVersion(CURRENT_VERSION);
+            metadata = PathGson.METADATA.toJson(path);
+            points = encodePoints(path.getTrackedPath());
+            statistics = path.getStatistics();
+        }
+
+        try (PreparedStatement upsert = connection.prepareStatement(UPSERT_PATH)) {
+            upsert.setString(1, path.getName());
+            upsert.setString(2, path.getWorldName());
+            upsert.setInt(3, statistics.pointCount());
+            bindBounds(upsert, 4, statistics);
+            upsert.setString(10, metadata);
+            upsert.setBytes(11, points);
+            upsert.executeUpdate();
+        } catch (SQLException e) {
+            throw new IOException("Failed to save " + path.getName() + " to database: " + e.getMessage(), e);
+        }
+        return new WriteResult(statistics.pointCount(), metadata.length() + points.length);
+    }
+
+    /**
+     * Sets the six bounding box parameters starting at the given index.
+     */
+    private static void bindBounds(PreparedStatement statement, int firstIndex, PathStatistics statistics) throws SQLException {
+        statement.setDouble(firstIndex, statistics.minX());
+        statement.setDouble(firstIndex + 1, statistics.minY());
+        statement.setDouble(firstIndex + 2, statistics.minZ());
+        statement.setDouble(firstIndex + 3, statistics.maxX());
+        statement.setDouble(firstIndex + 4, statistics.maxY());
+        statement.setDouble(firstIndex + 5, statistics.maxZ());
+    }
+
+    private Map<String, Path> readAll() throws IOException {
+        Map<String, Path> loadedPaths = new HashMap<>();
+        int errorCount = 0;
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT name, metadata, points FROM paths")) {
+            while (rows.next()) {
+                String name = rows.getString(1);
+                try {
+                    Path path = PathGson.FULL.fromJson(rows.getString(2), Path.class);
+                    path.pageIn(decodePoints(rows.getBytes(3)));
+                    loadedPaths.put(name, path);
+                } catch (RuntimeException e) {
+                    logger.warning("Failed to load path " + name + " from database - Error: " + e.getMessage());
+                    errorCount++;
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("Failed to read paths from database: " + e.getMessage(), e);
+        }
+
+        if (errorCount > 0) {
+            logger.warning("Failed to load " + errorCount + " path(s) from database.");
+        }
+        return loadedPaths;
+    }
+
+    private static byte[] encodePoints(PointStorage points) {
+        ByteBuffer bytes = ByteBuffer.allocate(points.size() * Long.BYTES);
+        for (int i = 0; i < points.size(); i++) {
+            bytes.putLong(points.get(i));
+        }
+        return bytes.array();
+    }
+
+    private static PointBuffer decodePoints(byte[] bytes) {
+        LongBuffer longs = ByteBuffer.wrap(bytes).asLongBuffer();
+        PointBuffer points = new PointBuffer();
+        for (int i = 0; i < longs.limit(); i++) {
+            points.add(longs.get(i));
+        }
+        return points;
+    }
+}
@@ -0,0 +1,103 @@
+package se.alvarsjogren.trailTracker.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Reads and writes the binary traffic counts of a path.
+ * The format has a 12 byte header (magic number, format version and count) followed
+ * by one big-endian {@code int} per path point. The same bytes are stored in a
+ * ".traffic" file by the JSON store and in a blob by the SQLite store.
+ */
+public final class TrafficFile {
+    /** File extension of traffic files, next to the path's JSON file */
+    public static final String EXTENSION = ".traffic";
+
+    /** Magic number at the start of every traffic file ("TTTR") */
+    private static final int MAGIC = 0x54545452;
+
+    /** Current version of the binary traffic format */
+    private static final int FORMAT_VERSION = 1;
+
+    /** Size of the header in bytes */
+    private static final int HEADER_SIZE = 12;
+
+    private TrafficFile() {
+    }
+
+    /**
+     * Encodes traffic counts.
+     *
+     * @param counts One count per path point
+     * @return The encoded bytes
+     */
+    public static byte[] encode(int[] counts) {
+        ByteBuffer bytes = ByteBuffer.allocate(HEADER_SIZE + counts.length * Integer.BYTES);
+        bytes.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(counts.length);
+        for (int count : counts) {
+            bytes.putInt(count);
+        }
+        return bytes.array();
+    }
+
+    /**
+     * Decodes traffic counts.
+     *
+     * @param data The encoded bytes
+     * @return The counts, or null if the data is not valid traffic data
+     */
+    public static int[] decode(byte[] data) {
+        if (data == null || data.length < HEADER_SIZE) {
+            return null;
+        }
+
+        ByteBuffer bytes = ByteBuffer.wrap(data);
+        if (bytes.getInt() != MAGIC || bytes.getInt() != FORMAT_VERSION) {
+            return null;
+        }
+        int count = bytes.getInt();
+        if (count < 0 || bytes.remaining() != (long) count * Integer.BYTES) {
+            return null;
+        }
+
+        int[] counts = new int[count];
+        bytes.asIntBuffer().get(counts);
+        return counts;
+    }
+
+    /**
+     * Writes traffic counts to a file.
+     * The counts are written to a temporary file first and moved into place,
+     * so a failed write never leaves a partial file.
+     *
+     * @param file The traffic file to write
+     * @param counts One count per path point
+     * @return The number of bytes written
+     * @throws IOException If the file cannot be written
+     */
+    public static long write(File file, int[] counts) throws IOException {
+        byte[] data = encode(counts);
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        Files.write(tempFile.toPath(), data);
+        Files.move(tempFile.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return data.length;
+    }
+
+    /**
+     * Reads traffic counts from a file.
+     *
+     * @param file The traffic file to read
+     * @return The counts, or null if the file does not exist or is not valid traffic data
+     * @throws IOException If the file exists but cannot be read
+     */
+    public static int[] read(File file) throws IOException {
+        if (!file.exists()) {
+            return null;
+        }
+        return decode(Files.readAllBytes(file.toPath()));
+    }
+}
@@ -1,17 +1,29 @@
 package se.alvarsjogren.trailTracker.utilities;
 
-import com.google.gson.*;
-import org.bukkit.Location;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.util.BoundingBox;
 import se.alvarsjogren.trailTracker.Path;
+import se.alvarsjogren.trailTracker.PathTraffic;
 import se.alvarsjogren.trailTracker.TrailTracker;
-
-import java.io.*;
-import java.util.HashMap;
-import java.util.Map;
+import se.alvarsjogren.trailTracker.storage.JsonPathStore;
+import se.alvarsjogren.trailTracker.storage.PathStore;
+import se.alvarsjogren.trailTracker.storage.SqlitePathStore;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Manages the storage and retrieval of path data.
- * Handles serialization and deserialization of path objects to/from JSON files.
+ * Decides what needs saving and submits it to the configured {@link PathStore}:
+ * new paths are written whole, grown paths only append their new points, and
+ * changed metadata is written without the points where the backend allows it.
  */
 public class StorageManager {
     /**
@@ -20,220 +32,435 @@ public class StorageManager {
     private final TrailTracker plugin;
 
     /**
-     * Gson instance configured with pretty printing and custom type adapters
+     * Backend selected with the storage-backend option in config.yml
+     */
+    private final PathStore store;
+
+    /**
+     * What is stored for a path, used to write only what changed since.
+     *
+     * @param metadataRevision The metadata revision that was stored
+     * @param pointCount The number of points that are stored
+     * @param pointsRevision The points revision that was stored
+     * @param trimRevision The trim revision that was stored
+     * @param timesPending Whether points were appended without their times, which are
+     *                     written with the metadata once the recording is done
+     */
+    private record SavedState(int metadataRevision, int pointCount, int pointsRevision, int trimRevision,
+                              boolean timesPending) {
+        /**
+         * Gets the state of a path that was just read from storage.
+         */
+        static SavedState of(Path path) {
+            return new SavedState(path.getMetadataRevision(), path.getPointCount(), path.getPointsRevision(), path.getTrimRevision(), false);
+        }
+    }
+
+    /**
+     * Stored state of every path that has been saved or loaded
      */
-    private final Gson gson = new GsonBuilder()
-            .setPrettyPrinting()
-            .registerTypeAdapter(Location.class, new LocationAdapter())
-            .create();
+    private final Map<String, SavedState> savedStates = new ConcurrentHashMap<>();
 
     /**
-     * Directory where path files are stored
+     * Unloaded worlds by name whose paths are still being saved before they are paged out
      */
-    private final File pathsFolder;
+    private final Map<String, CompletableFuture<Void>> pendingUnloads = new ConcurrentHashMap<>();
 
     /**
      * Creates a new StorageManager.
-     * Sets up the storage directory based on configuration.
+     * Opens the storage backend configured in config.yml, falling back to JSON files
+     * if the database cannot be opened.
      *
      * @param plugin The TrailTracker plugin instance
      */
     public StorageManager(TrailTracker plugin) {
         this.plugin = plugin;
+        this.store = createStore(plugin.getConfig().getString("storage-backend", "json"));
+    }
+
+    private PathStore createStore(String backend) {
+        if (backend.equalsIgnoreCase("sqlite")) {
+            try {
+                return new SqlitePathStore(plugin);
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed to open SQLite storage, using JSON files instead - Error: " + e.getMessage());
+            }
+        } else if (!backend.equalsIgnoreCase("json")) {
+            plugin.getLogger().warning("Unknown storage backend '" + backend + "' in config. Using 'json'.");
+        }
+        return new JsonPathStore(plugin);
+    }
 
-        // Get the path folder from the config file (use default "paths" if not set)
-        String folderPath = plugin.getConfig().getString("path-folder", "paths");
+    /**
+     * Gets the active storage backend.
+     *
+     * @return The path store
+     */
+    public PathStore getStore() {
+        return store;
+    }
 
-        // Validate folder path to prevent invalid paths
-        if (folderPath.trim().isEmpty()) {
-            plugin.getLogger().warning("Invalid path folder specified in config. Using default 'paths'.");
-            folderPath = "paths"; // Fallback to default if config is invalid
+    /**
+     * Saves all changed paths and deletes stored paths that no longer exist,
+     * then waits for the store to finish. Point times of paths that are still
+     * being recorded are written too, so nothing is missing when the server stops.
+     */
+    public void save() {
+        save(true);
+    }
+
+    /**
+     * Saves all changed paths like {@link #save()}, but leaves the point times of paths
+     * that are still being recorded for a later save. The times are stored with the
+     * metadata, so writing them on every autosave would rewrite it as the path grows.
+     */
+    public void autosave() {
+        save(false);
+    }
+
+    /**
+     * Saves all changed paths and deletes stored paths that no longer exist,
+     * then waits for the store to finish.
+     * Synchronized because the autosave task may run concurrently with a shutdown save.
+     *
+     * @param complete Whether to write the point times of paths that are being recorded
+     */
+    private synchronized void save(boolean complete) {
+        // Get a copy of the current paths from the PathRecorder
+        Map<String, Path> currentPaths = plugin.pathRecorder.getPaths();
+        long startTime = System.nanoTime();
+        AtomicInteger writeCount = new AtomicInteger();
+        AtomicLong bytesWritten = new AtomicLong();
+
+        List<CompletableFuture<?>> writes = new ArrayList<>();
+        for (Path path : currentPaths.values()) {
+            writes.addAll(submitChanges(path, complete, writeCount, bytesWritten));
         }
 
-        // Create File object for the paths folder
-        this.pathsFolder = new File(plugin.getDataFolder(), folderPath);
+        writes.addAll(submitTraffic(currentPaths, writeCount, bytesWritten));
 
-        // Create the folder if it doesn't exist
-        if (!pathsFolder.exists()) {
-            if (pathsFolder.mkdirs()) {
-                plugin.getLogger().info("Created path folder: " + pathsFolder.getAbsolutePath());
-            } else {
-                plugin.getLogger().warning("Failed to create path folder: " + pathsFolder.getAbsolutePath());
+        for (String storedName : savedStates.keySet()) {
+            if (!currentPaths.containsKey(storedName)) {
+                writes.add(store.delete(storedName)
+                        .thenRun(() -> savedStates.remove(storedName))
+                        .exceptionally(e -> logFailure("delete path " + storedName, e)));
             }
         }
+
+        CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).join();
+
+        // Report size and time so the storage trade-offs can be judged
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        plugin.getLogger().info("Saved " + writeCount.get() + " change(s) across " + currentPaths.size() + " paths ("
+                + (bytesWritten.get() / 1024) + " KB, " + store.getDescription() + ", " + elapsedMillis + " ms).");
     }
 
     /**
-     * Saves all current paths to disk.
-     * Also handles removal of paths that no longer exist by moving them to a backup folder.
+     * Submits the writes needed to bring the stored copy of a path up to date.
+     * Paged out paths are never written, since their points are not in memory.
+     *
+     * @param path The path to save
+     * @param complete Whether to write the point times if the path is being recorded
+     * @param writeCount Incremented for every completed write
+     * @param bytesWritten Increased by the size of every completed write
+     * @return The submitted writes, empty if the path is unchanged
      */
-    public void save() {
-        // Get a copy of the current paths from the PathRecorder
-        HashMap<String, Path> currentPaths = (HashMap<String, Path>) plugin.pathRecorder.getPaths();
-        HashMap<String, File> existingFiles = new HashMap<>();
-
-        // Map existing path files to identify old paths that need to be moved
-        File[] files = pathsFolder.listFiles((dir, name) -> name.endsWith(".json"));
-        if (files != null) {
-            for (File file : files) {
-                String baseName = file.getName().substring(0, file.getName().length() - 5); // Remove ".json"
-                existingFiles.put(baseName, file);
-            }
-        } else {
-            plugin.getLogger().warning("Failed to list files in path folder: " + pathsFolder.getAbsolutePath());
-            return; // Exit if files cannot be listed
+    private List<CompletableFuture<?>> submitChanges(Path path, boolean complete, AtomicInteger writeCount, AtomicLong bytesWritten) {
+        if (path.isPagedOut()) {
+            return List.of();
         }
 
-        int savedCount = 0;
+        String name = path.getName();
+        SavedState saved = savedStates.get(name);
+        // Captured before writing, so changes made during the save are written next time
+        int metadataRevision = path.getMetadataRevision();
+        int pointCount = path.getPointCount();
+        int pointsRevision = path.getPointsRevision();
+        int trimRevision;
+        int trimmedLength;
+        synchronized (path) {
+            trimRevision = path.getTrimRevision();
+            trimmedLength = path.getTrimmedLength();
+        }
 
-        // Save all current paths
-        for (Map.Entry<String, Path> entry : currentPaths.entrySet()) {
-            try {
-                savePath(entry.getValue());
-                existingFiles.remove(sanitizeFileName(entry.getKey())); // Remove based on sanitized name
-                savedCount++;
-            } catch (Exception e) {
-                plugin.getLogger().warning("Failed to save path: " + entry.getKey() + " - Error: " + e.getMessage());
+        // After a single cut of the end, the stored points before the cut are still valid
+        boolean replaced = saved == null || pointsRevision != saved.pointsRevision();
+        int validCount = saved == null ? 0 : saved.pointCount();
+        if (!replaced && trimRevision != saved.trimRevision()) {
+            if (trimRevision == saved.trimRevision() + 1) {
+                validCount = Math.min(validCount, trimmedLength);
+            } else {
+                replaced = true;
             }
         }
 
-        plugin.getLogger().info("Saved " + savedCount + " paths to disk.");
+        List<CompletableFuture<?>> writes = new ArrayList<>(2);
+        // Points that were replaced rather than appended to are written whole
+        if (replaced || pointCount < validCount) {
+            writes.add(store.savePath(path).thenAccept(result -> {
+                savedStates.put(name, new SavedState(metadataRevision, result.pointCount(), pointsRevision, trimRevision, false));
+                count(result, writeCount, bytesWritten);
+            }).exceptionally(e -> logFailure("save path " + name, e)));
+            return writes;
+        }
+
+        // Only the end after the cut is written, together with the metadata
+        if (validCount < saved.pointCount()) {
+            writes.add(store.rewritePointsFrom(path, validCount).thenAccept(result -> {
+                savedStates.put(name, new SavedState(metadataRevision, result.pointCount(), pointsRevision, trimRevision, false));
+                count(result, writeCount, bytesWritten);
+            }).exceptionally(e -> logFailure("rewrite points of path " + name, e)));
+            return writes;
+        }
+
+        // Appends only write points; the times follow with the metadata
+        boolean timed = path.getPointTimes() != null;
+        boolean appended = pointCount > saved.pointCount();
+        if (appended) {
+            writes.add(store.appendPoints(path, saved.pointCount()).thenAccept(result -> {
+                savedStates.computeIfPresent(name, (key, state) -> new SavedState(state.metadataRevision(), result.pointCount(),
+                        state.pointsRevision(), state.trimRevision(), state.timesPending() || timed));
+                count(result, writeCount, bytesWritten);
+            }).exceptionally(e -> logFailure("append points to path " + name, e)));
+        }
 
-        // Delete or move old path files that are no longer used
-        if (!existingFiles.isEmpty()) {
-            deleteOldPathFiles(existingFiles);
+        boolean timesPending = (saved.timesPending() || (appended && timed))
+                && (complete || !plugin.pathRecorder.isPathBeingRecorded(name));
+        if (metadataRevision != saved.metadataRevision() || timesPending) {
+            writes.add(store.saveMetadata(path).thenAccept(result -> {
+                savedStates.computeIfPresent(name, (key, state) -> new SavedState(metadataRevision,
+                        result.pointCount() < 0 ? state.pointCount() : result.pointCount(), state.pointsRevision(), state.trimRevision(), false));
+                count(result, writeCount, bytesWritten);
+            }).exceptionally(e -> logFailure("save path " + name, e)));
         }
+        return writes;
     }
 
     /**
-     * Saves a single path to disk.
-     * Serializes the path to JSON and writes it to a file.
+     * Submits writes for the traffic counts that changed since the last save.
+     * Counts of paths that no longer exist are dropped.
      *
-     * @param path The path to save
-     * @throws RuntimeException If saving fails
+     * @param currentPaths The current paths by name
+     * @param writeCount Incremented for every completed write
+     * @param bytesWritten Increased by the size of every completed write
+     * @return The submitted writes
      */
-    private void savePath(Path path) {
-        // Sanitize file name to prevent invalid characters
-        String safeFileName = sanitizeFileName(path.getName());
-        File pathFile = new File(pathsFolder, safeFileName + ".json");
-
-        // Always ensure version is set before saving
-        path.setVersion(1); // Current version is 1
+    private List<CompletableFuture<?>> submitTraffic(Map<String, Path> currentPaths, AtomicInteger writeCount, AtomicLong bytesWritten) {
+        PathTraffic traffic = plugin.pathRecorder.getPathTraffic();
+        List<CompletableFuture<?>> writes = new ArrayList<>();
+        for (Map.Entry<String, int[]> changed : traffic.takeChangedCounts().entrySet()) {
+            String name = changed.getKey();
+            if (!currentPaths.containsKey(name)) {
+                continue;
+            }
 
-        try (Writer writer = new FileWriter(pathFile, false)) {
-            gson.toJson(path, writer);
-        } catch (IOException e) {
-            plugin.getLogger().warning("Failed to save path: " + path.getName() + " to file: " + pathFile.getAbsolutePath() + " - Error: " + e.getMessage());
-            throw new RuntimeException(e);
+            writes.add(store.saveTraffic(name, changed.getValue())
+                    .thenAccept(result -> count(result, writeCount, bytesWritten))
+                    .exceptionally(e -> {
+                        traffic.markChanged(name);
+                        return logFailure("save traffic of path " + name, e);
+                    }));
         }
+        return writes;
+    }
+
+    private static void count(PathStore.WriteResult result, AtomicInteger writeCount, AtomicLong bytesWritten) {
+        writeCount.incrementAndGet();
+        bytesWritten.addAndGet(result.bytesWritten());
+    }
+
+    private Void logFailure(String action, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        plugin.getLogger().warning("Failed to " + action + " - Error: " + cause.getMessage());
+        return null;
     }
 
     /**
-     * Moves old path files to a backup folder.
-     * Creates a "deleted" subfolder and moves obsolete path files there.
+     * Saves the paths of a world that is being unloaded and releases their points.
+     * The store reads the points while writing them, so they are released on the
+     * global thread once the writes have finished instead of blocking the unload.
+     * The paths are restored from storage by {@link #loadWorld(World)} when the world loads again.
      *
-     * @param leftoverFiles Map of files to move
+     * @param world The world being unloaded
      */
-    private void deleteOldPathFiles(Map<String, File> leftoverFiles) {
-        int movedCount = 0;
+    public void unloadWorld(World world) {
+        List<CompletableFuture<?>> writes = new ArrayList<>();
+        AtomicInteger writeCount = new AtomicInteger();
+        AtomicLong bytesWritten = new AtomicLong();
+        for (Path path : plugin.pathRecorder.getPathsInWorld(world)) {
+            writes.addAll(submitChanges(path, true, writeCount, bytesWritten));
+        }
 
-        // Create the "deleted" folder if it doesn't exist
-        File deletedFolder = new File(pathsFolder, "deleted");
-        if (!deletedFolder.exists()) {
-            if (deletedFolder.mkdirs()) {
-                plugin.getLogger().info("Created 'deleted' folder for backup.");
-            } else {
-                plugin.getLogger().warning("Failed to create 'deleted' folder for backup.");
-            }
+        String worldName = world.getName();
+        CompletableFuture<Void> unload = new CompletableFuture<>();
+        pendingUnloads.put(worldName, unload);
+        CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).whenComplete((ignored, error) ->
+                plugin.getTaskScheduler().runGlobal(() -> {
+                    try {
+                        List<Path> pagedOut = plugin.pathRecorder.pageOutWorld(world);
+                        if (!pagedOut.isEmpty()) {
+                            plugin.getLogger().info("Paged out " + pagedOut.size() + " path(s) for unloaded world " + worldName);
+                        }
+                    } finally {
+                        pendingUnloads.remove(worldName, unload);
+                        unload.complete(null);
+                    }
+                }));
+    }
+
+    /**
+     * Makes the paths of a newly loaded world available again.
+     * Paths that were only waiting for the world, for example because it is loaded
+     * by another plugin after startup, are bound from memory without touching storage.
+     * Paths whose points were paged out when the world unloaded are read back from
+     * storage in the background and become visible as they arrive.
+     *
+     * @param world The world that was loaded
+     */
+    public synchronized void loadWorld(World world) {
+        // Paths of an unload that is still being saved are paged out first and then read back
+        CompletableFuture<Void> pendingUnload = pendingUnloads.get(world.getName());
+        if (pendingUnload != null) {
+            UUID loadedId = world.getUID();
+            pendingUnload.thenRun(() -> {
+                if (Bukkit.getWorld(loadedId) != null) {
+                    loadWorld(world);
+                }
+            });
+            return;
         }
 
-        for (File leftoverFile : leftoverFiles.values()) {
-            // Move the file to the "deleted" folder
-            File target = new File(deletedFolder, leftoverFile.getName());
-            if (leftoverFile.renameTo(target)) {
-                movedCount++;
-            } else {
-                plugin.getLogger().warning("Failed to move old path file to backup: " + leftoverFile.getName());
-            }
+        int boundCount = plugin.pathRecorder.bindWorld(world);
+        if (boundCount > 0) {
+            plugin.getLogger().info("Bound " + boundCount + " path(s) to loaded world " + world.getName());
         }
 
-        if (movedCount > 0) {
-            plugin.getLogger().info("Moved " + movedCount + " old path file(s) to 'deleted' folder.");
+        UUID worldId = world.getUID();
+        for (Path path : plugin.pathRecorder.getPagedOutPaths(world.getName())) {
+            store.loadPoints(path.getName()).thenAccept(points -> {
+                if (points == null) {
+                    return;
+                }
+                // Back on the global thread, since the store completes on its own thread
+                plugin.getTaskScheduler().runGlobal(() -> {
+                    // The world may have been unloaded again while the points were read
+                    if (Bukkit.getWorld(worldId) != null) {
+                        plugin.pathRecorder.pageInPath(path, world, points);
+                    }
+                });
+            }).exceptionally(e -> logFailure("page in path " + path.getName(), e));
         }
     }
 
     /**
-     * Loads all paths from disk.
-     * Deserializes JSON files into Path objects and adds them to the PathRecorder.
+     * Loads all paths from storage and adds them to the PathRecorder.
+     * Waits for the store, since the plugin cannot start without its paths.
+     * When the database backend is empty, existing path files are imported; they are
+     * written to the database on the next save and the files are left in place.
      */
     public void load() {
-        // Check if the paths folder exists
-        if (!pathsFolder.exists()) {
-            plugin.getLogger().warning("Path folder does not exist: " + pathsFolder.getAbsolutePath());
-            return; // No folder = nothing to load
+        Map<String, Path> loadedPaths;
+        try {
+            loadedPaths = store.loadAll().join();
+        } catch (CompletionException e) {
+            logFailure("load paths", e);
+            return;
         }
 
-        // List all JSON files in the paths folder
-        File[] files = pathsFolder.listFiles((dir, name) -> name.endsWith(".json"));
-        if (files == null) {
-            plugin.getLogger().warning("Failed to list files in path folder: " + pathsFolder.getAbsolutePath());
-            return; // Exit if files cannot be listed
+        for (Path path : loadedPaths.values()) {
+            // Paths in an older format are rewritten on the next save
+            if (path.getVersion() == PathStore.CURRENT_VERSION) {
+                savedStates.put(path.getName(), SavedState.of(path));
+            }
         }
 
-        HashMap<String, Path> loadedPaths = new HashMap<>();
-        int successCount = 0;
-        int errorCount = 0;
+        if (loadedPaths.isEmpty() && !(store instanceof JsonPathStore)) {
+            loadedPaths = importPathFiles();
+        }
 
-        // Process each JSON file
-        for (File file : files) {
-            try (Reader reader = new FileReader(file)) {
-                // Parse the JSON first to check version
-                JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
+        // Report results
+        if (loadedPaths.isEmpty()) {
+            plugin.getLogger().info("No valid paths loaded.");
+        } else {
+            plugin.pathRecorder.setPaths(new HashMap<>(loadedPaths));
+            plugin.getLogger().info("Loaded " + loadedPaths.size() + " paths (" + store.getDescription() + ").");
 
-                // Check version for backwards compatibility
-                int fileVersion = json.has("version") ? json.get("version").getAsInt() : 1; // Default to version 1
+            int pendingCount = plugin.pathRecorder.getUnboundPathCount();
+            if (pendingCount > 0) {
+                plugin.getLogger().info(pendingCount + " path(s) will be bound once their world is loaded.");
+            }
+        }
+    }
 
-                if (fileVersion > 1) {
-                    plugin.getLogger().warning("Path file " + file.getName() + " uses a newer version (" + fileVersion + ") than supported!");
-                    // Handle version migration here if necessary
+    /**
+     * Saves all changes, then reads every path back from storage and rebuilds the
+     * path indexes from the result. Runs entirely off the main thread; the new indexes
+     * replace the old ones in a single step once they are complete, and paths that
+     * change while the reload runs keep their in-memory state.
+     *
+     * @return A future with the number of paths after the reload
+     */
+    public CompletableFuture<Integer> reload() {
+        Executor async = plugin.getTaskScheduler()::runAsync;
+        return CompletableFuture.supplyAsync(() -> {
+            // Held throughout so an autosave cannot interleave with the swap
+            synchronized (this) {
+                Map<String, Integer> revisions = plugin.pathRecorder.getPathRevisions();
+                save();
+
+                Map<String, Path> loadedPaths = store.loadAll().join();
+                savedStates.clear();
+                for (Path path : loadedPaths.values()) {
+                    if (path.getVersion() == PathStore.CURRENT_VERSION) {
+                        savedStates.put(path.getName(), SavedState.of(path));
+                    }
                 }
 
-                // Deserialize the Path
-                Path path = gson.fromJson(json, Path.class);
+                int pathCount = plugin.pathRecorder.reloadPaths(loadedPaths, revisions);
 
-                if (path != null && path.getName() != null) {
-                    loadedPaths.put(path.getName(), path);
-                    successCount++;
-                } else {
-                    plugin.getLogger().warning("Path file " + file.getName() + " is missing a name! Skipping...");
-                    errorCount++;
+                // Paths that kept their in-memory state are rewritten on the next save
+                for (String name : loadedPaths.keySet()) {
+                    if (plugin.pathRecorder.getPath(name) != loadedPaths.get(name)) {
+                        savedStates.remove(name);
+                    }
                 }
-            } catch (JsonSyntaxException e) {
-                plugin.getLogger().warning("Invalid JSON syntax in " + file.getName() + ": " + e.getMessage());
-                errorCount++;
-            } catch (IOException e) {
-                plugin.getLogger().warning("Failed to load path from " + file.getName() + " - Error: " + e.getMessage());
-                errorCount++;
+                return pathCount;
             }
-        }
+        }, async);
+    }
 
-        // Report results
-        if (loadedPaths.isEmpty()) {
-            plugin.getLogger().info("No valid paths loaded.");
-        } else {
-            plugin.pathRecorder.setPaths(loadedPaths);
-            plugin.getLogger().info("Loaded " + successCount + " paths from folder. Errors: " + errorCount);
+    private Map<String, Path> importPathFiles() {
+        JsonPathStore fileStore = new JsonPathStore(plugin);
+        try {
+            Map<String, Path> imported = fileStore.loadAll().join();
+            if (!imported.isEmpty()) {
+                plugin.getLogger().info("Importing " + imported.size() + " path file(s) into " + store.getDescription() + " storage.");
+            }
+            return imported;
+        } catch (CompletionException e) {
+            logFailure("import path files", e);
+            return Map.of();
+        } finally {
+            fileStore.close();
         }
     }
 
     /**
-     * Sanitizes a filename to ensure it's safe for file system operations.
-     * Replaces invalid characters with underscores.
+     * Finds stored paths in a world whose bounds overlap an area.
+     * Uses the database index when the SQLite backend is active.
      *
-     * @param input The input string
-     * @return A sanitized filename
+     * @param worldName The world name
+     * @param bounds The area to search, or null for the whole world
+     * @return A future with the names of the matching paths
+     */
+    public CompletableFuture<List<String>> findStoredPaths(String worldName, BoundingBox bounds) {
+        return store.findPathNames(worldName, bounds);
+    }
+
+    /**
+     * Closes the storage backend after its pending operations finish. Call after the final save.
      */
-    private String sanitizeFileName(String input) {
-        return input.replaceAll("[^a-zA-Z0-9-_]", "_");
+    public void close() {
+        store.close();
     }
-}
\ No newline at end of file
+}
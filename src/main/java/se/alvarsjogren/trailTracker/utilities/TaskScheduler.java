@@ -0,0 +1,197 @@
+package se.alvarsjogren.trailTracker.utilities;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduling abstraction that works on both Paper and Folia.
+ *
+ * On Folia there is no single main thread, so per-player work has to run on the
+ * region thread that owns the player. This class dispatches such work to the
+ * entity scheduler when running on Folia, and falls back to the regular Bukkit
+ * scheduler on Paper and Spigot.
+ */
+public class TaskScheduler {
+    /** Milliseconds per server tick, used to convert tick periods for the async scheduler */
+    private static final long MILLIS_PER_TICK = 50L;
+
+    /** Whether the server is running Folia, detected once when the class is loaded */
+    private static final boolean FOLIA;
+
+    static {
+        boolean folia;
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            folia = true;
+        } catch (ClassNotFoundException e) {
+            folia = false;
+        }
+        FOLIA = folia;
+    }
+
+    /** Reference to the owning plugin */
+    private final Plugin plugin;
+
+    /**
+     * A handle to a scheduled task that can be cancelled regardless of which
+     * scheduler it was submitted to.
+     */
+    public interface Task {
+        /**
+         * Cancels the task. Does nothing if it is already cancelled.
+         */
+        void cancel();
+
+        /**
+         * Checks whether the task has been cancelled.
+         *
+         * @return true if the task is cancelled
+         */
+        boolean isCancelled();
+    }
+
+    /**
+     * Creates a new TaskScheduler for the given plugin.
+     *
+     * @param plugin The plugin that owns the scheduled tasks
+     */
+    public TaskScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Checks if the server is running Folia.
+     *
+     * @return true if Folia's region schedulers are available
+     */
+    public static boolean isFolia() {
+        return FOLIA;
+    }
+
+    /**
+     * Runs a repeating task on the global tick.
+     * On Folia this is the global region thread, on Paper it is the main thread.
+     * Work that touches a specific player should be forwarded with {@link #runForEntity}.
+     *
+     * @param task The task to run
+     * @param delayTicks Initial delay in ticks
+     * @param periodTicks Period between runs in ticks
+     * @return A handle to the scheduled task
+     */
+    public Task runGlobalTimer(Runnable task, long delayTicks, long periodTicks) {
+        if (FOLIA) {
+            return wrap(Bukkit.getGlobalRegionScheduler().runAtFixedRate(
+                    plugin, scheduledTask -> task.run(), Math.max(1, delayTicks), periodTicks));
+        }
+        return wrap(plugin.getServer().getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks));
+    }
+
+    /**
+     * Runs a task once on the global tick.
+     * Used to hand results from background threads back to the thread that owns world state.
+     *
+     * @param task The task to run
+     */
+    public void runGlobal(Runnable task) {
+        if (FOLIA) {
+            Bukkit.getGlobalRegionScheduler().execute(plugin, task);
+        } else {
+            plugin.getServer().getScheduler().runTask(plugin, task);
+        }
+    }
+
+    /**
+     * Runs a task on the thread that owns the given entity.
+     * On Folia the task is handed to the entity's scheduler and silently dropped if the
+     * entity is removed before it runs. On Paper the task runs immediately when called
+     * from the main thread, otherwise it is scheduled for the next tick.
+     *
+     * @param entity The entity whose region should run the task
+     * @param task The task to run
+     */
+    public void runForEntity(Entity entity, Runnable task) {
+        if (FOLIA) {
+            entity.getScheduler().run(plugin, scheduledTask -> task.run(), null);
+        } else if (Bukkit.isPrimaryThread()) {
+            task.run();
+        } else {
+            plugin.getServer().getScheduler().runTask(plugin, task);
+        }
+    }
+
+    /**
+     * Runs a task once off the main and region threads.
+     *
+     * @param task The task to run
+     */
+    public void runAsync(Runnable task) {
+        if (FOLIA) {
+            Bukkit.getAsyncScheduler().runNow(plugin, scheduledTask -> task.run());
+        } else {
+            plugin.getServer().getScheduler().runTaskAsynchronously(plugin, task);
+        }
+    }
+
+    /**
+     * Runs a repeating task off the main and region threads.
+     *
+     * @param task The task to run
+     * @param delayTicks Initial delay in ticks
+     * @param periodTicks Period between runs in ticks
+     * @return A handle to the scheduled task
+     */
+    public Task runAsyncTimer(Runnable task, long delayTicks, long periodTicks) {
+        if (FOLIA) {
+            return wrap(Bukkit.getAsyncScheduler().runAtFixedRate(
+                    plugin, scheduledTask -> task.run(),
+                    delayTicks * MILLIS_PER_TICK, periodTicks * MILLIS_PER_TICK, TimeUnit.MILLISECONDS));
+        }
+        return wrap(plugin.getServer().getScheduler().runTaskTimerAsynchronously(plugin, task, delayTicks, periodTicks));
+    }
+
+    /**
+     * Cancels every task this plugin has scheduled through the global and async schedulers.
+     * Entity-scheduled tasks on Folia are one-shot and need no cleanup.
+     */
+    public void cancelAll() {
+        if (FOLIA) {
+            Bukkit.getGlobalRegionScheduler().cancelTasks(plugin);
+            Bukkit.getAsyncScheduler().cancelTasks(plugin);
+        } else {
+            plugin.getServer().getScheduler().cancelTasks(plugin);
+        }
+    }
+
+    private static Task wrap(BukkitTask bukkitTask) {
+        return new Task() {
+            @Override
+            public void cancel() {
+                bukkitTask.cancel();
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return bukkitTask.isCancelled();
+            }
+        };
+    }
+
+    private static Task wrap(ScheduledTask scheduledTask) {
+        return new Task() {
+            @Override
+            public void cancel() {
+                scheduledTask.cancel();
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return scheduledTask.isCancelled();
+            }
+        };
+    }
+}
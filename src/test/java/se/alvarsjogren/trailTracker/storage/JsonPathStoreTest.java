@@ -0,0 +1,43 @@
+package se.alvarsjogren.trailTracker.storage;
+
+import org.junit.jupiter.api.Test;
+import se.alvarsjogren.trailTracker.MappedPointBuffer;
+import se.alvarsjogren.trailTracker.Path;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the store contract against JSON files whose points are kept in point files,
+ * so appends and tail rewrites go through the point file code.
+ */
+class JsonPathStoreTest extends PathStoreContractTest {
+    @Override
+    PathStore createStore(File folder) {
+        return new JsonPathStore(folder, false, 1, LOGGER);
+    }
+
+    @Test
+    void largePathsAreMappedFromPointFiles() {
+        store.savePath(createPath("Mapped", "world", 10, 0)).join();
+
+        assertInstanceOf(MappedPointBuffer.class, store.loadPoints("Mapped").join());
+    }
+
+    @Test
+    void compressedInlinePathsRoundTrip() {
+        PathStore compressed = new JsonPathStore(new File(tempDir, "gzip"), true, 0, LOGGER);
+        try {
+            Path path = createPath("Compressed", "world", 30, 0);
+            compressed.savePath(path).join();
+            // Inline points cannot be appended to, so the file is rewritten
+            extend(path, 10);
+            assertEquals(40, compressed.appendPoints(path, 30).join().pointCount());
+
+            assertPoints(path.getTrackedPath(), compressed.loadAll().join().get("Compressed").getTrackedPath());
+        } finally {
+            compressed.close();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package se.alvarsjogren.trailTracker.storage;
+
+import org.bukkit.util.BoundingBox;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import se.alvarsjogren.trailTracker.Path;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Times the same save and load workload against every store, so backend and
+ * setting changes can be compared. Skipped in normal builds; run it with
+ * {@code mvn test -Dtest=PathStoreBenchmark -Dtrailtracker.benchmark=true}.
+ * Each workload runs once to warm up before it is timed.
+ */
+@EnabledIfSystemProperty(named = "trailtracker.benchmark", matches = "true")
+class PathStoreBenchmark {
+    /** Number of small paths, like those recorded between nearby places */
+    private static final int PATH_COUNT = 200;
+
+    /** Points of each small path */
+    private static final int PATH_POINTS = 2_000;
+
+    /** Points of the one large path that is grown during the run */
+    private static final int LARGE_PATH_POINTS = 200_000;
+
+    /** Number of autosaves that append to the large path */
+    private static final int APPEND_ROUNDS = 100;
+
+    /** Points recorded between two autosaves */
+    private static final int APPEND_POINTS = 500;
+
+    @TempDir
+    File tempDir;
+
+    /**
+     * Store factory for one run, given a fresh folder.
+     */
+    @FunctionalInterface
+    private interface StoreFactory {
+        PathStore create(File folder) throws IOException;
+    }
+
+    @Test
+    void jsonStore() throws IOException {
+        run("json", folder -> new JsonPathStore(folder, false, 100_000, PathStoreContractTest.LOGGER));
+    }
+
+    @Test
+    void jsonStoreWithPointFiles() throws IOException {
+        run("json, point files", folder -> new JsonPathStore(folder, false, 1, PathStoreContractTest.LOGGER));
+    }
+
+    @Test
+    void jsonStoreCompressed() throws IOException {
+        run("json, gzip", folder -> new JsonPathStore(folder, true, 100_000, PathStoreContractTest.LOGGER));
+    }
+
+    @Test
+    void sqliteStore() throws IOException {
+        run("sqlite", folder -> new SqlitePathStore(new File(folder, "paths.db"), PathStoreContractTest.LOGGER));
+    }
+
+    /**
+     * Warms up and then times the workload against a store.
+     *
+     * @param label Name of the store in the printed results
+     * @param factory Creates the store in a given folder
+     * @throws IOException If the store cannot be opened
+     */
+    private void run(String label, StoreFactory factory) throws IOException {
+        workload(factory.create(new File(tempDir, "warmup")), null);
+        workload(factory.create(new File(tempDir, "timed")), label);
+    }
+
+    /**
+     * Saves many paths, grows a large one over several autosaves, updates metadata,
+     * then reads everything back.
+     *
+     * @param store The store, closed when the workload is done
+     * @param label Name of the store in the printed results, or null to print nothing
+     */
+    private void workload(PathStore store, String label) {
+        try {
+            List<Path> paths = new ArrayList<>(PATH_COUNT);
+            for (int i = 0; i < PATH_COUNT; i++) {
+                paths.add(PathStoreContractTest.createPath("Path " + i, "world", PATH_POINTS, i * 100));
+            }
+            Path large = PathStoreContractTest.createPath("Large", "world", LARGE_PATH_POINTS, 0);
+
+            long start = System.nanoTime();
+            List<CompletableFuture<?>> writes = new ArrayList<>();
+            for (Path path : paths) {
+                writes.add(store.savePath(path));
+            }
+            writes.add(store.savePath(large));
+            CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).join();
+            report(label, "save all", start);
+
+            start = System.nanoTime();
+            for (int round = 0; round < APPEND_ROUNDS; round++) {
+                int stored = large.getPointCount();
+                PathStoreContractTest.extend(large, APPEND_POINTS);
+                store.appendPoints(large, stored).join();
+            }
+            report(label, "append x" + APPEND_ROUNDS, start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < PATH_COUNT; i++) {
+                Path path = paths.get(i);
+                path.setDescription("Description " + i);
+                store.saveMetadata(path).join();
+            }
+            report(label, "metadata x" + PATH_COUNT, start);
+
+            start = System.nanoTime();
+            assertEquals(PATH_COUNT + 1, store.loadAll().join().size());
+            report(label, "load all", start);
+
+            start = System.nanoTime();
+            assertEquals(LARGE_PATH_POINTS + APPEND_ROUNDS * APPEND_POINTS, store.loadPoints("Large").join().size());
+            report(label, "load large", start);
+
+            start = System.nanoTime();
+            store.findPathNames("world", new BoundingBox(0, -64, 0, 1_000, 320, 1_000)).join();
+            report(label, "find in area", start);
+        } finally {
+            store.close();
+        }
+    }
+
+    private static void report(String label, String operation, long startNanos) {
+        if (label != null) {
+            System.out.printf("%-18s %-14s %9.1f ms%n", label, operation, (System.nanoTime() - startNanos) / 1_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,427 @@
+package se.alvarsjogren.trailTracker.storage;
+
+import org.bukkit.Particle;
+import org.bukkit.util.BoundingBox;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import se.alvarsjogren.trailTracker.Path;
+import se.alvarsjogren.trailTracker.PointBuffer;
+import se.alvarsjogren.trailTracker.PointCodec;
+import se.alvarsjogren.trailTracker.PointStorage;
+import se.alvarsjogren.trailTracker.PointTimes;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour every {@link PathStore} must have, run against each backend by a subclass.
+ * Paths are built from packed points directly, so no server or world is needed.
+ */
+abstract class PathStoreContractTest {
+    /** Logger handed to the stores under test */
+    static final Logger LOGGER = Logger.getLogger("PathStoreTest");
+
+    /** Folder the store keeps its files in, removed after each test */
+    @TempDir
+    File tempDir;
+
+    /** The store under test */
+    PathStore store;
+
+    /**
+     * Opens a new store that keeps its files in the given folder.
+     *
+     * @param folder An empty folder
+     * @return The store
+     * @throws IOException If the store cannot be opened
+     */
+    abstract PathStore createStore(File folder) throws IOException;
+
+    @BeforeEach
+    void openStore() throws IOException {
+        store = createStore(tempDir);
+    }
+
+    @AfterEach
+    void closeStore() {
+        store.close();
+    }
+
+    @Test
+    void loadAllIsEmptyForNewStore() {
+        assertTrue(store.loadAll().join().isEmpty());
+    }
+
+    @Test
+    void savePathRoundTripsMetadataAndPoints() {
+        Path path = createPath("Forest Trail", "world", 40, 0);
+        path.setDescription("Through the birches");
+
+        PathStore.WriteResult result = store.savePath(path).join();
+        assertEquals(40, result.pointCount());
+
+        Path loaded = store.loadAll().join().get("Forest Trail");
+        assertNotNull(loaded);
+        assertEquals("Through the birches", loaded.getDescription());
+        assertEquals("Tester", loaded.getCreatedBy());
+        assertEquals("world", loaded.getWorldName());
+        assertEquals(path.getCreationDate(), loaded.getCreationDate());
+        assertEquals(path.getRadius(), loaded.getRadius());
+        assertEquals(PathStore.CURRENT_VERSION, loaded.getVersion());
+        assertPoints(path.getTrackedPath(), loaded.getTrackedPath());
+    }
+
+    @Test
+    void savePathReplacesStoredPath() {
+        store.savePath(createPath("Replaced", "world", 30, 0)).join();
+        Path shorter = createPath("Replaced", "world", 10, 500);
+        store.savePath(shorter).join();
+
+        assertPoints(shorter.getTrackedPath(), store.loadPoints("Replaced").join());
+    }
+
+    @Test
+    void savePathRoundTripsPointTimes() {
+        Path path = createPath("Timed", "world", 20, 0);
+        PointTimes times = new PointTimes();
+        for (int i = 0; i < 20; i++) {
+            times.add(i == 0 ? 0 : 50L * i);
+        }
+        synchronized (path) {
+            path.replacePoints(path.getTrackedPath(), times);
+        }
+
+        store.savePath(path).join();
+
+        PointTimes loaded = store.loadAll().join().get("Timed").getPointTimes();
+        assertNotNull(loaded);
+        assertEquals(20, loaded.size());
+        assertArrayEquals(times.toByteArray(), loaded.toByteArray());
+    }
+
+    @Test
+    void loadPointsReturnsStoredPoints() {
+        Path path = createPath("Points", "world", 25, 0);
+        store.savePath(path).join();
+
+        assertPoints(path.getTrackedPath(), store.loadPoints("Points").join());
+    }
+
+    @Test
+    void loadPointsReturnsNullForUnknownPath() {
+        assertNull(store.loadPoints("Missing").join());
+    }
+
+    @Test
+    void saveMetadataKeepsStoredPoints() {
+        Path path = createPath("Described", "world", 30, 0);
+        store.savePath(path).join();
+
+        path.setDescription("Updated description");
+        store.saveMetadata(path).join();
+
+        Path loaded = store.loadAll().join().get("Described");
+        assertEquals("Updated description", loaded.getDescription());
+        assertPoints(path.getTrackedPath(), loaded.getTrackedPath());
+    }
+
+    @Test
+    void appendPointsAddsToStoredPoints() {
+        Path path = createPath("Growing", "world", 20, 0);
+        store.savePath(path).join();
+
+        extend(path, 15);
+        PathStore.WriteResult result = store.appendPoints(path, 20).join();
+        assertEquals(35, result.pointCount());
+        extend(path, 5);
+        assertEquals(40, store.appendPoints(path, 35).join().pointCount());
+
+        assertPoints(path.getTrackedPath(), store.loadPoints("Growing").join());
+    }
+
+    @Test
+    void appendPointsLeavesPointTimesToSaveMetadata() {
+        Path path = createPath("Timed Growing", "world", 20, 0);
+        synchronized (path) {
+            path.replacePoints(path.getTrackedPath(), times(20));
+        }
+        store.savePath(path).join();
+
+        extend(path, 10);
+        synchronized (path) {
+            path.replacePoints(path.getTrackedPath(), times(30));
+        }
+        store.appendPoints(path, 20).join();
+        assertEquals(20, store.loadAll().join().get("Timed Growing").getPointTimes().size());
+
+        store.saveMetadata(path).join();
+        Path loaded = store.loadAll().join().get("Timed Growing");
+        assertArrayEquals(path.getPointTimes().toByteArray(), loaded.getPointTimes().toByteArray());
+        assertPoints(path.getTrackedPath(), loaded.getTrackedPath());
+    }
+
+    @Test
+    void appendPointsWritesWholePathWhenStoredCountDiffers() {
+        Path path = createPath("Mismatched", "world", 10, 0);
+        store.savePath(path).join();
+
+        extend(path, 20);
+        // Claims more points are stored than there are
+        PathStore.WriteResult result = store.appendPoints(path, 20).join();
+        assertEquals(30, result.pointCount());
+
+        assertPoints(path.getTrackedPath(), store.loadPoints("Mismatched").join());
+    }
+
+    @Test
+    void rewritePointsFromReplacesTrimmedTail() {
+        Path path = createPath("Trimmed", "world", 50, 0);
+        store.savePath(path).join();
+
+        synchronized (path) {
+            path.keepPoints(0, 30);
+        }
+        extend(path, 5);
+        PathStore.WriteResult result = store.rewritePointsFrom(path, 30).join();
+        assertEquals(35, result.pointCount());
+
+        assertPoints(path.getTrackedPath(), store.loadPoints("Trimmed").join());
+    }
+
+    @Test
+    void rewritePointsFromAfterAppendsKeepsEveryPoint() throws IOException {
+        Path path = createPath("Appended", "world", 20, 0);
+        store.savePath(path).join();
+        extend(path, 10);
+        store.appendPoints(path, 20).join();
+        extend(path, 10);
+        store.appendPoints(path, 30).join();
+
+        // Cut into the appended points, then record a new end
+        synchronized (path) {
+            path.keepPoints(0, 25);
+        }
+        extend(path, 7);
+        assertEquals(32, store.rewritePointsFrom(path, 25).join().pointCount());
+
+        store.close();
+        store = createStore(tempDir);
+        assertPoints(path.getTrackedPath(), store.loadAll().join().get("Appended").getTrackedPath());
+    }
+
+    @Test
+    void splitOfLoadedPathKeepsBothHalves() throws IOException {
+        store.savePath(createPath("Whole", "world", 40, 0)).join();
+        Path loaded = store.loadAll().join().get("Whole");
+        PointBuffer expectedFirst = new PointBuffer(loaded.getTrackedPath().slice(0, 16));
+        PointBuffer expectedSecond = new PointBuffer(loaded.getTrackedPath().slice(15, 40));
+
+        // Split the way the recorder does, sharing the split point
+        Path second = createPath("Second Half", "world", 0, 0);
+        synchronized (loaded) {
+            second.replacePoints(loaded.getTrackedPath().slice(15, 40), null);
+            loaded.keepPoints(0, 16);
+        }
+        store.rewritePointsFrom(loaded, 16).join();
+        store.savePath(second).join();
+
+        store.close();
+        store = createStore(tempDir);
+        Map<String, Path> reloaded = store.loadAll().join();
+        assertPoints(expectedFirst, reloaded.get("Whole").getTrackedPath());
+        assertPoints(expectedSecond, reloaded.get("Second Half").getTrackedPath());
+    }
+
+    @Test
+    void trimOfLoadedPathSurvivesReopening() throws IOException {
+        Path path = createPath("Cut", "world", 40, 0);
+        synchronized (path) {
+            path.replacePoints(path.getTrackedPath(), times(40));
+        }
+        store.savePath(path).join();
+        Path loaded = store.loadAll().join().get("Cut");
+        PointBuffer expected = new PointBuffer(loaded.getTrackedPath().slice(5, 30));
+
+        synchronized (loaded) {
+            loaded.keepPoints(5, 30);
+        }
+        store.savePath(loaded).join();
+
+        store.close();
+        store = createStore(tempDir);
+        Path reloaded = store.loadAll().join().get("Cut");
+        assertPoints(expected, reloaded.getTrackedPath());
+        assertEquals(25, reloaded.getPointTimes().size());
+    }
+
+    @Test
+    void rewritePointsFromWritesWholePathWhenNotStored() {
+        Path path = createPath("Unsaved", "world", 12, 0);
+
+        PathStore.WriteResult result = store.rewritePointsFrom(path, 6).join();
+        assertEquals(12, result.pointCount());
+
+        assertPoints(path.getTrackedPath(), store.loadPoints("Unsaved").join());
+    }
+
+    @Test
+    void trafficRoundTrips() {
+        store.savePath(createPath("Busy", "world", 3, 0)).join();
+        store.saveTraffic("Busy", new int[]{4, 0, 9}).join();
+
+        assertArrayEquals(new int[]{4, 0, 9}, store.loadTraffic("Busy").join());
+        assertNull(store.loadTraffic("Quiet").join());
+    }
+
+    @Test
+    void deleteRemovesPathAndTraffic() {
+        store.savePath(createPath("Deleted", "world", 10, 0)).join();
+        store.saveTraffic("Deleted", new int[10]).join();
+        store.savePath(createPath("Kept", "world", 10, 0)).join();
+
+        store.delete("Deleted").join();
+
+        Map<String, Path> loaded = store.loadAll().join();
+        assertEquals(Set.of("Kept"), loaded.keySet());
+        assertNull(store.loadPoints("Deleted").join());
+        assertNull(store.loadTraffic("Deleted").join());
+    }
+
+    @Test
+    void deleteOfUnknownPathSucceeds() {
+        assertDoesNotThrow(() -> store.delete("Missing").join());
+    }
+
+    @Test
+    void findPathNamesFiltersByWorldAndBounds() {
+        store.savePath(createPath("Near", "world", 10, 0)).join();
+        store.savePath(createPath("Far", "world", 10, 1000)).join();
+        store.savePath(createPath("Nether", "world_nether", 10, 0)).join();
+
+        assertEquals(Set.of("Near", "Far"), new HashSet<>(store.findPathNames("world", null).join()));
+        assertEquals(List.of("Near"), store.findPathNames("world", new BoundingBox(-5, -64, -5, 20, 320, 20)).join());
+        assertTrue(store.findPathNames("world_the_end", null).join().isEmpty());
+    }
+
+    @Test
+    void listMetadataDescribesEveryPath() {
+        store.savePath(createPath("First", "world", 10, 0)).join();
+        store.savePath(createPath("Second", "world_nether", 20, 0)).join();
+
+        Map<String, PathMetadata> metadata = new HashMap<>();
+        for (PathMetadata entry : store.listMetadata().join()) {
+            metadata.put(entry.name(), entry);
+        }
+        assertEquals(Set.of("First", "Second"), metadata.keySet());
+        assertEquals("world_nether", metadata.get("Second").worldName());
+        assertEquals(20, metadata.get("Second").pointCount());
+        assertEquals("Tester", metadata.get("First").createdBy());
+    }
+
+    @Test
+    void operationsRunInSubmissionOrder() {
+        Path path = createPath("Ordered", "world", 10, 0);
+        List<String> completed = Collections.synchronizedList(new ArrayList<>());
+
+        // Submitted without waiting, so only the store's ordering keeps them apart
+        CompletableFuture<Void> save = store.savePath(path).thenRun(() -> completed.add("save"));
+        CompletableFuture<Void> delete = store.delete("Ordered").thenRun(() -> completed.add("delete"));
+        CompletableFuture<Map<String, Path>> afterDelete = store.loadAll();
+        CompletableFuture<Void> saveAgain = store.savePath(path).thenRun(() -> completed.add("save again"));
+        CompletableFuture<Map<String, Path>> afterSave = store.loadAll();
+
+        assertTrue(afterDelete.join().isEmpty());
+        assertEquals(Set.of("Ordered"), afterSave.join().keySet());
+        CompletableFuture.allOf(save, delete, saveAgain).join();
+        assertEquals(List.of("save", "delete", "save again"), completed);
+    }
+
+    @Test
+    void storedPathsSurviveReopening() throws IOException {
+        Path path = createPath("Persistent", "world", 30, 0);
+        store.savePath(path).join();
+        store.saveTraffic("Persistent", new int[30]).join();
+        store.close();
+
+        store = createStore(tempDir);
+        assertPoints(path.getTrackedPath(), store.loadAll().join().get("Persistent").getTrackedPath());
+        assertEquals(30, store.loadTraffic("Persistent").join().length);
+    }
+
+    /**
+     * Creates a path along the X axis without binding it to a world.
+     *
+     * @param name The path name
+     * @param worldName The name of the path's world
+     * @param pointCount The number of points
+     * @param startX The X coordinate of the first point
+     * @return The path
+     */
+    static Path createPath(String name, String worldName, int pointCount, double startX) {
+        Path path = new Path(name, 3, Particle.FLAME);
+        path.setWorldName(worldName);
+        path.setCreatedBy("Tester");
+        path.setCreationDate(new Date(1_700_000_000_000L));
+
+        PointBuffer points = new PointBuffer();
+        for (int i = 0; i < pointCount; i++) {
+            points.add(PointCodec.encode(startX + i, 64, i * 0.5));
+        }
+        synchronized (path) {
+            path.replacePoints(points, null);
+        }
+        return path;
+    }
+
+    /**
+     * Appends points to a path, continuing along the X axis.
+     *
+     * @param path The path to extend
+     * @param count The number of points to add
+     */
+    static void extend(Path path, int count) {
+        synchronized (path) {
+            PointBuffer points = new PointBuffer(path.getTrackedPath());
+            int first = points.size();
+            for (int i = first; i < first + count; i++) {
+                points.add(PointCodec.encode(2000 + i, 70, i));
+            }
+            path.replacePoints(points, null);
+        }
+    }
+
+    /**
+     * Creates point times recorded 50 ms apart.
+     *
+     * @param count The number of points
+     * @return The times
+     */
+    static PointTimes times(int count) {
+        PointTimes times = new PointTimes();
+        for (int i = 0; i < count; i++) {
+            times.add(i == 0 ? 0 : 50);
+        }
+        return times;
+    }
+
+    /**
+     * Checks that two point lists hold the same points in the same order.
+     *
+     * @param expected The expected points
+     * @param actual The points read from the store
+     */
+    static void assertPoints(PointStorage expected, PointStorage actual) {
+        assertNotNull(actual);
+        assertEquals(expected.size(), actual.size(), "point count");
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), actual.get(i), "point " + i);
+        }
+    }
+}
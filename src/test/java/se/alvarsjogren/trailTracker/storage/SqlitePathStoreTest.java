@@ -0,0 +1,14 @@
+package se.alvarsjogren.trailTracker.storage;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Runs the store contract against an SQLite database file.
+ */
+class SqlitePathStoreTest extends PathStoreContractTest {
+    @Override
+    PathStore createStore(File folder) throws IOException {
+        return new SqlitePathStore(new File(folder, "paths.db"), LOGGER);
+    }
+}